@@ -22,8 +22,7 @@ import dev.esophose.playerparticles.manager.ParticleManager;
 import dev.esophose.playerparticles.manager.ParticleStyleManager;
 import dev.esophose.playerparticles.manager.PermissionManager;
 import dev.esophose.playerparticles.manager.PluginUpdateManager;
-import dev.esophose.playerparticles.particles.listener.PPlayerCombatListener;
-import dev.esophose.playerparticles.particles.listener.PPlayerMovementListener;
+import dev.esophose.playerparticles.particles.listener.PPlayerStateListener;
 import dev.esophose.playerparticles.util.LegacyMetrics;
 import dev.esophose.playerparticles.util.NMSUtil;
 import java.util.LinkedHashMap;
@@ -67,8 +66,7 @@ public class PlayerParticles extends JavaPlugin {
         this.reload();
 
         PluginManager pm = Bukkit.getPluginManager();
-        pm.registerEvents(new PPlayerMovementListener(), this);
-        pm.registerEvents(new PPlayerCombatListener(), this);
+        pm.registerEvents(new PPlayerStateListener(), this);
         pm.registerEvents(new PlayerChatHook(), this);
 
         if (Setting.SEND_METRICS.getBoolean()) {
@@ -0,0 +1,267 @@
+package dev.esophose.playerparticles.api;
+
+import dev.esophose.playerparticles.PlayerParticles;
+import dev.esophose.playerparticles.manager.DataManager;
+import dev.esophose.playerparticles.particles.PPlayer;
+import dev.esophose.playerparticles.particles.ParticleEffect;
+import dev.esophose.playerparticles.particles.ParticleGroup;
+import dev.esophose.playerparticles.particles.ParticlePair;
+import dev.esophose.playerparticles.particles.data.NoteColor;
+import dev.esophose.playerparticles.particles.data.OrdinaryColor;
+import dev.esophose.playerparticles.styles.ParticleStyle;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Collects changes to the active particles of many players and applies them all at once.
+ * Every change is validated before any are made, and all changed groups are saved in a single database transaction.
+ *
+ * Obtain one with {@link PlayerParticlesAPI#batch()}.
+ */
+public final class ParticleBatch {
+
+    private final PlayerParticles playerParticles;
+    private final Map<UUID, List<Change>> changes;
+    private boolean applied;
+
+    ParticleBatch(PlayerParticles playerParticles) {
+        this.playerParticles = playerParticles;
+        this.changes = new LinkedHashMap<>();
+        this.applied = false;
+    }
+
+    /**
+     * Adds an active particle to a Player's particles
+     *
+     * @param player The player to add to
+     * @param particle The particle to add, must be owned by the player
+     * @return This batch
+     * @throws IllegalArgumentException If the particle is owned by a different player
+     */
+    @NotNull
+    public ParticleBatch addActivePlayerParticle(@NotNull Player player, @NotNull ParticlePair particle) {
+        Objects.requireNonNull(particle);
+        if (!player.getUniqueId().equals(particle.getOwnerUniqueId()))
+            throw new IllegalArgumentException("The particle with the id " + particle.getId() + " is owned by " + particle.getOwnerUniqueId() + ", not " + player.getUniqueId());
+        return this.queue(player, new Change(ChangeType.ADD, particle.getId(), particle));
+    }
+
+    /**
+     * Adds an active particle to a Player's particles, using the next available ID
+     *
+     * @param player The player to add to
+     * @param effect The effect of the particle
+     * @param style The style of the particle
+     * @return This batch
+     */
+    @NotNull
+    public ParticleBatch addActivePlayerParticle(@NotNull Player player, @NotNull ParticleEffect effect, @NotNull ParticleStyle style) {
+        return this.addActivePlayerParticle(player, effect, style, null, null, null);
+    }
+
+    /**
+     * Adds an active particle to a Player's particles, using the next available ID
+     *
+     * @param player The player to add to
+     * @param effect The effect of the particle
+     * @param style The style of the particle
+     * @param colorData The color data of the particle
+     * @return This batch
+     */
+    @NotNull
+    public ParticleBatch addActivePlayerParticle(@NotNull Player player, @NotNull ParticleEffect effect, @NotNull ParticleStyle style, @NotNull OrdinaryColor colorData) {
+        return this.addActivePlayerParticle(player, effect, style, colorData, null, null);
+    }
+
+    /**
+     * Adds an active particle to a Player's particles, using the next available ID
+     *
+     * @param player The player to add to
+     * @param effect The effect of the particle
+     * @param style The style of the particle
+     * @param noteColorData The note color data of the particle
+     * @return This batch
+     */
+    @NotNull
+    public ParticleBatch addActivePlayerParticle(@NotNull Player player, @NotNull ParticleEffect effect, @NotNull ParticleStyle style, @NotNull NoteColor noteColorData) {
+        return this.addActivePlayerParticle(player, effect, style, null, noteColorData, null);
+    }
+
+    /**
+     * Adds an active particle to a Player's particles, using the next available ID
+     *
+     * @param player The player to add to
+     * @param effect The effect of the particle
+     * @param style The style of the particle
+     * @param materialData The material data of the particle
+     * @return This batch
+     */
+    @NotNull
+    public ParticleBatch addActivePlayerParticle(@NotNull Player player, @NotNull ParticleEffect effect, @NotNull ParticleStyle style, @NotNull Material materialData) {
+        return this.addActivePlayerParticle(player, effect, style, null, null, materialData);
+    }
+
+    @NotNull
+    private ParticleBatch addActivePlayerParticle(@NotNull Player player, @NotNull ParticleEffect effect, @NotNull ParticleStyle style, @Nullable OrdinaryColor colorData, @Nullable NoteColor noteColorData, @Nullable Material materialData) {
+        Objects.requireNonNull(effect);
+        Objects.requireNonNull(style);
+
+        Material itemMaterialData = null;
+        Material blockMaterialData = null;
+        if (materialData != null) {
+            if (materialData.isBlock()) {
+                blockMaterialData = materialData;
+            } else {
+                itemMaterialData = materialData;
+            }
+        }
+
+        // The ID is assigned once the batch is applied
+        ParticlePair particle = new ParticlePair(player.getUniqueId(), -1, effect, style, itemMaterialData, blockMaterialData, colorData, noteColorData);
+        return this.queue(player, new Change(ChangeType.ADD, -1, particle));
+    }
+
+    /**
+     * Removes an active particle from a player by ID
+     *
+     * @param player The player to remove from
+     * @param id The ID of the particle to remove
+     * @return This batch
+     */
+    @NotNull
+    public ParticleBatch removeActivePlayerParticle(@NotNull Player player, int id) {
+        return this.queue(player, new Change(ChangeType.REMOVE, id, null));
+    }
+
+    /**
+     * Removes all active particles from a player
+     *
+     * @param player The player to remove from
+     * @return This batch
+     */
+    @NotNull
+    public ParticleBatch resetActivePlayerParticles(@NotNull Player player) {
+        return this.queue(player, new Change(ChangeType.RESET, -1, null));
+    }
+
+    /**
+     * Validates and applies every change in this batch, then saves all changed groups together.
+     * If any change is invalid, no changes are made.
+     *
+     * @return The number of players whose particles were changed
+     * @throws IllegalArgumentException If a player is not loaded, an added particle's ID is already in use, or a removed particle's ID does not exist
+     * @throws IllegalStateException If this batch has already been applied
+     */
+    public int apply() {
+        if (this.applied)
+            throw new IllegalStateException("This batch has already been applied");
+        this.applied = true;
+
+        // Validate everything and work out the final particles before touching any PPlayer
+        Map<PPlayer, List<ParticlePair>> results = new LinkedHashMap<>();
+        for (Map.Entry<UUID, List<Change>> entry : this.changes.entrySet()) {
+            PPlayer pplayer = PlayerParticlesAPI.getInstance().getPPlayer(entry.getKey());
+            if (pplayer == null)
+                throw new IllegalArgumentException("No PPlayer is loaded for " + entry.getKey());
+
+            Map<Integer, ParticlePair> particles = new LinkedHashMap<>();
+            for (ParticlePair particle : pplayer.getActiveParticles())
+                particles.put(particle.getId(), particle);
+
+            for (Change change : entry.getValue()) {
+                switch (change.type) {
+                    case ADD:
+                        ParticlePair particle = change.particle;
+                        if (change.id == -1) {
+                            particle = new ParticlePair(pplayer.getUniqueId(), getSmallestUnusedId(particles.keySet()), particle.getEffect(), particle.getStyle(),
+                                    particle.getItemMaterial(), particle.getBlockMaterial(), particle.getColor(), particle.getNoteColor());
+                        } else if (particles.containsKey(change.id)) {
+                            throw new IllegalArgumentException("A particle already exists with the id " + change.id);
+                        }
+                        particles.put(particle.getId(), particle);
+                        break;
+                    case REMOVE:
+                        if (particles.remove(change.id) == null)
+                            throw new IllegalArgumentException("No particle exists with the id " + change.id);
+                        break;
+                    case RESET:
+                        particles.clear();
+                        break;
+                }
+            }
+
+            results.put(pplayer, new ArrayList<>(particles.values()));
+        }
+
+        Map<UUID, ParticleGroup> groups = new LinkedHashMap<>();
+        for (Map.Entry<PPlayer, List<ParticlePair>> entry : results.entrySet()) {
+            ParticleGroup group = entry.getKey().getActiveParticleGroup();
+            group.getParticles().clear();
+            for (ParticlePair particle : entry.getValue())
+                group.getParticles().put(particle.getId(), particle);
+            groups.put(entry.getKey().getUniqueId(), group);
+        }
+
+        this.playerParticles.getManager(DataManager.class).saveParticleGroups(groups);
+        return groups.size();
+    }
+
+    /**
+     * Queues a change for a player
+     *
+     * @param player The player the change is for
+     * @param change The change
+     * @return This batch
+     */
+    private ParticleBatch queue(@NotNull Player player, Change change) {
+        Objects.requireNonNull(player);
+        if (this.applied)
+            throw new IllegalStateException("This batch has already been applied");
+
+        this.changes.computeIfAbsent(player.getUniqueId(), x -> new ArrayList<>()).add(change);
+        return this;
+    }
+
+    /**
+     * Gets the smallest positive ID that is not in use
+     *
+     * @param ids The IDs in use
+     * @return The smallest unused positive ID
+     */
+    private static int getSmallestUnusedId(Set<Integer> ids) {
+        int id = 1;
+        while (ids.contains(id))
+            id++;
+        return id;
+    }
+
+    private enum ChangeType {
+        ADD,
+        REMOVE,
+        RESET
+    }
+
+    private static class Change {
+
+        private final ChangeType type;
+        private final int id;
+        private final ParticlePair particle;
+
+        private Change(ChangeType type, int id, ParticlePair particle) {
+            this.type = type;
+            this.id = id;
+            this.particle = particle;
+        }
+
+    }
+
+}
@@ -4,12 +4,14 @@ import dev.esophose.playerparticles.PlayerParticles;
 import dev.esophose.playerparticles.manager.DataManager;
 import dev.esophose.playerparticles.manager.GuiManager;
 import dev.esophose.playerparticles.manager.ParticleManager;
+import dev.esophose.playerparticles.manager.ParticleStyleManager;
 import dev.esophose.playerparticles.particles.ConsolePPlayer;
 import dev.esophose.playerparticles.particles.FixedParticleEffect;
 import dev.esophose.playerparticles.particles.PPlayer;
 import dev.esophose.playerparticles.particles.ParticleEffect;
 import dev.esophose.playerparticles.particles.ParticleGroup;
 import dev.esophose.playerparticles.particles.ParticlePair;
+import dev.esophose.playerparticles.particles.TransientParticleEffect;
 import dev.esophose.playerparticles.particles.data.NoteColor;
 import dev.esophose.playerparticles.particles.data.OrdinaryColor;
 import dev.esophose.playerparticles.styles.ParticleStyle;
@@ -21,6 +23,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.bukkit.Bukkit;
@@ -67,6 +70,28 @@ public final class PlayerParticlesAPI {
         return this.playerParticles.getDescription().getVersion();
     }
 
+    /**
+     * Gets an asynchronous version of this API whose futures are completed on the main server thread
+     *
+     * @return the PlayerParticlesAsyncAPI
+     */
+    @NotNull
+    public PlayerParticlesAsyncAPI async() {
+        return this.async((runnable) -> Bukkit.getScheduler().runTask(this.playerParticles, runnable));
+    }
+
+    /**
+     * Gets an asynchronous version of this API whose futures are completed on the given executor
+     *
+     * @param executor The executor to complete futures on
+     * @return the PlayerParticlesAsyncAPI
+     */
+    @NotNull
+    public PlayerParticlesAsyncAPI async(@NotNull Executor executor) {
+        Objects.requireNonNull(executor);
+        return new PlayerParticlesAsyncAPI(this.playerParticles, executor);
+    }
+
     //region Get PPlayer
 
     /**
@@ -128,6 +153,17 @@ public final class PlayerParticlesAPI {
 
     //region Manage Active Player Particles
 
+    /**
+     * Creates a batch of changes to the active particles of many players.
+     * Use this instead of calling the methods below in a loop to save all changes in a single database transaction.
+     *
+     * @return A new ParticleBatch
+     */
+    @NotNull
+    public ParticleBatch batch() {
+        return new ParticleBatch(this.playerParticles);
+    }
+
     /**
      * Adds an active particle to a Player's particles
      *
@@ -1029,6 +1065,90 @@ public final class PlayerParticlesAPI {
 
     //endregion
 
+    //region Transient Effect Management
+
+    /**
+     * Creates a transient particle effect that follows a player.
+     * Transient effects are never saved, they disappear once their lifetime is up, the player logs off, or the plugin is disabled.
+     *
+     * @param player The player for the effect to follow
+     * @param particle The particle to display
+     * @param lifetimeTicks The number of ticks the effect lasts for, or a value less than 1 to last until removed
+     * @return The TransientParticleEffect that was created
+     */
+    @NotNull
+    public TransientParticleEffect createTransientParticleEffect(@NotNull Player player, @NotNull ParticlePair particle, long lifetimeTicks) {
+        Objects.requireNonNull(player);
+        this.validateTransientParticle(particle);
+
+        return this.playerParticles.getManager(ParticleManager.class).addTransientEffect(player.getUniqueId(), particle, lifetimeTicks);
+    }
+
+    /**
+     * Creates a transient particle effect at a location.
+     * Transient effects are never saved, they disappear once their lifetime is up or the plugin is disabled.
+     *
+     * @param location The location to display the effect at
+     * @param particle The particle to display
+     * @param lifetimeTicks The number of ticks the effect lasts for, or a value less than 1 to last until removed
+     * @return The TransientParticleEffect that was created
+     */
+    @NotNull
+    public TransientParticleEffect createTransientParticleEffect(@NotNull Location location, @NotNull ParticlePair particle, long lifetimeTicks) {
+        Objects.requireNonNull(location);
+        Objects.requireNonNull(location.getWorld());
+        this.validateTransientParticle(particle);
+
+        return this.playerParticles.getManager(ParticleManager.class).addTransientEffect(location, particle, lifetimeTicks);
+    }
+
+    /**
+     * Removes a transient particle effect before its lifetime is up
+     *
+     * @param id The ID of the transient particle effect
+     * @return The TransientParticleEffect that was removed, or null if it doesn't exist or has already expired
+     */
+    @Nullable
+    public TransientParticleEffect removeTransientParticleEffect(int id) {
+        return this.playerParticles.getManager(ParticleManager.class).removeTransientEffect(id);
+    }
+
+    /**
+     * Removes all transient particle effects that follow a player
+     *
+     * @param player The player to remove from
+     * @return The number of transient particle effects removed
+     */
+    public int removeTransientParticleEffects(@NotNull Player player) {
+        Objects.requireNonNull(player);
+
+        return this.playerParticles.getManager(ParticleManager.class).removeTransientEffects(player.getUniqueId());
+    }
+
+    /**
+     * Gets a collection of the transient particle effects that haven't expired yet
+     *
+     * @return A collection of the transient particle effects
+     */
+    @NotNull
+    public Collection<TransientParticleEffect> getTransientParticleEffects() {
+        return new ArrayList<>(this.playerParticles.getManager(ParticleManager.class).getTransientEffects());
+    }
+
+    /**
+     * Ensures a particle can be displayed by a transient particle effect
+     *
+     * @param particle The particle to check
+     */
+    private void validateTransientParticle(@NotNull ParticlePair particle) {
+        Objects.requireNonNull(particle);
+
+        if (this.playerParticles.getManager(ParticleStyleManager.class).isEventHandled(particle.getStyle()))
+            throw new IllegalArgumentException("Transient particle effects cannot use the event style " + particle.getStyle().getInternalName());
+    }
+
+    //endregion
+
     //region GUI Management
 
     /**
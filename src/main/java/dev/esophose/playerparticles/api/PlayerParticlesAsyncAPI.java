@@ -0,0 +1,333 @@
+package dev.esophose.playerparticles.api;
+
+import dev.esophose.playerparticles.PlayerParticles;
+import dev.esophose.playerparticles.manager.DataManager;
+import dev.esophose.playerparticles.particles.FixedParticleEffect;
+import dev.esophose.playerparticles.particles.PPlayer;
+import dev.esophose.playerparticles.particles.ParticleEffect;
+import dev.esophose.playerparticles.particles.ParticleGroup;
+import dev.esophose.playerparticles.particles.ParticlePair;
+import dev.esophose.playerparticles.styles.ParticleStyle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An asynchronous version of the {@link PlayerParticlesAPI}.
+ * Obtain one with {@link PlayerParticlesAPI#async()} or {@link PlayerParticlesAPI#async(Executor)}.
+ *
+ * Every method takes a player's UUID and loads their data first if it isn't already, so it works for offline players too.
+ * Changes to a player's data are made on the main thread. Futures for changes complete only once the change has been saved,
+ * and complete exceptionally if the change is invalid or could not be saved.
+ * All futures returned by this class are completed on the executor it was created with.
+ *
+ * Note: Like the PlayerParticlesAPI, this will bypass all permissions and does not send any messages.
+ */
+public final class PlayerParticlesAsyncAPI {
+
+    private final PlayerParticles playerParticles;
+    private final Executor executor;
+
+    PlayerParticlesAsyncAPI(PlayerParticles playerParticles, Executor executor) {
+        this.playerParticles = playerParticles;
+        this.executor = executor;
+    }
+
+    //region Get PPlayer
+
+    /**
+     * Gets a PPlayer from their UUID, loading them if they aren't already
+     *
+     * @param uuid The UUID of the PPlayer
+     * @return A future completed with the PPlayer, a new one is created if they have no saved data
+     */
+    @NotNull
+    public CompletableFuture<PPlayer> getPPlayer(@NotNull UUID uuid) {
+        return this.completeOnExecutor(this.loadPPlayer(uuid));
+    }
+
+    //endregion
+
+    //region Manage Active Player Particles
+
+    /**
+     * Adds an active particle to a player's particles
+     *
+     * @param uuid The UUID of the player to add to
+     * @param particle The particle to add
+     * @return A future completed with the ParticlePair that was added once it has been saved
+     */
+    @NotNull
+    public CompletableFuture<ParticlePair> addActivePlayerParticle(@NotNull UUID uuid, @NotNull ParticlePair particle) {
+        Objects.requireNonNull(particle);
+
+        return this.modify(uuid, (pplayer) -> {
+            ParticleGroup group = pplayer.getActiveParticleGroup();
+            if (group.getParticles().containsKey(particle.getId()))
+                throw new IllegalArgumentException("A particle already exists with the id " + particle.getId());
+
+            group.getParticles().put(particle.getId(), particle);
+            return this.getDataManager().saveParticleGroup(uuid, group).thenApply((x) -> particle);
+        });
+    }
+
+    /**
+     * Adds an active particle to a player's particles, using the next available ID
+     *
+     * @param uuid The UUID of the player to add to
+     * @param effect The effect of the particle
+     * @param style The style of the particle
+     * @return A future completed with the ParticlePair that was added once it has been saved
+     */
+    @NotNull
+    public CompletableFuture<ParticlePair> addActivePlayerParticle(@NotNull UUID uuid, @NotNull ParticleEffect effect, @NotNull ParticleStyle style) {
+        Objects.requireNonNull(effect);
+        Objects.requireNonNull(style);
+
+        return this.modify(uuid, (pplayer) -> {
+            ParticlePair particle = new ParticlePair(uuid, pplayer.getNextActiveParticleId(), effect, style, null, null, null, null);
+            ParticleGroup group = pplayer.getActiveParticleGroup();
+            group.getParticles().put(particle.getId(), particle);
+            return this.getDataManager().saveParticleGroup(uuid, group).thenApply((x) -> particle);
+        });
+    }
+
+    /**
+     * Removes an active particle from a player by ID
+     *
+     * @param uuid The UUID of the player to remove from
+     * @param id The ID of the particle to remove
+     * @return A future completed with the ParticlePair that was removed once the change has been saved
+     */
+    @NotNull
+    public CompletableFuture<ParticlePair> removeActivePlayerParticle(@NotNull UUID uuid, int id) {
+        return this.modify(uuid, (pplayer) -> {
+            ParticleGroup group = pplayer.getActiveParticleGroup();
+            ParticlePair particle = group.getParticles().remove(id);
+            if (particle == null)
+                throw new IllegalArgumentException("No particle exists with the id " + id);
+
+            return this.getDataManager().saveParticleGroup(uuid, group).thenApply((x) -> particle);
+        });
+    }
+
+    /**
+     * Removes all active particles from a player
+     *
+     * @param uuid The UUID of the player to remove from
+     * @return A future completed with the number of particles removed once the change has been saved
+     */
+    @NotNull
+    public CompletableFuture<Integer> resetActivePlayerParticles(@NotNull UUID uuid) {
+        return this.modify(uuid, (pplayer) -> {
+            ParticleGroup group = pplayer.getActiveParticleGroup();
+            int amount = group.getParticles().size();
+            group.getParticles().clear();
+            return this.getDataManager().saveParticleGroup(uuid, group).thenApply((x) -> amount);
+        });
+    }
+
+    /**
+     * Gets all active particles from a player
+     *
+     * @param uuid The UUID of the player to get from
+     * @return A future completed with a copy of the player's active particles
+     */
+    @NotNull
+    public CompletableFuture<Collection<ParticlePair>> getActivePlayerParticles(@NotNull UUID uuid) {
+        return this.completeOnExecutor(this.loadPPlayer(uuid).thenApply((pplayer) -> new ArrayList<>(pplayer.getActiveParticles())));
+    }
+
+    //endregion
+
+    //region Manage Player Particle Groups
+
+    /**
+     * Saves a particle group to a player or edits an existing one
+     *
+     * @param uuid The UUID of the player to save to
+     * @param particleGroup The particle group to save
+     * @return A future completed with the ParticleGroup that was saved once it has been saved
+     */
+    @NotNull
+    public CompletableFuture<ParticleGroup> savePlayerParticleGroup(@NotNull UUID uuid, @NotNull ParticleGroup particleGroup) {
+        Objects.requireNonNull(particleGroup);
+
+        if (particleGroup.getParticles().isEmpty() && !particleGroup.getName().equals(ParticleGroup.DEFAULT_NAME))
+            throw new IllegalArgumentException("Cannot save an empty ParticleGroup");
+
+        return this.modify(uuid, (pplayer) -> {
+            pplayer.getParticleGroups().put(particleGroup.getName().toLowerCase(), particleGroup);
+            return this.getDataManager().saveParticleGroup(uuid, particleGroup).thenApply((x) -> particleGroup);
+        });
+    }
+
+    /**
+     * Removes a particle group from a player
+     *
+     * @param uuid The UUID of the player to remove from
+     * @param groupName The name of the particle group to remove
+     * @return A future completed with the ParticleGroup that was removed once the change has been saved
+     */
+    @NotNull
+    public CompletableFuture<ParticleGroup> removePlayerParticleGroup(@NotNull UUID uuid, @NotNull String groupName) {
+        Objects.requireNonNull(groupName);
+
+        return this.modify(uuid, (pplayer) -> {
+            ParticleGroup group = pplayer.getParticleGroups().remove(groupName.toLowerCase());
+            if (group == null)
+                throw new IllegalArgumentException("No group exists with the name " + groupName);
+
+            return this.getDataManager().removeParticleGroup(uuid, groupName).thenApply((x) -> group);
+        });
+    }
+
+    /**
+     * Gets a collection of the player's particle groups
+     *
+     * @param uuid The UUID of the player to get from
+     * @return A future completed with a copy of the player's particle groups
+     */
+    @NotNull
+    public CompletableFuture<Collection<ParticleGroup>> getPlayerParticleGroups(@NotNull UUID uuid) {
+        return this.completeOnExecutor(this.loadPPlayer(uuid).thenApply((pplayer) -> new ArrayList<>(pplayer.getParticleGroups().values())));
+    }
+
+    //endregion
+
+    //region Fixed Effect Management
+
+    /**
+     * Creates a fixed particle effect for a player
+     *
+     * @param uuid The UUID of the player to create for
+     * @param location The location to create at
+     * @param particle The particle to display
+     * @return A future completed with the FixedParticleEffect that was created once it has been saved
+     */
+    @NotNull
+    public CompletableFuture<FixedParticleEffect> createFixedParticleEffect(@NotNull UUID uuid, @NotNull Location location, @NotNull ParticlePair particle) {
+        Objects.requireNonNull(location);
+        Objects.requireNonNull(location.getWorld());
+        Objects.requireNonNull(particle);
+
+        return this.modify(uuid, (pplayer) -> {
+            FixedParticleEffect fixedEffect = new FixedParticleEffect(uuid, pplayer.getNextFixedEffectId(), location, particle);
+            pplayer.addFixedEffect(fixedEffect);
+            return this.getDataManager().saveFixedEffect(fixedEffect).thenApply((x) -> fixedEffect);
+        });
+    }
+
+    /**
+     * Removes a fixed particle effect from a player
+     *
+     * @param uuid The UUID of the player to remove from
+     * @param id The ID of the fixed particle effect
+     * @return A future completed with the FixedParticleEffect that was removed once the change has been saved
+     */
+    @NotNull
+    public CompletableFuture<FixedParticleEffect> removeFixedEffect(@NotNull UUID uuid, int id) {
+        return this.modify(uuid, (pplayer) -> {
+            FixedParticleEffect fixedEffect = pplayer.getFixedEffectById(id);
+            if (fixedEffect == null)
+                throw new IllegalArgumentException("No fixed effect exists with the id " + id);
+
+            pplayer.removeFixedEffect(id);
+            return this.getDataManager().removeFixedEffect(uuid, id).thenApply((x) -> fixedEffect);
+        });
+    }
+
+    /**
+     * Gets a collection of a player's fixed particle effects
+     *
+     * @param uuid The UUID of the player to get from
+     * @return A future completed with a copy of the player's fixed particle effects
+     */
+    @NotNull
+    public CompletableFuture<Collection<FixedParticleEffect>> getFixedParticleEffects(@NotNull UUID uuid) {
+        return this.completeOnExecutor(this.loadPPlayer(uuid).thenApply((pplayer) -> new ArrayList<>(pplayer.getFixedParticlesMap().values())));
+    }
+
+    //endregion
+
+    //region Player Settings
+
+    /**
+     * Toggles a player's particle visibility on/off
+     *
+     * @param uuid The UUID of the player to toggle visibility for
+     * @param particlesHidden true if the particles should be hidden, or false for visible
+     * @return A future completed once the change has been saved
+     */
+    @NotNull
+    public CompletableFuture<Void> togglePlayerParticleVisibility(@NotNull UUID uuid, boolean particlesHidden) {
+        return this.modify(uuid, (pplayer) -> {
+            pplayer.setParticlesHidden(particlesHidden);
+            return this.getDataManager().updateSettingParticlesHidden(uuid, particlesHidden);
+        });
+    }
+
+    //endregion
+
+    /**
+     * Loads a PPlayer and makes a change to them on the main thread
+     *
+     * @param uuid The UUID of the PPlayer
+     * @param change The change to make, returning a future completed once the change has been saved
+     * @param <T> The type of the result
+     * @return A future completed with the result on this API's executor
+     */
+    private <T> CompletableFuture<T> modify(UUID uuid, Function<PPlayer, CompletableFuture<T>> change) {
+        return this.completeOnExecutor(this.loadPPlayer(uuid).thenCompose(change));
+    }
+
+    /**
+     * Gets a PPlayer, loading them if needed. The future is always completed on the main thread.
+     *
+     * @param uuid The UUID of the PPlayer
+     * @return A future completed with the PPlayer
+     */
+    private CompletableFuture<PPlayer> loadPPlayer(UUID uuid) {
+        Objects.requireNonNull(uuid);
+
+        CompletableFuture<PPlayer> future = new CompletableFuture<>();
+        Runnable load = () -> this.getDataManager().getPPlayer(uuid, future::complete);
+        if (Bukkit.isPrimaryThread()) {
+            load.run();
+        } else {
+            Bukkit.getScheduler().runTask(this.playerParticles, load);
+        }
+        return future;
+    }
+
+    /**
+     * Passes the result of a future on to a new future completed on this API's executor
+     *
+     * @param future The future to wait for
+     * @param <T> The type of the result
+     * @return A future completed on this API's executor
+     */
+    private <T> CompletableFuture<T> completeOnExecutor(CompletableFuture<T> future) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenCompleteAsync((value, ex) -> {
+            if (ex != null) {
+                result.completeExceptionally(ex);
+            } else {
+                result.complete(value);
+            }
+        }, this.executor);
+        return result;
+    }
+
+    private DataManager getDataManager() {
+        return this.playerParticles.getManager(DataManager.class);
+    }
+
+}
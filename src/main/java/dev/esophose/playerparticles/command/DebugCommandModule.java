@@ -0,0 +1,187 @@
+package dev.esophose.playerparticles.command;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import dev.esophose.playerparticles.PlayerParticles;
+import dev.esophose.playerparticles.database.DatabaseConnector;
+import dev.esophose.playerparticles.database.DatabaseStatistics;
+import dev.esophose.playerparticles.database.DatabaseStatistics.HistogramSnapshot;
+import dev.esophose.playerparticles.database.DatabaseStatistics.Operation;
+import dev.esophose.playerparticles.database.DatabaseStatistics.OperationSnapshot;
+import dev.esophose.playerparticles.database.MySQLConnector;
+import dev.esophose.playerparticles.manager.DataManager;
+import dev.esophose.playerparticles.manager.LocaleManager;
+import dev.esophose.playerparticles.manager.ParticleManager;
+import dev.esophose.playerparticles.manager.PermissionManager;
+import dev.esophose.playerparticles.particles.PPlayer;
+import dev.esophose.playerparticles.util.StringPlaceholders;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.bukkit.util.StringUtil;
+
+public class DebugCommandModule implements CommandModule {
+
+    private static final int LOAD_GRAPH_WIDTH = 40;
+    private static final char[] LOAD_GRAPH_BARS = { '\u2581', '\u2582', '\u2583', '\u2584', '\u2585', '\u2586', '\u2587', '\u2588' };
+
+    public void onCommandExecute(PPlayer pplayer, String[] args) {
+        PlayerParticles playerParticles = PlayerParticles.getInstance();
+        LocaleManager localeManager = playerParticles.getManager(LocaleManager.class);
+
+        if (!playerParticles.getManager(PermissionManager.class).canViewDebugInfo(pplayer)) {
+            localeManager.sendMessage(pplayer, "debug-no-permission");
+            return;
+        }
+
+        if (args.length == 0) {
+            localeManager.sendMessage(pplayer, "debug-invalid-args");
+            return;
+        }
+
+        switch (args[0].toLowerCase()) {
+            case "db":
+                this.handleDatabase(pplayer);
+                break;
+            case "load":
+                this.handleLoad(pplayer);
+                break;
+            default:
+                localeManager.sendMessage(pplayer, "debug-invalid-args");
+                break;
+        }
+    }
+
+    /**
+     * Displays how long database operations are taking
+     *
+     * @param pplayer The PPlayer to display the statistics to
+     */
+    private void handleDatabase(PPlayer pplayer) {
+        PlayerParticles playerParticles = PlayerParticles.getInstance();
+        LocaleManager localeManager = playerParticles.getManager(LocaleManager.class);
+        DataManager dataManager = playerParticles.getManager(DataManager.class);
+        DatabaseConnector databaseConnector = dataManager.getDatabaseConnector();
+
+        DatabaseStatistics statistics = dataManager.getDatabaseStatistics();
+        long seconds = (System.currentTimeMillis() - statistics.getStartTime()) / 1000;
+        localeManager.sendMessage(pplayer, "debug-db-header", StringPlaceholders.single("time", (seconds / 60) + "m " + (seconds % 60) + "s"));
+
+        HistogramSnapshot queueWait = statistics.getQueueWait();
+        localeManager.sendSimpleMessage(pplayer, "debug-db-queue", StringPlaceholders.builder("count", queueWait.getCount())
+                .addPlaceholder("avg", DatabaseStatistics.formatMillis(queueWait.getAverage()))
+                .addPlaceholder("p95", DatabaseStatistics.formatMillis(queueWait.getPercentile(0.95)))
+                .addPlaceholder("max", DatabaseStatistics.formatMillis(queueWait.getMax()))
+                .build());
+
+        if (databaseConnector instanceof MySQLConnector) {
+            HikariPoolMXBean pool = ((MySQLConnector) databaseConnector).getPoolState();
+            if (pool != null) {
+                localeManager.sendSimpleMessage(pplayer, "debug-db-pool", StringPlaceholders.builder("active", pool.getActiveConnections())
+                        .addPlaceholder("idle", pool.getIdleConnections())
+                        .addPlaceholder("waiting", pool.getThreadsAwaitingConnection())
+                        .build());
+            }
+        }
+
+        boolean anyOperations = false;
+        for (Map.Entry<Operation, OperationSnapshot> entry : statistics.getOperations().entrySet()) {
+            OperationSnapshot snapshot = entry.getValue();
+            HistogramSnapshot latency = snapshot.getLatency();
+            if (latency.getCount() == 0)
+                continue;
+
+            anyOperations = true;
+            localeManager.sendSimpleMessage(pplayer, "debug-db-operation", StringPlaceholders.builder("operation", entry.getKey().getName())
+                    .addPlaceholder("count", latency.getCount())
+                    .addPlaceholder("avg", DatabaseStatistics.formatMillis(latency.getAverage()))
+                    .addPlaceholder("p50", DatabaseStatistics.formatMillis(latency.getPercentile(0.5)))
+                    .addPlaceholder("p95", DatabaseStatistics.formatMillis(latency.getPercentile(0.95)))
+                    .addPlaceholder("p99", DatabaseStatistics.formatMillis(latency.getPercentile(0.99)))
+                    .addPlaceholder("max", DatabaseStatistics.formatMillis(latency.getMax()))
+                    .addPlaceholder("pool", DatabaseStatistics.formatMillis(snapshot.getPoolWait().getPercentile(0.95)))
+                    .addPlaceholder("rows", snapshot.getRows())
+                    .addPlaceholder("errors", snapshot.getErrors())
+                    .build());
+        }
+
+        if (!anyOperations)
+            localeManager.sendSimpleMessage(pplayer, "debug-db-none");
+    }
+
+    /**
+     * Displays how many particles are being displayed each particle tick and how evenly they are spread out
+     *
+     * @param pplayer The PPlayer to display the load to
+     */
+    private void handleLoad(PPlayer pplayer) {
+        PlayerParticles playerParticles = PlayerParticles.getInstance();
+        LocaleManager localeManager = playerParticles.getManager(LocaleManager.class);
+        ParticleManager particleManager = playerParticles.getManager(ParticleManager.class);
+
+        int[] particles = particleManager.getParticleHistory();
+        long[] runTimes = particleManager.getRunTimeHistory();
+        if (particles.length == 0) {
+            localeManager.sendMessage(pplayer, "debug-load-none");
+            return;
+        }
+
+        int min = Integer.MAX_VALUE, max = 0;
+        long total = 0, maxRunTime = 0, totalRunTime = 0;
+        for (int i = 0; i < particles.length; i++) {
+            min = Math.min(min, particles[i]);
+            max = Math.max(max, particles[i]);
+            total += particles[i];
+            maxRunTime = Math.max(maxRunTime, runTimes[i]);
+            totalRunTime += runTimes[i];
+        }
+        double average = (double) total / particles.length;
+
+        localeManager.sendMessage(pplayer, "debug-load-header", StringPlaceholders.single("ticks", particles.length));
+        localeManager.sendSimpleMessage(pplayer, "debug-load-particles", StringPlaceholders.builder("min", min)
+                .addPlaceholder("avg", String.format("%.1f", average))
+                .addPlaceholder("max", max)
+                .addPlaceholder("peak", average == 0 ? "1.00" : String.format("%.2f", max / average))
+                .build());
+        localeManager.sendSimpleMessage(pplayer, "debug-load-time", StringPlaceholders.builder("avg", DatabaseStatistics.formatMillis(totalRunTime / particles.length))
+                .addPlaceholder("max", DatabaseStatistics.formatMillis(maxRunTime))
+                .build());
+
+        // Draw the most recent ticks as a bar graph, scaled to the busiest tick
+        StringBuilder graph = new StringBuilder();
+        int start = Math.max(0, particles.length - LOAD_GRAPH_WIDTH);
+        for (int i = start; i < particles.length; i++)
+            graph.append(LOAD_GRAPH_BARS[max == 0 ? 0 : (int) ((long) particles[i] * (LOAD_GRAPH_BARS.length - 1) / max)]);
+        localeManager.sendSimpleMessage(pplayer, "debug-load-graph", StringPlaceholders.builder("ticks", particles.length - start)
+                .addPlaceholder("graph", graph.toString())
+                .build());
+    }
+
+    public List<String> onTabComplete(PPlayer pplayer, String[] args) {
+        List<String> matches = new ArrayList<>();
+        if (args.length == 1)
+            StringUtil.copyPartialMatches(args[0], Arrays.asList("db", "load"), matches);
+        return matches;
+    }
+
+    public String getName() {
+        return "debug";
+    }
+
+    public String getDescriptionKey() {
+        return "command-description-debug";
+    }
+
+    public String getArguments() {
+        return "<db|load>";
+    }
+
+    public boolean requiresEffectsAndStyles() {
+        return false;
+    }
+
+    public boolean canConsoleExecute() {
+        return true;
+    }
+
+}
@@ -2,6 +2,7 @@ package dev.esophose.playerparticles.command;
 
 import dev.esophose.playerparticles.PlayerParticles;
 import dev.esophose.playerparticles.api.PlayerParticlesAPI;
+import dev.esophose.playerparticles.manager.DataManager;
 import dev.esophose.playerparticles.manager.LocaleManager;
 import dev.esophose.playerparticles.manager.PermissionManager;
 import dev.esophose.playerparticles.particles.FixedParticleEffect;
@@ -26,6 +27,7 @@ import net.md_5.bungee.api.ChatColor;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.util.StringUtil;
 
@@ -68,6 +70,9 @@ public class FixedCommandModule implements CommandModule {
             case "clear":
                 this.handleClear(pplayer, cmdArgs);
                 return;
+            case "rehome":
+                this.handleRehome(pplayer, cmdArgs);
+                return;
             case "teleport":
                 if (pplayer.getPlayer() != null) {
                     this.handleTeleport(pplayer, cmdArgs);
@@ -99,6 +104,8 @@ public class FixedCommandModule implements CommandModule {
         } else {
             localeManager.sendMessage(pplayer, "command-description-fixed-clear-console");
         }
+        if (PlayerParticles.getInstance().getManager(PermissionManager.class).canRehomeFixedEffects(pplayer))
+            localeManager.sendMessage(pplayer, "command-description-fixed-rehome");
     }
 
     /**
@@ -516,6 +523,42 @@ public class FixedCommandModule implements CommandModule {
         localeManager.sendMessage(pplayer, "fixed-clear-success", StringPlaceholders.builder("amount", amountRemoved).addPlaceholder("range", radius).build());
     }
 
+    /**
+     * Handles the command /pp fixed rehome
+     *
+     * @param pplayer The PPlayer
+     * @param args The command arguments
+     */
+    private void handleRehome(PPlayer pplayer, String[] args) {
+        LocaleManager localeManager = PlayerParticles.getInstance().getManager(LocaleManager.class);
+        PermissionManager permissionManager = PlayerParticles.getInstance().getManager(PermissionManager.class);
+
+        if (!permissionManager.canRehomeFixedEffects(pplayer)) {
+            localeManager.sendMessage(pplayer, "fixed-rehome-no-permission");
+            return;
+        }
+
+        if (args.length < 2) {
+            localeManager.sendMessage(pplayer, "fixed-rehome-no-args");
+            return;
+        }
+
+        // Fixed effects that aren't assigned to a server are saved with an empty id
+        String fromServerId = args[0].equalsIgnoreCase("none") ? "" : args[0];
+        String toServerId = args[1].equalsIgnoreCase("none") ? "" : args[1];
+        String worldName = args.length > 2 ? args[2] : null;
+
+        // The callback runs on the database thread, send the messages from the main thread
+        PlayerParticles.getInstance().getManager(DataManager.class).rehomeFixedEffects(fromServerId, toServerId, worldName, (moved, skipped) -> Bukkit.getScheduler().runTask(PlayerParticles.getInstance(), () -> {
+            localeManager.sendMessage(pplayer, "fixed-rehome-success", StringPlaceholders.builder("amount", moved).addPlaceholder("from", args[0]).addPlaceholder("to", args[1]).build());
+            if (skipped > 0)
+                localeManager.sendMessage(pplayer, "fixed-rehome-skipped", StringPlaceholders.builder("amount", skipped).addPlaceholder("to", args[1]).build());
+        })).exceptionally((ex) -> {
+            Bukkit.getScheduler().runTask(PlayerParticles.getInstance(), () -> localeManager.sendMessage(pplayer, "fixed-rehome-failed"));
+            return null;
+        });
+    }
+
     /**
      * Handles the command /pp fixed teleport
      *
@@ -568,6 +611,8 @@ public class FixedCommandModule implements CommandModule {
             } else {
                 possibleCmds = new ArrayList<>(Arrays.asList("create", "edit", "remove", "list", "info", "clear"));
             }
+            if (permissionManager.canRehomeFixedEffects(pplayer))
+                possibleCmds.add("rehome");
             if (args.length == 0) matches = possibleCmds;
             else StringUtil.copyPartialMatches(args[0], possibleCmds, matches);
         } else {
@@ -764,6 +809,18 @@ public class FixedCommandModule implements CommandModule {
                         matches.add("<radius>");
                     }
                     break;
+                case "rehome":
+                    if (!permissionManager.canRehomeFixedEffects(pplayer))
+                        break;
+
+                    if (args.length == 2) {
+                        matches.add("<from> <to> [world]");
+                    } else if (args.length == 3) {
+                        matches.add("<to> [world]");
+                    } else if (args.length == 4) {
+                        StringUtil.copyPartialMatches(args[3], Bukkit.getWorlds().stream().map(World::getName).collect(Collectors.toList()), matches);
+                    }
+                    break;
                 case "list":
                     break;
             }
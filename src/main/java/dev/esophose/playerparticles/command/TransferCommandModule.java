@@ -0,0 +1,78 @@
+package dev.esophose.playerparticles.command;
+
+import dev.esophose.playerparticles.PlayerParticles;
+import dev.esophose.playerparticles.manager.DataMigrationManager;
+import dev.esophose.playerparticles.manager.LocaleManager;
+import dev.esophose.playerparticles.manager.PermissionManager;
+import dev.esophose.playerparticles.particles.PPlayer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.bukkit.util.StringUtil;
+
+public class TransferCommandModule implements CommandModule {
+
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    public void onCommandExecute(PPlayer pplayer, String[] args) {
+        PlayerParticles playerParticles = PlayerParticles.getInstance();
+        LocaleManager localeManager = playerParticles.getManager(LocaleManager.class);
+
+        if (!playerParticles.getManager(PermissionManager.class).canTransferData(pplayer)) {
+            localeManager.sendMessage(pplayer, "transfer-no-permission");
+            return;
+        }
+
+        if (args.length == 0 || (!args[0].equalsIgnoreCase("mysql") && !args[0].equalsIgnoreCase("sqlite"))) {
+            localeManager.sendMessage(pplayer, "transfer-invalid-args");
+            return;
+        }
+
+        int batchSize = DEFAULT_BATCH_SIZE;
+        if (args.length > 1) {
+            try {
+                batchSize = Integer.parseInt(args[1]);
+            } catch (NumberFormatException ignored) {
+                batchSize = -1;
+            }
+
+            if (batchSize <= 0) {
+                localeManager.sendMessage(pplayer, "transfer-invalid-args");
+                return;
+            }
+        }
+
+        // Commands are already run asynchronously, so the transfer can run on this thread
+        playerParticles.getManager(DataMigrationManager.class).transferData(pplayer, args[0].equalsIgnoreCase("mysql"), batchSize);
+    }
+
+    public List<String> onTabComplete(PPlayer pplayer, String[] args) {
+        List<String> matches = new ArrayList<>();
+        if (args.length == 1)
+            StringUtil.copyPartialMatches(args[0], Arrays.asList("mysql", "sqlite"), matches);
+        else if (args.length == 2 && args[1].isEmpty())
+            matches.add("[batchSize]");
+        return matches;
+    }
+
+    public String getName() {
+        return "transfer";
+    }
+
+    public String getDescriptionKey() {
+        return "command-description-transfer";
+    }
+
+    public String getArguments() {
+        return "<mysql|sqlite> [batchSize]";
+    }
+
+    public boolean requiresEffectsAndStyles() {
+        return false;
+    }
+
+    public boolean canConsoleExecute() {
+        return true;
+    }
+
+}
@@ -0,0 +1,493 @@
+package dev.esophose.playerparticles.database;
+
+import dev.esophose.playerparticles.database.DatabaseConnector.ConnectionCallback;
+import dev.esophose.playerparticles.database.LogStore.StoreCallback;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps track of how long database operations take, how long they wait to run, how many rows they touch and how often they fail
+ */
+public class DatabaseStatistics {
+
+    /**
+     * How large the log file can get before it is rolled over, in bytes
+     */
+    private static final long MAX_LOG_SIZE = 1024 * 1024;
+
+    /**
+     * How many rolled over log files to keep
+     */
+    private static final int MAX_LOG_FILES = 3;
+
+    private final Map<Operation, OperationStatistics> operations;
+    private final LatencyHistogram queueWait;
+    private final long startTime;
+
+    /**
+     * The row counter of the operation running on the current thread, or null if none is running
+     */
+    private final ThreadLocal<long[]> currentRows;
+
+    private Map<Operation, OperationSnapshot> lastLoggedOperations;
+    private HistogramSnapshot lastLoggedQueueWait;
+
+    public DatabaseStatistics() {
+        this.operations = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values())
+            this.operations.put(operation, new OperationStatistics());
+        this.queueWait = new LatencyHistogram();
+        this.startTime = System.currentTimeMillis();
+        this.currentRows = new ThreadLocal<>();
+    }
+
+    /**
+     * Executes a callback with a connection from a connector, recording the time spent waiting for the connection,
+     * the time spent running, and whether it failed against an operation.
+     * Not being able to get a connection at all counts as a failure.
+     *
+     * @param connector The connector to get the connection from
+     * @param operation The operation the callback performs
+     * @param callback The callback to execute once the connection is retrieved
+     */
+    public void connect(DatabaseConnector connector, Operation operation, ConnectionCallback callback) {
+        boolean[] connected = { false };
+        connector.connect(this.instrument(operation, (connection) -> {
+            connected[0] = true;
+            callback.accept(connection);
+        }));
+
+        if (!connected[0])
+            this.recordFailure(operation);
+    }
+
+    /**
+     * Executes a callback with the log store, recording the time spent waiting for the store,
+     * the time spent running, and whether it failed against an operation.
+     *
+     * @param logStore The log store
+     * @param operation The operation the callback performs
+     * @param callback The callback to execute once the store is free
+     */
+    public void connect(LogStore logStore, Operation operation, StoreCallback callback) {
+        logStore.connect(this.instrumentLogStore(operation, callback));
+    }
+
+    /**
+     * Wraps a callback so the time spent waiting for a connection, the time spent running, the rows reported through
+     * {@link #recordRows(int)}, and whether it failed are recorded against an operation. The connection itself is passed through untouched.
+     * Should be called right before the callback is passed to {@link DatabaseConnector#connect(ConnectionCallback)}.
+     *
+     * @param operation The operation the callback performs
+     * @param callback The callback to wrap
+     * @return The wrapped callback
+     */
+    public ConnectionCallback instrument(Operation operation, ConnectionCallback callback) {
+        OperationStatistics statistics = this.operations.get(operation);
+        long requestedTime = System.nanoTime();
+        return (connection) -> {
+            long startTime = statistics.start(requestedTime);
+            long[] previousRows = this.currentRows.get();
+            long[] rows = new long[1];
+            this.currentRows.set(rows);
+
+            boolean success = false;
+            try {
+                callback.accept(connection);
+                success = true;
+            } finally {
+                this.currentRows.set(previousRows);
+                statistics.finish(startTime, rows[0], success);
+            }
+        };
+    }
+
+    /**
+     * Wraps a log store callback so the time spent waiting for the store, the time spent running, the records reported
+     * through {@link #recordRows(int)}, and whether it failed are recorded against an operation.
+     * Should be called right before the callback is passed to {@link LogStore#connect(StoreCallback)}.
+     *
+     * @param operation The operation the callback performs
+     * @param callback The callback to wrap
+     * @return The wrapped callback
+     */
+    public StoreCallback instrumentLogStore(Operation operation, StoreCallback callback) {
+        OperationStatistics statistics = this.operations.get(operation);
+        long requestedTime = System.nanoTime();
+        return (store) -> {
+            long startTime = statistics.start(requestedTime);
+            long[] previousRows = this.currentRows.get();
+            long[] rows = new long[1];
+            this.currentRows.set(rows);
+
+            boolean success = false;
+            try {
+                callback.accept(store);
+                success = true;
+            } finally {
+                this.currentRows.set(previousRows);
+                statistics.finish(startTime, rows[0], success);
+            }
+        };
+    }
+
+    /**
+     * Counts a row read by the operation running on the current thread
+     */
+    public void recordRow() {
+        this.recordRows(1);
+    }
+
+    /**
+     * Counts rows read or changed by the operation running on the current thread
+     * Does nothing if no operation is running
+     *
+     * @param rows The number of rows, as returned by {@link java.sql.Statement#executeUpdate(String)}
+     */
+    public void recordRows(int rows) {
+        long[] currentRows = this.currentRows.get();
+        if (currentRows != null && rows > 0)
+            currentRows[0] += rows;
+    }
+
+    /**
+     * Counts rows changed by a batch run by the operation running on the current thread
+     *
+     * @param batchRows The row counts returned by {@link java.sql.Statement#executeBatch()}, unknown counts are skipped
+     */
+    public void recordRows(int[] batchRows) {
+        for (int rows : batchRows)
+            this.recordRows(rows);
+    }
+
+    /**
+     * Records a failure of an operation that never got to run, such as when a connection couldn't be made
+     *
+     * @param operation The operation that failed
+     */
+    public void recordFailure(Operation operation) {
+        this.operations.get(operation).errors.increment();
+    }
+
+    /**
+     * Records how long a task waited on the scheduler before it started running
+     *
+     * @param nanos The time waited in nanoseconds
+     */
+    public void recordQueueWait(long nanos) {
+        this.queueWait.record(nanos);
+    }
+
+    /**
+     * @return A snapshot of every operation's statistics since these statistics were created
+     */
+    public Map<Operation, OperationSnapshot> getOperations() {
+        Map<Operation, OperationSnapshot> snapshots = new EnumMap<>(Operation.class);
+        for (Map.Entry<Operation, OperationStatistics> entry : this.operations.entrySet())
+            snapshots.put(entry.getKey(), entry.getValue().snapshot());
+        return snapshots;
+    }
+
+    /**
+     * @return A snapshot of the time tasks waited on the scheduler since these statistics were created
+     */
+    public HistogramSnapshot getQueueWait() {
+        return this.queueWait.snapshot();
+    }
+
+    /**
+     * @return The time these statistics were created
+     */
+    public long getStartTime() {
+        return this.startTime;
+    }
+
+    /**
+     * Appends the statistics since the last time this was called to a log file, rolling it over if it gets too large
+     *
+     * @param logFile The file to write to
+     * @throws IOException If the file could not be written
+     */
+    public synchronized void writeLog(File logFile) throws IOException {
+        Map<Operation, OperationSnapshot> operations = this.getOperations();
+        HistogramSnapshot queueWait = this.getQueueWait();
+
+        Map<Operation, OperationSnapshot> lastOperations = this.lastLoggedOperations;
+        HistogramSnapshot lastQueueWait = this.lastLoggedQueueWait;
+        this.lastLoggedOperations = operations;
+        this.lastLoggedQueueWait = queueWait;
+
+        if (!logFile.getParentFile().exists() && !logFile.getParentFile().mkdirs())
+            throw new IOException("Unable to create the directory " + logFile.getParentFile());
+
+        if (logFile.length() > MAX_LOG_SIZE) {
+            for (int i = MAX_LOG_FILES - 1; i >= 0; i--) {
+                File from = i == 0 ? logFile : new File(logFile.getPath() + "." + i);
+                File to = new File(logFile.getPath() + "." + (i + 1));
+                if (from.exists() && (!to.exists() || to.delete()))
+                    from.renameTo(to);
+            }
+        }
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(logFile, true))) {
+            String timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date());
+            HistogramSnapshot queueWaitDelta = lastQueueWait == null ? queueWait : queueWait.minus(lastQueueWait);
+            writer.println("[" + timestamp + "] queue-wait " + queueWaitDelta.describe());
+
+            for (Map.Entry<Operation, OperationSnapshot> entry : operations.entrySet()) {
+                OperationSnapshot snapshot = entry.getValue();
+                if (lastOperations != null)
+                    snapshot = snapshot.minus(lastOperations.get(entry.getKey()));
+                if (snapshot.getLatency().getCount() == 0)
+                    continue;
+
+                writer.println("[" + timestamp + "] " + entry.getKey().getName() + " " + snapshot.getLatency().describe()
+                        + " pool-wait-p95=" + formatMillis(snapshot.getPoolWait().getPercentile(0.95))
+                        + " rows=" + snapshot.getRows()
+                        + " errors=" + snapshot.getErrors());
+            }
+        }
+    }
+
+    /**
+     * Formats a time in nanoseconds as milliseconds
+     *
+     * @param nanos The time in nanoseconds
+     * @return The formatted time
+     */
+    public static String formatMillis(long nanos) {
+        return String.format("%.2fms", nanos / 1_000_000.0);
+    }
+
+    /**
+     * The operations the DataManager performs against the database
+     */
+    public enum Operation {
+        LOAD_PLAYER("load-player"),
+        LOAD_FIXED_EFFECTS("load-fixed-effects"),
+        SAVE_SETTINGS("save-settings"),
+        SAVE_GROUP("save-group"),
+        SAVE_GROUPS("save-groups"),
+        REMOVE_GROUP("remove-group"),
+        RESET_GROUP("reset-group"),
+        SAVE_FIXED("save-fixed"),
+        UPDATE_FIXED("update-fixed"),
+        REMOVE_FIXED("remove-fixed"),
+        REHOME_FIXED("rehome-fixed"),
+        SYNC_CHANGES("sync-changes");
+
+        private final String name;
+
+        Operation(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return The name of the operation as shown in the debug command and log file
+         */
+        public String getName() {
+            return this.name;
+        }
+    }
+
+    /**
+     * The statistics for a single operation
+     */
+    private static class OperationStatistics {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram poolWait = new LatencyHistogram();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        private long start(long requestedTime) {
+            long startTime = System.nanoTime();
+            this.poolWait.record(startTime - requestedTime);
+            return startTime;
+        }
+
+        private void finish(long startTime, long rows, boolean success) {
+            this.latency.record(System.nanoTime() - startTime);
+            this.rows.add(rows);
+            if (!success)
+                this.errors.increment();
+        }
+
+        private OperationSnapshot snapshot() {
+            return new OperationSnapshot(this.latency.snapshot(), this.poolWait.snapshot(), this.rows.sum(), this.errors.sum());
+        }
+
+    }
+
+    /**
+     * The statistics for a single operation at a point in time
+     */
+    public static class OperationSnapshot {
+
+        private final HistogramSnapshot latency;
+        private final HistogramSnapshot poolWait;
+        private final long rows;
+        private final long errors;
+
+        private OperationSnapshot(HistogramSnapshot latency, HistogramSnapshot poolWait, long rows, long errors) {
+            this.latency = latency;
+            this.poolWait = poolWait;
+            this.rows = rows;
+            this.errors = errors;
+        }
+
+        /**
+         * @return How long the operation took to run once it had a connection
+         */
+        public HistogramSnapshot getLatency() {
+            return this.latency;
+        }
+
+        /**
+         * @return How long the operation waited to get a connection or the log store
+         */
+        public HistogramSnapshot getPoolWait() {
+            return this.poolWait;
+        }
+
+        /**
+         * @return The number of rows read or changed, or records for the log store
+         */
+        public long getRows() {
+            return this.rows;
+        }
+
+        /**
+         * @return The number of times the operation failed
+         */
+        public long getErrors() {
+            return this.errors;
+        }
+
+        private OperationSnapshot minus(OperationSnapshot other) {
+            return new OperationSnapshot(this.latency.minus(other.latency), this.poolWait.minus(other.poolWait), this.rows - other.rows, this.errors - other.errors);
+        }
+
+    }
+
+    /**
+     * A histogram of times with buckets that double in size, starting at one microsecond
+     */
+    private static class LatencyHistogram {
+
+        private static final int BUCKETS = 32;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void record(long nanos) {
+            long micros = Math.max(1, nanos / 1000);
+            int bucket = Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+            this.buckets.incrementAndGet(bucket);
+            this.totalNanos.add(nanos);
+            this.maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        private HistogramSnapshot snapshot() {
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++)
+                counts[i] = this.buckets.get(i);
+            return new HistogramSnapshot(counts, this.totalNanos.sum(), this.maxNanos.get());
+        }
+
+    }
+
+    /**
+     * A histogram of times at a point in time
+     */
+    public static class HistogramSnapshot {
+
+        private final long[] buckets;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        private HistogramSnapshot(long[] buckets, long totalNanos, long maxNanos) {
+            this.buckets = buckets;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+
+            long count = 0;
+            for (long bucket : buckets)
+                count += bucket;
+            this.count = count;
+        }
+
+        /**
+         * @return The number of times recorded
+         */
+        public long getCount() {
+            return this.count;
+        }
+
+        /**
+         * @return The average time in nanoseconds
+         */
+        public long getAverage() {
+            return this.count == 0 ? 0 : this.totalNanos / this.count;
+        }
+
+        /**
+         * @return The longest time in nanoseconds, this is since the statistics were created even for a difference between snapshots
+         */
+        public long getMax() {
+            return this.maxNanos;
+        }
+
+        /**
+         * Estimates a percentile from the histogram, rounding up to the top of the bucket it falls in
+         *
+         * @param percentile The percentile to get, between 0 and 1
+         * @return The time in nanoseconds
+         */
+        public long getPercentile(double percentile) {
+            if (this.count == 0)
+                return 0;
+
+            long target = (long) Math.ceil(this.count * percentile);
+            long seen = 0;
+            for (int i = 0; i < this.buckets.length; i++) {
+                seen += this.buckets[i];
+                if (seen >= target)
+                    return Math.min(this.maxNanos, (1L << (i + 1)) * 1000);
+            }
+            return this.maxNanos;
+        }
+
+        /**
+         * @return The count, average and percentiles in a single line
+         */
+        public String describe() {
+            return "count=" + this.count
+                    + " avg=" + formatMillis(this.getAverage())
+                    + " p50=" + formatMillis(this.getPercentile(0.5))
+                    + " p95=" + formatMillis(this.getPercentile(0.95))
+                    + " p99=" + formatMillis(this.getPercentile(0.99))
+                    + " max=" + formatMillis(this.maxNanos);
+        }
+
+        private HistogramSnapshot minus(HistogramSnapshot other) {
+            long[] buckets = new long[this.buckets.length];
+            for (int i = 0; i < buckets.length; i++)
+                buckets[i] = this.buckets[i] - other.buckets[i];
+            return new HistogramSnapshot(buckets, this.totalNanos - other.totalNanos, this.maxNanos);
+        }
+
+    }
+
+}
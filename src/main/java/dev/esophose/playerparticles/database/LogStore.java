@@ -0,0 +1,556 @@
+package dev.esophose.playerparticles.database;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only store holding one binary record per player, used in place of a database on single server installs.
+ * <p>
+ * Every write appends the player's whole record to the end of the log and points the index at the new copy.
+ * Older copies are left where they are until the log is compacted into a new file containing only the latest copies.
+ * The index is an open addressing hash table of player UUID to log offset in a memory-mapped file,
+ * and the log itself is memory-mapped for reading, so loading a record never has to go through a read call.
+ * <p>
+ * Each entry in the log is checksummed and synced to disk before the write returns. If the store isn't closed
+ * properly the index is rebuilt from the log the next time it is opened, and anything after the last complete
+ * entry is cut off.
+ */
+public class LogStore {
+
+    private static final int ENTRY_MAGIC = 0x50504C47;
+    private static final int INDEX_MAGIC = 0x50504958;
+
+    /**
+     * magic, payload length, checksum, flags, uuid
+     */
+    private static final int ENTRY_HEADER_SIZE = 4 + 4 + 4 + 4 + 16;
+
+    /**
+     * magic, clean, capacity, size, generation, log length, live bytes
+     */
+    private static final int INDEX_HEADER_SIZE = 4 + 4 + 4 + 4 + 8 + 8 + 8;
+
+    /**
+     * uuid, flags and offset
+     */
+    private static final int INDEX_SLOT_SIZE = 16 + 8;
+    private static final int INITIAL_INDEX_CAPACITY = 1024;
+    private static final long OFFSET_MASK = (1L << 48) - 1;
+
+    private final File directory;
+    private final String name;
+    private final Logger logger;
+
+    private long generation;
+    private FileChannel logChannel;
+    private long logLength;
+    private long liveBytes;
+    private MappedByteBuffer logBuffer;
+
+    private FileChannel indexChannel;
+    private MappedByteBuffer index;
+    private int capacity;
+    private int size;
+
+    /**
+     * Opens a log store, creating it if it doesn't exist and recovering it if it wasn't closed properly
+     *
+     * @param directory The directory to keep the log and index files in
+     * @param name The name of the store, used for the file names
+     * @param logger The logger to report recovery and compaction to
+     * @throws IOException If the files could not be opened
+     */
+    public LogStore(File directory, String name, Logger logger) throws IOException {
+        this.directory = directory;
+        this.name = name;
+        this.logger = logger;
+
+        if (!directory.exists() && !directory.mkdirs())
+            throw new IOException("Unable to create the directory " + directory);
+
+        // Use the newest complete log, anything else is left over from a compaction
+        this.generation = 0;
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                long fileGeneration = this.parseGeneration(file.getName());
+                if (fileGeneration > this.generation)
+                    this.generation = fileGeneration;
+            }
+
+            for (File file : files) {
+                long fileGeneration = this.parseGeneration(file.getName());
+                if ((fileGeneration >= 0 && fileGeneration != this.generation) || file.getName().equals(this.name + ".log.tmp"))
+                    Files.deleteIfExists(file.toPath());
+            }
+        }
+
+        this.logChannel = FileChannel.open(this.getLogFile(this.generation).toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.logLength = this.logChannel.size();
+        this.indexChannel = FileChannel.open(new File(directory, this.name + ".idx").toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (!this.openIndex())
+            this.rebuildIndex();
+
+        // Anything from here on isn't trusted until the store is closed
+        this.index.putInt(4, 0);
+        this.index.force();
+    }
+
+    /**
+     * Gets the latest record saved for a player
+     * The returned buffer is a view of the memory-mapped log and is not copied
+     *
+     * @param uuid The player to get the record of
+     * @return A read-only buffer containing the record, or null if the player doesn't have one
+     * @throws IOException If the log could not be mapped
+     */
+    public synchronized ByteBuffer read(UUID uuid) throws IOException {
+        int slot = this.findSlot(uuid);
+        long entry = this.index.getLong(slot + 16);
+        if (entry == 0)
+            return null;
+
+        int offset = (int) ((entry & OFFSET_MASK) - 1);
+        MappedByteBuffer logBuffer = this.getLogBuffer(offset + ENTRY_HEADER_SIZE);
+        int length = logBuffer.getInt(offset + 4);
+
+        ByteBuffer record = logBuffer.duplicate();
+        record.position(offset + ENTRY_HEADER_SIZE);
+        record.limit(offset + ENTRY_HEADER_SIZE + length);
+        return record.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Saves a new record for a player, replacing any previous one
+     * The record is synced to disk before this returns
+     *
+     * @param uuid The player to save the record of
+     * @param flags Flags to store alongside the record in the index, only the lowest 16 bits are kept
+     * @param record The record to save
+     * @throws IOException If the record could not be written
+     */
+    public synchronized void write(UUID uuid, int flags, byte[] record) throws IOException {
+        flags &= 0xFFFF;
+
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_HEADER_SIZE + record.length);
+        entry.putInt(ENTRY_MAGIC);
+        entry.putInt(record.length);
+        entry.putInt(0);
+        entry.putInt(flags);
+        entry.putLong(uuid.getMostSignificantBits());
+        entry.putLong(uuid.getLeastSignificantBits());
+        entry.put(record);
+        entry.putInt(8, this.checksum(entry, 12, entry.capacity() - 12));
+        entry.flip();
+
+        long offset = this.logLength;
+        if (offset + entry.remaining() > Integer.MAX_VALUE)
+            throw new IOException("The log store is too large, it needs to be compacted");
+
+        while (entry.hasRemaining())
+            this.logChannel.write(entry, offset + entry.position());
+        this.logChannel.force(false);
+        this.logLength += entry.capacity();
+
+        this.putIndex(uuid, flags, offset, entry.capacity());
+        this.index.putLong(24, this.logLength);
+    }
+
+    /**
+     * Gets every player with a record that has all of the given flags set
+     *
+     * @param flags The flags to match, 0 to get every player
+     * @return The players with matching records
+     */
+    public synchronized List<UUID> getKeys(int flags) {
+        List<UUID> keys = new ArrayList<>();
+        for (int i = 0; i < this.capacity; i++) {
+            int slot = INDEX_HEADER_SIZE + i * INDEX_SLOT_SIZE;
+            long entry = this.index.getLong(slot + 16);
+            if (entry != 0 && ((entry >>> 48) & flags) == flags)
+                keys.add(new UUID(this.index.getLong(slot), this.index.getLong(slot + 8)));
+        }
+        return keys;
+    }
+
+    /**
+     * @return The fraction of the log taken up by old copies of records, between 0 and 1
+     */
+    public synchronized double getWastedRatio() {
+        if (this.logLength == 0)
+            return 0;
+        return 1 - (double) this.liveBytes / this.logLength;
+    }
+
+    /**
+     * Rewrites the log into a new file containing only the latest record for each player
+     * The old log is used until the new one has been fully written and synced to disk
+     *
+     * @throws IOException If the log could not be compacted
+     */
+    public synchronized void compact() throws IOException {
+        long previousLength = this.logLength;
+        MappedByteBuffer logBuffer = this.getLogBuffer(this.logLength);
+        long[] newEntries = new long[this.capacity];
+
+        File tempFile = new File(this.directory, this.name + ".log.tmp");
+        try (FileChannel tempChannel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = 0;
+            for (int i = 0; i < this.capacity; i++) {
+                long entry = this.index.getLong(INDEX_HEADER_SIZE + i * INDEX_SLOT_SIZE + 16);
+                if (entry == 0)
+                    continue;
+
+                int offset = (int) ((entry & OFFSET_MASK) - 1);
+                int entrySize = ENTRY_HEADER_SIZE + logBuffer.getInt(offset + 4);
+
+                ByteBuffer copy = logBuffer.duplicate();
+                copy.position(offset);
+                copy.limit(offset + entrySize);
+                while (copy.hasRemaining())
+                    tempChannel.write(copy);
+
+                newEntries[i] = (entry & ~OFFSET_MASK) | (position + 1);
+                position += entrySize;
+            }
+            tempChannel.force(true);
+        }
+
+        // Only once the new log is complete does it get a name that will be picked up when opening the store
+        long newGeneration = this.generation + 1;
+        File newLogFile = this.getLogFile(newGeneration);
+        Files.move(tempFile.toPath(), newLogFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+
+        File oldLogFile = this.getLogFile(this.generation);
+        this.logChannel.close();
+        this.logBuffer = null;
+        this.logChannel = FileChannel.open(newLogFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.logLength = this.logChannel.size();
+        this.liveBytes = this.logLength;
+        this.generation = newGeneration;
+
+        for (int i = 0; i < this.capacity; i++)
+            if (newEntries[i] != 0)
+                this.index.putLong(INDEX_HEADER_SIZE + i * INDEX_SLOT_SIZE + 16, newEntries[i]);
+        this.writeIndexHeader(false);
+
+        // This can fail while the old log is still mapped on some platforms, it will be cleaned up the next time the store is opened
+        if (!oldLogFile.delete())
+            oldLogFile.deleteOnExit();
+
+        this.logger.info("Compacted the log store from " + previousLength + " bytes to " + this.logLength + " bytes.");
+    }
+
+    /**
+     * Executes a callback with this store, holding onto it for the duration so that a record can be read and written
+     * without another thread changing it in between. Any errors that occur are logged.
+     *
+     * @param callback The callback to execute
+     */
+    public synchronized void connect(StoreCallback callback) {
+        try {
+            callback.accept(this);
+        } catch (Exception ex) {
+            this.logger.severe("An error occurred accessing the log store: " + ex.getMessage());
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Closes the log and index files, marking the index as safe to use the next time the store is opened
+     */
+    public synchronized void close() {
+        if (this.index == null)
+            return;
+
+        try {
+            this.writeIndexHeader(true);
+            this.index.force();
+            this.indexChannel.close();
+            this.logChannel.close();
+        } catch (IOException ex) {
+            this.logger.severe("An error occurred closing the log store: " + ex.getMessage());
+        }
+
+        this.index = null;
+        this.logBuffer = null;
+    }
+
+    /**
+     * Maps the index file if it was closed properly and matches the current log
+     *
+     * @return true if the index can be used, false if it needs to be rebuilt
+     * @throws IOException If the index could not be mapped
+     */
+    private boolean openIndex() throws IOException {
+        long indexSize = this.indexChannel.size();
+        if (indexSize < INDEX_HEADER_SIZE)
+            return false;
+
+        MappedByteBuffer index = this.indexChannel.map(MapMode.READ_WRITE, 0, indexSize);
+        index.load();
+        int capacity = index.getInt(8);
+        boolean valid = index.getInt(0) == INDEX_MAGIC
+                && index.getInt(4) == 1
+                && capacity > 0 && Integer.bitCount(capacity) == 1
+                && indexSize >= INDEX_HEADER_SIZE + (long) capacity * INDEX_SLOT_SIZE
+                && index.getLong(16) == this.generation
+                && index.getLong(24) == this.logLength;
+        if (!valid)
+            return false;
+
+        this.index = index;
+        this.capacity = capacity;
+        this.size = index.getInt(12);
+        this.liveBytes = index.getLong(32);
+        return true;
+    }
+
+    /**
+     * Builds a new index by reading the whole log, cutting off any incomplete or corrupted entries at the end
+     *
+     * @throws IOException If the log could not be read
+     */
+    private void rebuildIndex() throws IOException {
+        if (this.logLength > 0)
+            this.logger.warning("The log store was not closed properly, rebuilding its index.");
+
+        this.createIndex(INITIAL_INDEX_CAPACITY);
+        this.liveBytes = 0;
+        if (this.logLength == 0) {
+            this.writeIndexHeader(false);
+            return;
+        }
+
+        MappedByteBuffer logBuffer = this.getLogBuffer(this.logLength);
+        long position = 0;
+        while (position < this.logLength) {
+            int entrySize = this.validateEntry(logBuffer, (int) position);
+            if (entrySize < 0)
+                break;
+
+            int flags = logBuffer.getInt((int) position + 12);
+            UUID uuid = new UUID(logBuffer.getLong((int) position + 16), logBuffer.getLong((int) position + 24));
+            this.putIndex(uuid, flags, position, entrySize);
+            position += entrySize;
+        }
+
+        if (position < this.logLength) {
+            this.logger.warning("Discarding " + (this.logLength - position) + " bytes of incomplete data from the end of the log store.");
+            this.logBuffer = null;
+            this.logChannel.truncate(position);
+            this.logChannel.force(true);
+            this.logLength = position;
+        }
+
+        this.writeIndexHeader(false);
+    }
+
+    /**
+     * Checks that a log entry is complete and its checksum matches
+     *
+     * @param logBuffer The mapped log
+     * @param position The position of the entry
+     * @return The size of the entry including its header, or -1 if it is invalid
+     */
+    private int validateEntry(MappedByteBuffer logBuffer, int position) {
+        if (position + ENTRY_HEADER_SIZE > this.logLength || logBuffer.getInt(position) != ENTRY_MAGIC)
+            return -1;
+
+        int length = logBuffer.getInt(position + 4);
+        if (length < 0 || position + ENTRY_HEADER_SIZE + (long) length > this.logLength)
+            return -1;
+
+        if (this.checksum(logBuffer, position + 12, ENTRY_HEADER_SIZE - 12 + length) != logBuffer.getInt(position + 8))
+            return -1;
+
+        return ENTRY_HEADER_SIZE + length;
+    }
+
+    /**
+     * Points the index at a new entry for a player, growing the index if it is getting full
+     *
+     * @param uuid The player the entry belongs to
+     * @param flags The flags of the entry
+     * @param offset The offset of the entry in the log
+     * @param entrySize The size of the entry including its header
+     */
+    private void putIndex(UUID uuid, int flags, long offset, int entrySize) throws IOException {
+        if ((this.size + 1) * 2L > this.capacity)
+            this.growIndex();
+
+        int slot = this.findSlot(uuid);
+        long previous = this.index.getLong(slot + 16);
+        if (previous == 0) {
+            this.index.putLong(slot, uuid.getMostSignificantBits());
+            this.index.putLong(slot + 8, uuid.getLeastSignificantBits());
+            this.size++;
+        } else {
+            this.liveBytes -= ENTRY_HEADER_SIZE + this.getLogBuffer((previous & OFFSET_MASK) - 1 + ENTRY_HEADER_SIZE).getInt((int) ((previous & OFFSET_MASK) - 1) + 4);
+        }
+
+        this.index.putLong(slot + 16, ((long) (flags & 0xFFFF) << 48) | (offset + 1));
+        this.liveBytes += entrySize;
+        this.index.putInt(12, this.size);
+        this.index.putLong(32, this.liveBytes);
+    }
+
+    /**
+     * Finds the slot in the index for a player
+     *
+     * @param uuid The player to find
+     * @return The position of the slot holding the player, or the empty slot they would be put in
+     */
+    private int findSlot(UUID uuid) {
+        long mostSignificantBits = uuid.getMostSignificantBits();
+        long leastSignificantBits = uuid.getLeastSignificantBits();
+        int i = uuid.hashCode() & (this.capacity - 1);
+        while (true) {
+            int slot = INDEX_HEADER_SIZE + i * INDEX_SLOT_SIZE;
+            if (this.index.getLong(slot + 16) == 0 || (this.index.getLong(slot) == mostSignificantBits && this.index.getLong(slot + 8) == leastSignificantBits))
+                return slot;
+            i = (i + 1) & (this.capacity - 1);
+        }
+    }
+
+    /**
+     * Doubles the capacity of the index and reinserts every entry
+     */
+    private void growIndex() throws IOException {
+        int oldCapacity = this.capacity;
+        long[] oldSlots = new long[oldCapacity * 3];
+        for (int i = 0; i < oldCapacity; i++) {
+            int slot = INDEX_HEADER_SIZE + i * INDEX_SLOT_SIZE;
+            oldSlots[i * 3] = this.index.getLong(slot);
+            oldSlots[i * 3 + 1] = this.index.getLong(slot + 8);
+            oldSlots[i * 3 + 2] = this.index.getLong(slot + 16);
+        }
+
+        long liveBytes = this.liveBytes;
+        this.createIndex(oldCapacity * 2);
+        for (int i = 0; i < oldCapacity; i++) {
+            if (oldSlots[i * 3 + 2] == 0)
+                continue;
+
+            int slot = this.findSlot(new UUID(oldSlots[i * 3], oldSlots[i * 3 + 1]));
+            this.index.putLong(slot, oldSlots[i * 3]);
+            this.index.putLong(slot + 8, oldSlots[i * 3 + 1]);
+            this.index.putLong(slot + 16, oldSlots[i * 3 + 2]);
+            this.size++;
+        }
+
+        this.liveBytes = liveBytes;
+        this.writeIndexHeader(false);
+    }
+
+    /**
+     * Replaces the index with an empty one
+     * The file is only ever grown since it can't be shrunk while a previous mapping of it is still open on some platforms
+     *
+     * @param capacity The number of slots in the new index, must be a power of two
+     */
+    private void createIndex(int capacity) throws IOException {
+        long indexSize = INDEX_HEADER_SIZE + (long) capacity * INDEX_SLOT_SIZE;
+        this.index = this.indexChannel.map(MapMode.READ_WRITE, 0, indexSize);
+        for (int i = 0; i < indexSize; i += 8)
+            this.index.putLong(i, 0);
+
+        this.capacity = capacity;
+        this.size = 0;
+    }
+
+    /**
+     * Writes the header of the index
+     *
+     * @param clean true if the index is up to date with the log and can be trusted when the store is next opened
+     */
+    private void writeIndexHeader(boolean clean) {
+        this.index.putInt(0, INDEX_MAGIC);
+        this.index.putInt(4, clean ? 1 : 0);
+        this.index.putInt(8, this.capacity);
+        this.index.putInt(12, this.size);
+        this.index.putLong(16, this.generation);
+        this.index.putLong(24, this.logLength);
+        this.index.putLong(32, this.liveBytes);
+    }
+
+    /**
+     * Gets the mapped log, remapping it if it doesn't cover the given length yet
+     *
+     * @param length The length of the log that needs to be mapped
+     * @return The mapped log
+     */
+    private MappedByteBuffer getLogBuffer(long length) throws IOException {
+        if (this.logBuffer == null || this.logBuffer.capacity() < length)
+            this.logBuffer = this.logChannel.map(MapMode.READ_ONLY, 0, this.logLength);
+        return this.logBuffer;
+    }
+
+    /**
+     * Calculates the checksum of part of a buffer
+     *
+     * @param buffer The buffer to read from
+     * @param position The position to start at
+     * @param length The number of bytes to include
+     * @return The checksum
+     */
+    private int checksum(ByteBuffer buffer, int position, int length) {
+        ByteBuffer region = buffer.duplicate();
+        region.position(position);
+        region.limit(position + length);
+
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[Math.min(length, 8192)];
+        while (region.hasRemaining()) {
+            int read = Math.min(chunk.length, region.remaining());
+            region.get(chunk, 0, read);
+            crc.update(chunk, 0, read);
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * @param generation The generation of the log
+     * @return The file containing the log
+     */
+    private File getLogFile(long generation) {
+        return new File(this.directory, this.name + "-" + generation + ".log");
+    }
+
+    /**
+     * @param fileName The name of a file in the store's directory
+     * @return The generation of the log if the file is one, otherwise -1
+     */
+    private long parseGeneration(String fileName) {
+        String prefix = this.name + "-";
+        if (!fileName.startsWith(prefix) || !fileName.endsWith(".log"))
+            return -1;
+
+        try {
+            return Long.parseLong(fileName.substring(prefix.length(), fileName.length() - 4));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Wraps access to the store in a callback which will automatically handle catching errors
+     */
+    public interface StoreCallback {
+        void accept(LogStore store) throws IOException;
+    }
+
+}
@@ -2,6 +2,7 @@ package dev.esophose.playerparticles.database;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import dev.esophose.playerparticles.manager.ConfigurationManager.Setting;
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -38,6 +39,13 @@ public class MySQLConnector implements DatabaseConnector {
         this.hikari.close();
     }
 
+    /**
+     * @return The current state of the connection pool, or null if it hasn't started
+     */
+    public HikariPoolMXBean getPoolState() {
+        return this.hikari.getHikariPoolMXBean();
+    }
+
     public void connect(ConnectionCallback callback) {
         try (Connection connection = this.hikari.getConnection()) {
             callback.accept(connection);
@@ -0,0 +1,234 @@
+package dev.esophose.playerparticles.database;
+
+import dev.esophose.playerparticles.particles.FixedParticleEffect;
+import dev.esophose.playerparticles.particles.ParticleEffect;
+import dev.esophose.playerparticles.particles.ParticleGroup;
+import dev.esophose.playerparticles.particles.ParticlePair;
+import dev.esophose.playerparticles.particles.data.NoteColor;
+import dev.esophose.playerparticles.particles.data.OrdinaryColor;
+import dev.esophose.playerparticles.styles.ParticleStyle;
+import dev.esophose.playerparticles.util.ParticleUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+/**
+ * All of a player's saved data in the format it is stored in a {@link LogStore}
+ */
+public class PlayerDataRecord {
+
+    /**
+     * Set in the log store index for players who have fixed effects
+     */
+    public static final int FLAG_HAS_FIXED_EFFECTS = 1;
+
+    private static final byte VERSION = 1;
+
+    private final UUID playerUUID;
+    private boolean particlesHidden;
+    private final Map<String, ParticleGroup> particleGroups;
+    private final Map<Integer, FixedParticleEffect> fixedEffects;
+    private boolean modified;
+
+    private PlayerDataRecord(UUID playerUUID) {
+        this.playerUUID = playerUUID;
+        this.particlesHidden = false;
+        this.particleGroups = new ConcurrentHashMap<>();
+        this.fixedEffects = new ConcurrentHashMap<>();
+        this.modified = false;
+    }
+
+    /**
+     * Reads a player's record, dropping any particles whose effect or style is now missing or disabled
+     * and any fixed effects in worlds that no longer exist
+     *
+     * @param playerUUID The player the record belongs to
+     * @param buffer The buffer to read the record from, or null to create a new record
+     * @return The record
+     */
+    public static PlayerDataRecord read(UUID playerUUID, ByteBuffer buffer) {
+        PlayerDataRecord record = new PlayerDataRecord(playerUUID);
+        if (buffer == null) {
+            record.modified = true;
+        } else {
+            if (buffer.get() != VERSION)
+                throw new IllegalStateException("Unknown record version for player " + playerUUID);
+
+            record.particlesHidden = buffer.get() != 0;
+
+            int groupCount = buffer.getInt();
+            for (int i = 0; i < groupCount; i++) {
+                String name = readString(buffer);
+                Map<Integer, ParticlePair> particles = new ConcurrentHashMap<>();
+                int particleCount = buffer.getInt();
+                for (int j = 0; j < particleCount; j++) {
+                    ParticlePair particle = readParticlePair(playerUUID, buffer);
+                    if (particle.getEffect() != null && particle.getStyle() != null) {
+                        particles.put(particle.getId(), particle);
+                    } else {
+                        record.modified = true;
+                    }
+                }
+
+                if (particles.isEmpty() && !name.equals(ParticleGroup.DEFAULT_NAME)) {
+                    record.modified = true;
+                    continue;
+                }
+
+                record.particleGroups.put(name.toLowerCase(), new ParticleGroup(name, particles));
+            }
+
+            int fixedCount = buffer.getInt();
+            for (int i = 0; i < fixedCount; i++) {
+                int id = buffer.getInt();
+                World world = Bukkit.getWorld(readString(buffer));
+                double x = buffer.getDouble();
+                double y = buffer.getDouble();
+                double z = buffer.getDouble();
+                ParticlePair particle = readParticlePair(playerUUID, buffer);
+                if (world == null || particle.getEffect() == null || particle.getStyle() == null) {
+                    record.modified = true;
+                    continue;
+                }
+
+                record.fixedEffects.put(id, new FixedParticleEffect(playerUUID, id, new Location(world, x, y, z), particle));
+            }
+        }
+
+        // Every player needs an active group
+        if (!record.particleGroups.containsKey(ParticleGroup.DEFAULT_NAME)) {
+            record.particleGroups.put(ParticleGroup.DEFAULT_NAME, new ParticleGroup(ParticleGroup.DEFAULT_NAME, new ConcurrentHashMap<>()));
+            record.modified = true;
+        }
+
+        return record;
+    }
+
+    /**
+     * @return The record in the format it is stored in
+     */
+    public byte[] write() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(VERSION);
+            output.writeBoolean(this.particlesHidden);
+
+            output.writeInt(this.particleGroups.size());
+            for (ParticleGroup group : this.particleGroups.values()) {
+                writeString(output, group.getName());
+                output.writeInt(group.getParticles().size());
+                for (ParticlePair particle : group.getParticles().values())
+                    writeParticlePair(output, particle);
+            }
+
+            output.writeInt(this.fixedEffects.size());
+            for (FixedParticleEffect fixedEffect : this.fixedEffects.values()) {
+                Location location = fixedEffect.getLocation();
+                output.writeInt(fixedEffect.getId());
+                writeString(output, location.getWorld().getName());
+                output.writeDouble(location.getX());
+                output.writeDouble(location.getY());
+                output.writeDouble(location.getZ());
+                writeParticlePair(output, fixedEffect.getParticlePair());
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex); // Not possible when writing to memory
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return The flags to store in the log store index for this record
+     */
+    public int getFlags() {
+        return this.fixedEffects.isEmpty() ? 0 : FLAG_HAS_FIXED_EFFECTS;
+    }
+
+    /**
+     * @return true if the record was created or had invalid data removed while being read and needs to be saved
+     */
+    public boolean isModified() {
+        return this.modified;
+    }
+
+    /**
+     * @return The player the record belongs to
+     */
+    public UUID getPlayerUUID() {
+        return this.playerUUID;
+    }
+
+    /**
+     * @return true if the player has particles hidden
+     */
+    public boolean isParticlesHidden() {
+        return this.particlesHidden;
+    }
+
+    /**
+     * @param particlesHidden true if the player has particles hidden
+     */
+    public void setParticlesHidden(boolean particlesHidden) {
+        this.particlesHidden = particlesHidden;
+    }
+
+    /**
+     * @return The player's particle groups, keyed by their lowercase name
+     */
+    public Map<String, ParticleGroup> getParticleGroups() {
+        return this.particleGroups;
+    }
+
+    /**
+     * @return The player's fixed effects, keyed by their id
+     */
+    public Map<Integer, FixedParticleEffect> getFixedEffects() {
+        return this.fixedEffects;
+    }
+
+    private static ParticlePair readParticlePair(UUID ownerUUID, ByteBuffer buffer) {
+        int id = buffer.getInt();
+        ParticleEffect effect = ParticleEffect.fromInternalName(readString(buffer));
+        ParticleStyle style = ParticleStyle.fromInternalName(readString(buffer));
+        Material itemMaterial = ParticleUtils.closestMatchWithFallback(true, readString(buffer));
+        Material blockMaterial = ParticleUtils.closestMatchWithFallback(true, readString(buffer));
+        NoteColor noteColor = new NoteColor(buffer.getInt());
+        OrdinaryColor color = new OrdinaryColor(buffer.getInt(), buffer.getInt(), buffer.getInt());
+        return new ParticlePair(ownerUUID, id, effect, style, itemMaterial, blockMaterial, color, noteColor);
+    }
+
+    private static void writeParticlePair(DataOutputStream output, ParticlePair particle) throws IOException {
+        output.writeInt(particle.getId());
+        writeString(output, particle.getEffect().getInternalName());
+        writeString(output, particle.getStyle().getInternalName());
+        writeString(output, particle.getItemMaterial().name());
+        writeString(output, particle.getBlockMaterial().name());
+        output.writeInt(particle.getNoteColor().getNote());
+        output.writeInt(particle.getColor().getRed());
+        output.writeInt(particle.getColor().getGreen());
+        output.writeInt(particle.getColor().getBlue());
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeShort(bytes.length);
+        output.write(bytes);
+    }
+
+}
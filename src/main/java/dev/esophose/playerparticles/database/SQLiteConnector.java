@@ -27,7 +27,7 @@ public class SQLiteConnector implements DatabaseConnector {
         return true; // Always available
     }
 
-    public void closeConnection() {
+    public synchronized void closeConnection() {
         try {
             if (this.connection != null) {
                 this.connection.close();
@@ -37,7 +37,13 @@ public class SQLiteConnector implements DatabaseConnector {
         }
     }
 
-    public void connect(ConnectionCallback callback) {
+    /**
+     * Executes a callback with the shared connection, one callback at a time so that a transaction
+     * started by one callback never picks up the queries of another
+     *
+     * @param callback The callback to execute once the connection is retrieved
+     */
+    public synchronized void connect(ConnectionCallback callback) {
         if (this.connection == null) {
             try {
                 this.connection = DriverManager.getConnection(this.connectionString);
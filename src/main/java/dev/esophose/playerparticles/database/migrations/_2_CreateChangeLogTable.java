@@ -0,0 +1,30 @@
+package dev.esophose.playerparticles.database.migrations;
+
+import dev.esophose.playerparticles.database.DataMigration;
+import dev.esophose.playerparticles.database.DatabaseConnector;
+import dev.esophose.playerparticles.database.SQLiteConnector;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class _2_CreateChangeLogTable extends DataMigration {
+
+    public _2_CreateChangeLogTable() {
+        super(2);
+    }
+
+    @Override
+    public void migrate(DatabaseConnector connector, Connection connection, String tablePrefix) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (connector instanceof SQLiteConnector) {
+                statement.addBatch("CREATE TABLE IF NOT EXISTS " + tablePrefix + "change_log (id INTEGER PRIMARY KEY AUTOINCREMENT, server_id VARCHAR(36), player_uuid VARCHAR(36), change_type VARCHAR(20), change_key VARCHAR(100), created BIGINT)");
+                statement.addBatch("CREATE INDEX IF NOT EXISTS " + tablePrefix + "change_log_created ON " + tablePrefix + "change_log (created)");
+            } else {
+                statement.addBatch("CREATE TABLE IF NOT EXISTS " + tablePrefix + "change_log (id BIGINT NOT NULL AUTO_INCREMENT, server_id VARCHAR(36), player_uuid VARCHAR(36), change_type VARCHAR(20), change_key VARCHAR(100), created BIGINT, PRIMARY KEY(id), INDEX(created))");
+            }
+
+            statement.executeBatch();
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package dev.esophose.playerparticles.database.migrations;
+
+import dev.esophose.playerparticles.database.DataMigration;
+import dev.esophose.playerparticles.database.DatabaseConnector;
+import dev.esophose.playerparticles.database.SQLiteConnector;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class _3_AddFixedEffectServerId extends DataMigration {
+
+    public _3_AddFixedEffectServerId() {
+        super(3);
+    }
+
+    @Override
+    public void migrate(DatabaseConnector connector, Connection connection, String tablePrefix) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // Existing fixed effects are left unassigned, they can be moved to a server with /pp fixed rehome
+            statement.addBatch("ALTER TABLE " + tablePrefix + "fixed ADD COLUMN server_id VARCHAR(100) NOT NULL DEFAULT ''");
+
+            // Fixed effect ids only need to be unique per server, SQLite databases are never shared so the key can stay as it is
+            if (!(connector instanceof SQLiteConnector)) {
+                statement.addBatch("ALTER TABLE " + tablePrefix + "fixed DROP PRIMARY KEY, ADD PRIMARY KEY(owner_uuid, server_id, id)");
+                statement.addBatch("ALTER TABLE " + tablePrefix + "fixed ADD INDEX(server_id)");
+            }
+
+            statement.executeBatch();
+        }
+    }
+
+}
@@ -1,5 +1,6 @@
 package dev.esophose.playerparticles.event;
 
+import dev.esophose.playerparticles.styles.BufferedParticleStyle;
 import dev.esophose.playerparticles.styles.ParticleStyle;
 import java.util.Collections;
 import java.util.HashMap;
@@ -38,6 +39,7 @@ public class ParticleStyleRegistrationEvent extends Event {
 
     /**
      * Registers a ParticleStyle, overwriting any existing styles with the same name
+     * Styles that implement {@link BufferedParticleStyle} are rendered without building a List of PParticles every tick
      *
      * @param style The ParticleStyle to register
      * @return true if registered without replacing an existing style, false if an existing style was replaced
@@ -1,8 +1,10 @@
 package dev.esophose.playerparticles.hook;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import dev.esophose.playerparticles.manager.ConfigurationManager.Setting;
+import dev.esophose.playerparticles.util.ParticleUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.codemc.worldguardwrapper.WorldGuardWrapper;
@@ -12,9 +14,21 @@ import org.codemc.worldguardwrapper.region.IWrappedRegion;
 
 public class WorldGuardHook {
 
+    /**
+     * The most blocks to remember per world before the cache for that world is emptied
+     */
+    private static final int MAX_CACHED_BLOCKS_PER_WORLD = 16384;
+
     private static WorldGuardWrapper worldGuardWrapper;
     private static IWrappedFlag<WrappedState> flagPlayerParticles;
 
+    /**
+     * Whether each recently checked block allows particles, keyed by world and then packed block position
+     */
+    private static final Map<UUID, Map<Long, CachedVerdict>> verdictCache = new ConcurrentHashMap<>();
+    private static volatile Set<String> allowedRegionIds;
+    private static volatile Set<String> disallowedRegionIds;
+
     /**
      * Initializes the WorldGuard hook.
      * Must be called during onLoad, or else WorldGuard prevents flag registration.
@@ -37,8 +51,19 @@ public class WorldGuardHook {
 
     }
 
+    /**
+     * Forgets all remembered region checks and reloads the legacy region lists, used when the plugin is reloaded
+     */
+    public static void clearCache() {
+        verdictCache.clear();
+        allowedRegionIds = null;
+        disallowedRegionIds = null;
+    }
+
     /**
      * Checks if a location is in a region that allows particles to spawn
+     * The result for each block is remembered for the cache-time setting, so this only asks WorldGuard again
+     * once the location is in a different block or the result has expired
      *
      * @param location The location to check
      * @return true if the location is in an allowed region, otherwise false
@@ -47,6 +72,32 @@ public class WorldGuardHook {
         if (!enabled())
             return true;
 
+        long cacheTime = Setting.WORLDGUARD_CACHE_TIME.getLong() * 1000;
+        if (cacheTime <= 0 || location.getWorld() == null)
+            return checkRegions(location);
+
+        Map<Long, CachedVerdict> worldCache = verdictCache.computeIfAbsent(location.getWorld().getUID(), x -> new ConcurrentHashMap<>());
+        long key = ParticleUtils.packBlockPosition(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        long now = System.currentTimeMillis();
+
+        CachedVerdict cached = worldCache.get(key);
+        if (cached != null && cached.expiresAt > now)
+            return cached.allowed;
+
+        boolean allowed = checkRegions(location);
+        if (worldCache.size() >= MAX_CACHED_BLOCKS_PER_WORLD)
+            worldCache.clear();
+        worldCache.put(key, new CachedVerdict(allowed, now + cacheTime));
+        return allowed;
+    }
+
+    /**
+     * Asks WorldGuard if a location is in a region that allows particles to spawn
+     *
+     * @param location The location to check
+     * @return true if the location is in an allowed region, otherwise false
+     */
+    private static boolean checkRegions(Location location) {
         Set<IWrappedRegion> regions = worldGuardWrapper.getRegions(location);
 
         // Get the "player-particles" flag.
@@ -63,17 +114,31 @@ public class WorldGuardHook {
             return playerParticles.get() == WrappedState.ALLOW;
 
         // Legacy blocking by region name.
-        List<String> disallowedRegionIds = Setting.WORLDGUARD_DISALLOWED_REGIONS.getStringList();
+        if (disallowedRegionIds == null)
+            disallowedRegionIds = new HashSet<>(Setting.WORLDGUARD_DISALLOWED_REGIONS.getStringList());
         if (regions.stream().map(IWrappedRegion::getId).anyMatch(disallowedRegionIds::contains)) {
             return false;
         }
 
         if (Setting.WORLDGUARD_USE_ALLOWED_REGIONS.getBoolean()) {
-            List<String> allowedRegionIds = Setting.WORLDGUARD_ALLOWED_REGIONS.getStringList();
+            if (allowedRegionIds == null)
+                allowedRegionIds = new HashSet<>(Setting.WORLDGUARD_ALLOWED_REGIONS.getStringList());
             return regions.stream().map(IWrappedRegion::getId).anyMatch(allowedRegionIds::contains);
         }
 
         return true;
     }
 
+    private static class CachedVerdict {
+
+        private final boolean allowed;
+        private final long expiresAt;
+
+        private CachedVerdict(boolean allowed, long expiresAt) {
+            this.allowed = allowed;
+            this.expiresAt = expiresAt;
+        }
+
+    }
+
 }
@@ -31,6 +31,7 @@ public class EnglishLocale implements Locale {
             this.put("command-descriptions-help-other", "&7> &b/ppo <player> <command> &e- Run a /pp command as a player");
             this.put("command-description-add", "Add a new particle");
             this.put("command-description-data", "Check what type of data an effect uses");
+            this.put("command-description-debug", "Displays information for diagnosing performance issues");
             this.put("command-description-default", "The main command. By default, opens the GUI");
             this.put("command-description-edit", "Edit a particle");
             this.put("command-description-effects", "Display a list of effects you can use");
@@ -45,6 +46,7 @@ public class EnglishLocale implements Locale {
             this.put("command-description-reset", "Removes all your active particles");
             this.put("command-description-styles", "Display a list of styles you can use");
             this.put("command-description-toggle", "Toggles particle visibility on/off");
+            this.put("command-description-transfer", "Copies all saved data to MySQL or SQLite");
             this.put("command-description-version", "Display the plugin version and author");
             this.put("command-description-worlds", "Find out what worlds particles are disabled in");
 
@@ -58,6 +60,7 @@ public class EnglishLocale implements Locale {
             this.put("command-description-fixed-clear", "&e/pp fixed clear <radius> - Clears all fixed effects of all players within the given radius");
             this.put("command-description-fixed-clear-console", "&e/pp fixed clear <radius> <x> <y> <z> <world> - Clears all fixed effects of all players within the given radius");
             this.put("command-description-fixed-teleport", "&e/pp fixed teleport <id> - Teleports you to one of your fixed effects");
+            this.put("command-description-fixed-rehome", "&e/pp fixed rehome <from> <to> [world] - Moves fixed effects saved for one server to another");
 
             this.put("#2.5", "Group Command Description Messages");
             this.put("command-description-group-save", "&e/pp group save <name> - Saves all active particles in a new group");
@@ -111,6 +114,33 @@ public class EnglishLocale implements Locale {
             this.put("reload-success", "&aThe plugin has been reloaded!");
             this.put("reload-no-permission", "&cYou do not have permission to reload the plugin settings!");
 
+            this.put("#8.5", "Transfer Messages");
+            this.put("transfer-no-permission", "&cYou do not have permission to transfer the plugin data!");
+            this.put("transfer-invalid-args", "&cInvalid arguments! &b/pp transfer <mysql|sqlite> [batchSize]");
+            this.put("transfer-same-storage", "&cThe plugin is already storing its data in &b%storage%&c!");
+            this.put("transfer-in-progress", "&cA data transfer is already in progress!");
+            this.put("transfer-not-empty", "&cUnable to transfer, &b%storage% &calready contains PlayerParticles data!");
+            this.put("transfer-fixed-conflict", "&cUnable to transfer, some players have fixed effects with the same id on more than one server and SQLite can only store one of them! Remove the extra fixed effects and try again.");
+            this.put("transfer-started", "&aTransferring all data to &b%storage%&a...");
+            this.put("transfer-resuming", "&aResuming the unfinished data transfer to &b%storage%&a...");
+            this.put("transfer-progress", "&eCopied &b%amount%&e/&b%total% &erows from &b%table%&e.");
+            this.put("transfer-success", "&aTransferred &b%amount% &arows to &b%storage%&a! Change the storage type in the config and reload to use it.");
+            this.put("transfer-failed", "&cThe data transfer failed and can be resumed by running it again: &b%error%");
+
+            this.put("#8.6", "Debug Messages");
+            this.put("debug-no-permission", "&cYou do not have permission to view debug information!");
+            this.put("debug-invalid-args", "&cInvalid arguments! &b/pp debug <db|load>");
+            this.put("debug-db-header", "&eDatabase statistics for the last &b%time%&e:");
+            this.put("debug-db-queue", "&eQueue wait: &b%count% &etasks, avg &b%avg%&e, p95 &b%p95%&e, max &b%max%");
+            this.put("debug-db-pool", "&eConnection pool: &b%active% &eactive, &b%idle% &eidle, &b%waiting% &ewaiting");
+            this.put("debug-db-operation", "&b%operation%&e: &b%count% &ecalls, avg &b%avg%&e, p50 &b%p50%&e, p95 &b%p95%&e, p99 &b%p99%&e, max &b%max%&e, pool wait p95 &b%pool%&e, rows &b%rows%&e, errors &b%errors%");
+            this.put("debug-db-none", "&eNo database operations have run yet.");
+            this.put("debug-load-none", "&eNo particle ticks have run yet.");
+            this.put("debug-load-header", "&eParticle load for the last &b%ticks% &eparticle ticks:");
+            this.put("debug-load-particles", "&eParticles per tick: min &b%min%&e, avg &b%avg%&e, max &b%max%&e, peak to average &b%peak%x");
+            this.put("debug-load-time", "&eTime per tick: avg &b%avg%&e, max &b%max%");
+            this.put("debug-load-graph", "&eLast &b%ticks% &eticks: &b%graph%");
+
             this.put("#9", "Remove Messages");
             this.put("remove-no-args", "&cYou did not specify an ID to remove! &b/pp remove <ID>");
             this.put("remove-id-success", "&aYour particle with the ID &b%id% &ahas been removed!");
@@ -227,6 +257,13 @@ public class EnglishLocale implements Locale {
             this.put("fixed-teleport-invalid-args", "&cUnable to teleport, the ID specified is invalid!");
             this.put("fixed-teleport-success", "&eTeleported to your fixed effect with an ID of &b%id%&e!");
 
+            this.put("#23.6", "Fixed Rehome Messages");
+            this.put("fixed-rehome-no-permission", "&cYou do not have permission to move fixed effects between servers!");
+            this.put("fixed-rehome-no-args", "&cYou must specify the server to move fixed effects from and the server to move them to! Use &bnone &cfor fixed effects not assigned to a server.");
+            this.put("fixed-rehome-success", "&aMoved &b%amount% &afixed effects from &b%from% &ato &b%to%&a!");
+            this.put("fixed-rehome-failed", "&cUnable to move the fixed effects, check the console for details.");
+            this.put("fixed-rehome-skipped", "&b%amount% &efixed effects were not moved because their owner already has a fixed effect with the same ID on &b%to%&e.");
+
             this.put("#24", "Fixed Other Messages");
             this.put("fixed-no-permission", "&cYou do not have permission to use fixed effects!");
             this.put("fixed-max-reached", "&cYou have reached the maximum allowed fixed effects!");
@@ -6,6 +6,7 @@ import dev.esophose.playerparticles.command.AddCommandModule;
 import dev.esophose.playerparticles.command.CommandModule;
 import dev.esophose.playerparticles.command.CommandModuleSecondary;
 import dev.esophose.playerparticles.command.DataCommandModule;
+import dev.esophose.playerparticles.command.DebugCommandModule;
 import dev.esophose.playerparticles.command.DefaultCommandModule;
 import dev.esophose.playerparticles.command.EditCommandModule;
 import dev.esophose.playerparticles.command.EffectsCommandModule;
@@ -20,6 +21,7 @@ import dev.esophose.playerparticles.command.RemoveCommandModule;
 import dev.esophose.playerparticles.command.ResetCommandModule;
 import dev.esophose.playerparticles.command.StylesCommandModule;
 import dev.esophose.playerparticles.command.ToggleCommandModule;
+import dev.esophose.playerparticles.command.TransferCommandModule;
 import dev.esophose.playerparticles.command.VersionCommandModule;
 import dev.esophose.playerparticles.command.WorldsCommandModule;
 import dev.esophose.playerparticles.particles.PPlayer;
@@ -66,6 +68,7 @@ public class CommandManager extends Manager implements CommandExecutor, TabCompl
         this.commands = new ArrayList<CommandModule>() {{
             this.add(new AddCommandModule());
             this.add(new DataCommandModule());
+            this.add(new DebugCommandModule());
             this.add(new DefaultCommandModule());
             this.add(new EditCommandModule());
             this.add(new EffectsCommandModule());
@@ -79,6 +82,7 @@ public class CommandManager extends Manager implements CommandExecutor, TabCompl
             this.add(new ResetCommandModule());
             this.add(new StylesCommandModule());
             this.add(new ToggleCommandModule());
+            this.add(new TransferCommandModule());
             this.add(new VersionCommandModule());
             this.add(new WorldsCommandModule());
         }};
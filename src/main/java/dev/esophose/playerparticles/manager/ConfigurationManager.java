@@ -58,6 +58,10 @@ public class ConfigurationManager extends Manager {
         RAINBOW_CYCLE_SPEED("rainbow-cycle-speed", 2, "How many out of 360 hue ticks to move per game tick", "Higher values make the rainbow cycle faster", "Note: Must be a positive whole number"),
         DUST_SIZE("dust-size", 1.0, "How large should dust particles appear?", "Note: Can include decimals", "Only works in 1.13+"),
         GUI_GROUP_CREATION_MESSAGE_DISPLAY_AREA("gui-group-creation-message-display-area", "ACTION_BAR", "Valid values: ACTION_BAR, TITLE, CHAT", "Where should the GUI group creation countdown message be displayed?", "Note: Server versions less than 1.11.2 will always use CHAT"),
+        LOGIN_PREFETCH_TTL("login-prefetch-ttl", 30, "How long (in seconds) to hold onto player data that was loaded while the player was logging in", "Loading data before the player finishes joining makes their particles show up immediately", "Set to 0 to load player data only once they have joined"),
+        OFFLINE_PLAYER_CACHE_SIZE("offline-player-cache-size", 100, "The maximum number of offline players to keep loaded for commands, placeholders and the API", "The least recently used players are unloaded first", "Set to 0 to disable caching offline players"),
+        OFFLINE_PLAYER_CACHE_TTL("offline-player-cache-ttl", 300, "How long (in seconds) an offline player is kept loaded before their data is read from the database again"),
+        PERMISSION_REFRESH_INTERVAL("permission-refresh-interval", 30, "How often (in seconds) to check the effect, style and limit permissions of online players again", "Permission changes made while a player is online can take this long to apply", "Changing worlds or reloading the plugin applies them right away", "Set to 0 to check permissions every time"),
 
         WORLDGUARD_SETTINGS("worldguard-settings", null, "Settings for WorldGuard", "If WorldGuard is not installed, these settings will do nothing"),
         WORLDGUARD_USE_ALLOWED_REGIONS("worldguard-settings.use-allowed-regions", false, "If true, particles will only be able to spawn if they are in an allowed region and not a disallowed region", "If false, particles will be able to spawn as long as they are not in a disallowed region"),
@@ -65,6 +69,7 @@ public class ConfigurationManager extends Manager {
         WORLDGUARD_DISALLOWED_REGIONS("worldguard-settings.disallowed-regions", Arrays.asList("example_region_3", "example_region_4"), "Regions that particles will be blocked from spawning in", "This overrides allowed regions if they overlap", "WARNING: This setting is deprecated in favor of region flags, and will be removed in a future update."),
         WORLDGUARD_CHECK_INTERVAL("worldguard-settings.check-interval", 10, "How often to check if a player is in a region that allows spawning particles", "Measured in ticks"),
         WORLDGUARD_ENABLE_BYPASS_PERMISSION("worldguard-settings.enable-bypass-permission", false, "If true, the permission playerparticles.worldguard.bypass will allow", "the player to bypass the region requirements"),
+        WORLDGUARD_CACHE_TIME("worldguard-settings.cache-time", 30, "How long (in seconds) to remember if a block is in a region that allows spawning particles", "Changes to regions can take this long to apply, reloading the plugin applies them right away", "Set to 0 to check the regions every time"),
 
         MYSQL_SETTINGS("mysql-settings", null, "Settings for if you want to use MySQL for data management"),
         MYSQL_ENABLED("mysql-settings.enabled", false, "Enable MySQL", "If false, SQLite will be used instead"),
@@ -76,6 +81,18 @@ public class ConfigurationManager extends Manager {
         MYSQL_TABLE_PREFIX("mysql-settings.table-prefix", PlayerParticles.getInstance().getDescription().getName().toLowerCase() + "_", "The prefix of the tables in the database", "Do not change this after tables have already been created or you will have data loss"),
         MYSQL_USE_SSL("mysql-settings.use-ssl", false, "If the database connection should use SSL", "You should enable this if your database supports SSL"),
         MYSQL_CONNECTION_POOL_SIZE("mysql-settings.connection-pool-size", 5, "The size of the connection pool to the database", "Not recommended to go below 2 or above 5"),
+        MYSQL_SERVER_ID("mysql-settings.server-id", "", "A unique name for this server, used when multiple servers share the same database", "Fixed effects are saved for this server only and fixed effects from other servers will not be loaded", "Leave empty to share fixed effects with other servers that don't have an id set", "Use /pp fixed rehome to move existing fixed effects to this server"),
+        MYSQL_SYNC_CHANGES("mysql-settings.sync-changes", false, "If changes made on other servers sharing this database should be picked up without a restart", "Enable this on every server if multiple servers on a network use the same database"),
+        MYSQL_SYNC_INTERVAL("mysql-settings.sync-interval", 40, "How often to check for changes made on other servers", "Measured in ticks"),
+        MYSQL_SYNC_RETENTION("mysql-settings.sync-retention", 60, "How long (in minutes) to keep entries in the change log before deleting them"),
+
+        LOG_STORE_SETTINGS("log-store-settings", null, "Settings for saving data to a log file instead of a database", "This is faster than SQLite, but can only be used by a single server"),
+        LOG_STORE_ENABLED("log-store-settings.enabled", false, "Enable the log store", "If true, this is used instead of both SQLite and MySQL", "Existing data in SQLite or MySQL is not copied over"),
+        LOG_STORE_COMPACTION_INTERVAL("log-store-settings.compaction-interval", 30, "How often (in minutes) to check if the log file needs to be compacted", "Set to 0 to never compact the log file"),
+        LOG_STORE_COMPACTION_THRESHOLD("log-store-settings.compaction-threshold", 0.5, "How much of the log file must be taken up by old copies of player data before it is compacted", "A value between 0 and 1"),
+
+        DATABASE_STATISTICS_LOG_INTERVAL("database-statistics-log-interval", 0, "How often (in minutes) to write database timings to logs/database.log", "The same timings can be viewed at any time with /pp debug db", "Set to 0 to disable"),
+        DATA_FLUSH_TIMEOUT("data-flush-timeout", 5000, "The longest (in milliseconds) to spend saving unsaved changes when the server stops or the plugin reloads", "Anything that can't be saved in time is logged and lost"),
 
         GUI_ICON("gui-icon", null,
                 "This configuration option allows you to change the GUI",
@@ -2,7 +2,12 @@ package dev.esophose.playerparticles.manager;
 
 import dev.esophose.playerparticles.PlayerParticles;
 import dev.esophose.playerparticles.database.DatabaseConnector;
+import dev.esophose.playerparticles.database.DatabaseConnector.ConnectionCallback;
+import dev.esophose.playerparticles.database.DatabaseStatistics;
+import dev.esophose.playerparticles.database.DatabaseStatistics.Operation;
+import dev.esophose.playerparticles.database.LogStore;
 import dev.esophose.playerparticles.database.MySQLConnector;
+import dev.esophose.playerparticles.database.PlayerDataRecord;
 import dev.esophose.playerparticles.database.SQLiteConnector;
 import dev.esophose.playerparticles.manager.ConfigurationManager.Setting;
 import dev.esophose.playerparticles.particles.ConsolePPlayer;
@@ -15,19 +20,33 @@ import dev.esophose.playerparticles.particles.data.NoteColor;
 import dev.esophose.playerparticles.particles.data.OrdinaryColor;
 import dev.esophose.playerparticles.styles.ParticleStyle;
 import dev.esophose.playerparticles.util.ParticleUtils;
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
 
 /**
  * All data changes to PPlayers such as group or fixed effect changes must be done through here,
@@ -35,32 +54,150 @@ import org.bukkit.World;
  */
 public class DataManager extends Manager {
 
+    /**
+     * The most writes to run in a single transaction while flushing
+     */
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    /**
+     * The most change log ids to watch for at once that were skipped because they weren't committed yet, and how long to wait for them
+     */
+    private static final int MAX_CHANGE_LOG_GAPS = 1000;
+    private static final long CHANGE_LOG_GAP_TIMEOUT = 60000;
+
     private DatabaseConnector databaseConnector;
 
+    /**
+     * Used instead of the database connector if the log store is enabled
+     */
+    private LogStore logStore;
+    private BukkitTask compactionTask;
+
+    /**
+     * Timings and counts for everything done through the database connector since the last reload
+     */
+    private DatabaseStatistics databaseStatistics;
+    private BukkitTask statisticsLogTask;
+
+    /**
+     * Writes waiting for a task to run them, anything left over is flushed before the connection is closed
+     */
+    private final Queue<PendingWrite> pendingWrites;
+    private final AtomicInteger runningWrites;
+    private volatile boolean acceptingWrites;
+    private volatile boolean writesPaused;
+
+    /**
+     * PPlayers that were loaded while logging in and are waiting to be claimed when they join
+     */
+    private final Map<UUID, CachedPPlayer> prefetchedPPlayers;
+
+    /**
+     * Recently used PPlayers that are offline, kept separate from the PPlayers being displayed by the ParticleManager
+     */
+    private final Map<UUID, CachedPPlayer> offlinePPlayers;
+
+    /**
+     * Identifies changes made by this server in the change log so they aren't applied twice
+     */
+    private final String changeLogServerId;
+
+    /**
+     * The task that applies changes made by other servers sharing the database
+     */
+    private volatile BukkitTask changeLogTask;
+    private long lastChangeId;
+    private long lastChangeLogPrune;
+
+    /**
+     * Change log ids below the last id read that haven't been seen yet, with when they were first missed
+     * With several servers writing at once, an id can be committed after a higher one has already been read
+     */
+    private final Map<Long, Long> changeLogGaps;
+
     public DataManager(PlayerParticles playerParticles) {
         super(playerParticles);
+
+        this.changeLogGaps = new LinkedHashMap<>();
+
+        this.prefetchedPPlayers = new ConcurrentHashMap<>();
+        this.offlinePPlayers = Collections.synchronizedMap(new LinkedHashMap<UUID, CachedPPlayer>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, CachedPPlayer> eldest) {
+                return this.size() > Setting.OFFLINE_PLAYER_CACHE_SIZE.getInt();
+            }
+        });
+        this.changeLogServerId = UUID.randomUUID().toString();
+        this.pendingWrites = new ConcurrentLinkedQueue<>();
+        this.runningWrites = new AtomicInteger();
+        this.acceptingWrites = false;
     }
 
     @Override
     public void reload() {
-        if (this.databaseConnector != null)
+        if (this.changeLogTask != null) {
+            this.changeLogTask.cancel();
+            this.changeLogTask = null;
+        }
+
+        if (this.databaseConnector != null || this.logStore != null)
+            this.flushPendingWrites();
+
+        if (this.databaseConnector != null) {
             this.databaseConnector.closeConnection();
+            this.databaseConnector = null;
+        }
+
+        if (this.logStore != null) {
+            this.logStore.close();
+            this.logStore = null;
+        }
+
+        if (this.compactionTask != null) {
+            this.compactionTask.cancel();
+            this.compactionTask = null;
+        }
+
+        if (this.statisticsLogTask != null) {
+            this.statisticsLogTask.cancel();
+            this.statisticsLogTask = null;
+        }
+
+        this.databaseStatistics = new DatabaseStatistics();
+        long statisticsLogInterval = Setting.DATABASE_STATISTICS_LOG_INTERVAL.getLong() * 60 * 20;
+        if (statisticsLogInterval > 0)
+            this.statisticsLogTask = Bukkit.getScheduler().runTaskTimerAsynchronously(this.playerParticles, this::writeStatisticsLog, statisticsLogInterval, statisticsLogInterval);
+
+        this.prefetchedPPlayers.clear();
+        this.offlinePPlayers.clear();
 
         try {
-            if (Setting.MYSQL_ENABLED.getBoolean()) {
-                String hostname = Setting.MYSQL_HOSTNAME.getString();
-                int port = Setting.MYSQL_PORT.getInt();
-                String database = Setting.MYSQL_DATABASE_NAME.getString();
-                String username = Setting.MYSQL_USER_NAME.getString();
-                String password = Setting.MYSQL_USER_PASSWORD.getString();
-                boolean useSSL = Setting.MYSQL_USE_SSL.getBoolean();
-
-                this.databaseConnector = new MySQLConnector(this.playerParticles, hostname, port, database, username, password, useSSL);
+            if (Setting.LOG_STORE_ENABLED.getBoolean()) {
+                this.logStore = new LogStore(new File(this.playerParticles.getDataFolder(), "data"), this.playerParticles.getDescription().getName().toLowerCase(), this.playerParticles.getLogger());
+                this.playerParticles.getLogger().info("Data handler connected using the log store.");
+
+                long interval = Setting.LOG_STORE_COMPACTION_INTERVAL.getLong() * 60 * 20;
+                if (interval > 0)
+                    this.compactionTask = Bukkit.getScheduler().runTaskTimerAsynchronously(this.playerParticles, this::compactLogStore, interval, interval);
+            } else if (Setting.MYSQL_ENABLED.getBoolean()) {
+                this.databaseConnector = this.createMySQLConnector();
                 this.playerParticles.getLogger().info("Data handler connected using MySQL.");
+
+                if (Setting.MYSQL_SYNC_CHANGES.getBoolean()) {
+                    // Start from the end of the change log once the first poll runs, the tables may not have been migrated yet
+                    synchronized (this.changeLogGaps) {
+                        this.lastChangeId = -1;
+                        this.changeLogGaps.clear();
+                    }
+                    long interval = Setting.MYSQL_SYNC_INTERVAL.getLong();
+                    this.changeLogTask = Bukkit.getScheduler().runTaskTimerAsynchronously(this.playerParticles, this::pollChangeLog, interval, interval);
+                }
             } else {
                 this.databaseConnector = new SQLiteConnector(this.playerParticles);
                 this.playerParticles.getLogger().info("Data handler connected using SQLite.");
             }
+
+            this.acceptingWrites = true;
         } catch (Exception ex) {
             this.playerParticles.getLogger().severe("Fatal error trying to connect to database. Please make sure all your connection settings are correct and try again. Plugin has been disabled.");
             Bukkit.getPluginManager().disablePlugin(this.playerParticles);
@@ -69,11 +206,30 @@ public class DataManager extends Manager {
 
     @Override
     public void disable() {
-        this.databaseConnector.closeConnection();
+        if (this.changeLogTask != null)
+            this.changeLogTask.cancel();
+
+        if (this.compactionTask != null)
+            this.compactionTask.cancel();
+
+        if (this.statisticsLogTask != null)
+            this.statisticsLogTask.cancel();
+
+        if (this.databaseConnector != null || this.logStore != null)
+            this.flushPendingWrites();
+
+        if (this.databaseConnector != null)
+            this.databaseConnector.closeConnection();
+
+        if (this.logStore != null)
+            this.logStore.close();
+
+        this.prefetchedPPlayers.clear();
+        this.offlinePPlayers.clear();
     }
 
     /**
-     * Gets a PPlayer from cache
+     * Gets a PPlayer from cache, this includes recently used offline PPlayers
      * This method should be used over the other one unless you absolutely need the PPlayer and you don't care about waiting
      * You should always check for a null result when using this method
      *
@@ -81,10 +237,22 @@ public class DataManager extends Manager {
      * @return The PPlayer from cache
      */
     public PPlayer getPPlayer(UUID playerUUID) {
-        for (PPlayer pp : this.playerParticles.getManager(ParticleManager.class).getPPlayers())
-            if (pp.getUniqueId().equals(playerUUID))
-                return pp;
-        return null;
+        PPlayer pplayer = this.playerParticles.getManager(ParticleManager.class).getPPlayer(playerUUID);
+        if (pplayer != null)
+            return pplayer;
+        return this.getOfflinePPlayer(playerUUID);
+    }
+
+    /**
+     * Updates the style index for a loaded PPlayer after their active particles have changed
+     *
+     * @param playerUUID The UUID of the PPlayer
+     */
+    private void updateStyleIndex(UUID playerUUID) {
+        ParticleManager particleManager = this.playerParticles.getManager(ParticleManager.class);
+        PPlayer pplayer = particleManager.getPPlayer(playerUUID);
+        if (pplayer != null)
+            particleManager.updatePPlayerStyles(pplayer);
     }
 
     /**
@@ -95,167 +263,279 @@ public class DataManager extends Manager {
      */
     public void getPPlayer(UUID playerUUID, Consumer<PPlayer> callback) {
 
-        // Try to get them from cache first
+        // Try to get them from cache first, moving them out of the offline cache if they need to be displayed now
         PPlayer fromCache = this.getPPlayer(playerUUID);
         if (fromCache != null) {
+            if (this.offlinePPlayers.containsKey(playerUUID) && this.shouldDisplay(fromCache)) {
+                this.offlinePPlayers.remove(playerUUID);
+                this.playerParticles.getManager(ParticleManager.class).addPPlayer(fromCache);
+            }
+
             callback.accept(fromCache);
             return;
         }
 
-        this.async(() -> {
-            Map<String, ParticleGroup> groups = new ConcurrentHashMap<>();
-            Map<Integer, FixedParticleEffect> fixedParticles = new ConcurrentHashMap<>();
+        this.async(() -> this.loadPPlayer(playerUUID, (loadedPPlayer) -> this.sync(() -> {
+            if (this.shouldDisplay(loadedPPlayer)) {
+                this.playerParticles.getManager(ParticleManager.class).addPPlayer(loadedPPlayer);
+            } else {
+                this.cacheOfflinePPlayer(loadedPPlayer);
+            }
 
-            this.databaseConnector.connect((connection) -> {
-                // Load settings
-                boolean particlesHidden = false;
-                String settingsQuery = "SELECT particles_hidden FROM " + this.getTablePrefix() + "settings WHERE player_uuid = ?";
-                try (PreparedStatement statement = connection.prepareStatement(settingsQuery)) {
-                    statement.setString(1, playerUUID.toString());
+            callback.accept(loadedPPlayer);
+        })));
+    }
 
-                    ResultSet result = statement.executeQuery();
-                    if (result.next()) {
-                        particlesHidden = result.getBoolean("particles_hidden");
-                    } else {
-                        statement.close();
+    /**
+     * Stores a PPlayer who is no longer being displayed in the offline cache
+     * The cache is limited in size and PPlayers in it expire after a short time
+     *
+     * @param pplayer The PPlayer to cache
+     */
+    public void cacheOfflinePPlayer(PPlayer pplayer) {
+        if (Setting.OFFLINE_PLAYER_CACHE_SIZE.getInt() <= 0 || Setting.OFFLINE_PLAYER_CACHE_TTL.getLong() <= 0)
+            return;
 
-                        String updateQuery = "INSERT INTO " + this.getTablePrefix() + "settings (player_uuid, particles_hidden) VALUES (?, ?)";
-                        try (PreparedStatement updateStatement = connection.prepareStatement(updateQuery)) {
-                            updateStatement.setString(1, playerUUID.toString());
-                            updateStatement.setBoolean(2, false);
+        this.offlinePPlayers.put(pplayer.getUniqueId(), new CachedPPlayer(pplayer, System.currentTimeMillis()));
+    }
 
-                            updateStatement.executeUpdate();
-                        }
+    /**
+     * Gets a PPlayer from the offline cache, removing it if it has expired
+     *
+     * @param playerUUID The PPlayer to get
+     * @return The PPlayer from the offline cache, or null if not found
+     */
+    private PPlayer getOfflinePPlayer(UUID playerUUID) {
+        CachedPPlayer cached = this.offlinePPlayers.get(playerUUID);
+        if (cached == null)
+            return null;
+
+        if (cached.isExpired(System.currentTimeMillis(), Setting.OFFLINE_PLAYER_CACHE_TTL.getLong() * 1000)) {
+            this.offlinePPlayers.remove(playerUUID);
+            return null;
+        }
+
+        return cached.getPPlayer();
+    }
+
+    /**
+     * Checks if a PPlayer needs to be displayed by the ParticleManager rather than being held in the offline cache
+     *
+     * @param pplayer The PPlayer to check
+     * @return true if the PPlayer is online, the console, or has fixed effects, otherwise false
+     */
+    private boolean shouldDisplay(PPlayer pplayer) {
+        return pplayer instanceof ConsolePPlayer || !pplayer.getFixedEffectIds().isEmpty() || pplayer.getPlayer() != null;
+    }
+
+    /**
+     * Loads a PPlayer from the database ahead of them joining the server and holds onto it for a short time.
+     * Must be called off of the main thread, this is intended to be used during AsyncPlayerPreLoginEvent.
+     * Does nothing if the PPlayer is already being displayed. Any copy in the offline cache is dropped, it could be out of date
+     * if the player changed their particles on another server sharing the database.
+     *
+     * @param playerUUID The pplayer to prefetch
+     */
+    public void prefetchPPlayer(UUID playerUUID) {
+        this.offlinePPlayers.remove(playerUUID);
+
+        long ttl = Setting.LOGIN_PREFETCH_TTL.getLong() * 1000;
+        if (ttl <= 0 || this.playerParticles.getManager(ParticleManager.class).getPPlayer(playerUUID) != null)
+            return;
+
+        // Clean out anything that was never claimed, such as players who disconnected while logging in
+        long now = System.currentTimeMillis();
+        this.prefetchedPPlayers.values().removeIf(x -> x.isExpired(now, ttl));
+
+        this.loadPPlayer(playerUUID, (loadedPPlayer) -> this.prefetchedPPlayers.put(playerUUID, new CachedPPlayer(loadedPPlayer, now)));
+    }
+
+    /**
+     * Removes and returns a PPlayer that was loaded with {@link #prefetchPPlayer(UUID)}
+     *
+     * @param playerUUID The pplayer to get
+     * @return The prefetched PPlayer, or null if none was prefetched or it has expired
+     */
+    public PPlayer claimPrefetchedPPlayer(UUID playerUUID) {
+        CachedPPlayer prefetched = this.prefetchedPPlayers.remove(playerUUID);
+        if (prefetched != null)
+            this.offlinePPlayers.remove(playerUUID);
+        if (prefetched == null || prefetched.isExpired(System.currentTimeMillis(), Setting.LOGIN_PREFETCH_TTL.getLong() * 1000))
+            return null;
+        return prefetched.getPPlayer();
+    }
+
+    /**
+     * Discards a PPlayer that was loaded with {@link #prefetchPPlayer(UUID)}, such as if their login was denied
+     *
+     * @param playerUUID The pplayer to discard
+     */
+    public void evictPrefetchedPPlayer(UUID playerUUID) {
+        this.prefetchedPPlayers.remove(playerUUID);
+    }
+
+    /**
+     * Loads a PPlayer from the database on the current thread, creating their save data if it doesn't exist
+     *
+     * @param playerUUID The pplayer to load
+     * @param callback The callback to execute with the loaded pplayer, runs on the current thread
+     */
+    private void loadPPlayer(UUID playerUUID, Consumer<PPlayer> callback) {
+        if (this.logStore != null) {
+            this.connectLogStore(Operation.LOAD_PLAYER, (store) -> {
+                PlayerDataRecord record = PlayerDataRecord.read(playerUUID, store.read(playerUUID));
+                this.databaseStatistics.recordRow();
+                if (record.isModified())
+                    store.write(playerUUID, record.getFlags(), record.write());
+
+                if (!playerUUID.equals(ConsolePPlayer.getUUID())) {
+                    callback.accept(new PPlayer(playerUUID, record.getParticleGroups(), record.getFixedEffects(), record.isParticlesHidden()));
+                } else {
+                    callback.accept(new ConsolePPlayer(record.getParticleGroups(), record.getFixedEffects()));
+                }
+            });
+            return;
+        }
+
+        Map<String, ParticleGroup> groups = new ConcurrentHashMap<>();
+        Map<Integer, FixedParticleEffect> fixedParticles = new ConcurrentHashMap<>();
+
+        this.connect(Operation.LOAD_PLAYER, (connection) -> {
+            // Load settings
+            boolean particlesHidden = false;
+            String settingsQuery = "SELECT particles_hidden FROM " + this.getTablePrefix() + "settings WHERE player_uuid = ?";
+            try (PreparedStatement statement = connection.prepareStatement(settingsQuery)) {
+                statement.setString(1, playerUUID.toString());
+
+                ResultSet result = statement.executeQuery();
+                if (result.next()) {
+                    this.databaseStatistics.recordRow();
+                    particlesHidden = result.getBoolean("particles_hidden");
+                } else {
+                    statement.close();
+
+                    String updateQuery = "INSERT INTO " + this.getTablePrefix() + "settings (player_uuid, particles_hidden) VALUES (?, ?)";
+                    try (PreparedStatement updateStatement = connection.prepareStatement(updateQuery)) {
+                        updateStatement.setString(1, playerUUID.toString());
+                        updateStatement.setBoolean(2, false);
+
+                        this.databaseStatistics.recordRows(updateStatement.executeUpdate());
                     }
                 }
+            }
 
-                // Load particle groups
-                String groupQuery = "SELECT * FROM " + this.getTablePrefix() + "group g " +
-        					   	    "JOIN " + this.getTablePrefix() + "particle p ON g.uuid = p.group_uuid " +
-        					   	    "WHERE g.owner_uuid = ?";
-                try (PreparedStatement statement = connection.prepareStatement(groupQuery)) {
-                    statement.setString(1, playerUUID.toString());
+            // Load particle groups
+            String groupQuery = "SELECT * FROM " + this.getTablePrefix() + "group g " +
+    					   	    "JOIN " + this.getTablePrefix() + "particle p ON g.uuid = p.group_uuid " +
+    					   	    "WHERE g.owner_uuid = ?";
+            try (PreparedStatement statement = connection.prepareStatement(groupQuery)) {
+                statement.setString(1, playerUUID.toString());
 
-                    Set<String> modifiedGroups = new HashSet<>();
-                    ResultSet result = statement.executeQuery();
-                    while (result.next()) {
-                        // Group properties
-                        String groupName = result.getString("name");
-
-                        // Particle properties
-                        int id = result.getInt("id");
-                        ParticleEffect effect = ParticleEffect.fromInternalName(result.getString("effect"));
-                        ParticleStyle style = ParticleStyle.fromInternalName(result.getString("style"));
-                        Material itemMaterial = ParticleUtils.closestMatchWithFallback(true, result.getString("item_material"));
-                        Material blockMaterial = ParticleUtils.closestMatchWithFallback(true, result.getString("block_material"));
-                        NoteColor noteColor = new NoteColor(result.getInt("note"));
-                        OrdinaryColor color = new OrdinaryColor(result.getInt("r"), result.getInt("g"), result.getInt("b"));
-                        ParticlePair particle = new ParticlePair(playerUUID, id, effect, style, itemMaterial, blockMaterial, color, noteColor);
-
-                        boolean invalid = effect == null || style == null;
-                        if (invalid) // Effect or style is now missing or disabled, remove the particle
-                            modifiedGroups.add(groupName);
-
-                        // Try to add particle to an existing group
-                        boolean groupAlreadyExists = false;
-                        for (ParticleGroup group : groups.values()) {
-                            if (group.getName().equalsIgnoreCase(groupName)) {
-                                if (!invalid)
-                                    group.getParticles().put(particle.getId(), particle);
-                                groupAlreadyExists = true;
-                                break;
-                            }
-                        }
+                Set<String> modifiedGroups = new HashSet<>();
+                ResultSet result = statement.executeQuery();
+                while (result.next()) {
+                    this.databaseStatistics.recordRow();
+                    // Group properties
+                    String groupName = result.getString("name");
+
+                    // Particle properties
+                    ParticlePair particle = this.readParticlePair(playerUUID, result.getInt("id"), result);
 
-                        // Add the particle to a new group if one didn't already exist
-                        if (!groupAlreadyExists) {
-                            Map<Integer, ParticlePair> particles = new ConcurrentHashMap<>();
+                    boolean invalid = particle.getEffect() == null || particle.getStyle() == null;
+                    if (invalid) // Effect or style is now missing or disabled, remove the particle
+                        modifiedGroups.add(groupName);
+
+                    // Try to add particle to an existing group
+                    boolean groupAlreadyExists = false;
+                    for (ParticleGroup group : groups.values()) {
+                        if (group.getName().equalsIgnoreCase(groupName)) {
                             if (!invalid)
-                                particles.put(particle.getId(), particle);
-                            ParticleGroup newGroup = new ParticleGroup(groupName, particles);
-                            groups.put(newGroup.getName().toLowerCase(), newGroup);
+                                group.getParticles().put(particle.getId(), particle);
+                            groupAlreadyExists = true;
+                            break;
                         }
                     }
 
-                    // Update modified groups
-                    for (String modifiedGroup : modifiedGroups) {
-                        ParticleGroup group = groups.get(modifiedGroup.toLowerCase());
-                        this.saveParticleGroup(playerUUID, group);
-                        if (group.getParticles().isEmpty() && !group.getName().equals(ParticleGroup.DEFAULT_NAME))
-                            groups.remove(modifiedGroup);
+                    // Add the particle to a new group if one didn't already exist
+                    if (!groupAlreadyExists) {
+                        Map<Integer, ParticlePair> particles = new ConcurrentHashMap<>();
+                        if (!invalid)
+                            particles.put(particle.getId(), particle);
+                        ParticleGroup newGroup = new ParticleGroup(groupName, particles);
+                        groups.put(newGroup.getName().toLowerCase(), newGroup);
                     }
                 }
 
-                // Load fixed effects
-                String fixedQuery = "SELECT f.id AS f_id, f.world, f.xPos, f.yPos, f.zPos, p.id AS p_id, p.effect, p.style, p.item_material, p.block_material, p.note, p.r, p.g, p.b FROM " + this.getTablePrefix() + "fixed f " +
-        						    "JOIN " + this.getTablePrefix() + "particle p ON f.particle_uuid = p.uuid " +
-        						    "WHERE f.owner_uuid = ?";
-                try (PreparedStatement statement = connection.prepareStatement(fixedQuery)) {
-                    statement.setString(1, playerUUID.toString());
+                // Update modified groups
+                for (String modifiedGroup : modifiedGroups) {
+                    ParticleGroup group = groups.get(modifiedGroup.toLowerCase());
+                    this.saveParticleGroup(playerUUID, group);
+                    if (group.getParticles().isEmpty() && !group.getName().equals(ParticleGroup.DEFAULT_NAME))
+                        groups.remove(modifiedGroup);
+                }
+            }
 
-                    ResultSet result = statement.executeQuery();
-                    while (result.next()) {
-                        // Fixed effect properties
-                        int fixedEffectId = result.getInt("f_id");
-                        double xPos = result.getDouble("xPos");
-                        double yPos = result.getDouble("yPos");
-                        double zPos = result.getDouble("zPos");
-                        World world = Bukkit.getWorld(result.getString("world"));
-                        if (world == null) {
-                            // World was deleted, remove the fixed effect as it is no longer valid
-                            // Only delete on SQLite, as a MySQL server may have fixed effects from other servers saved
-                            if (this.databaseConnector instanceof SQLiteConnector)
-                                this.removeFixedEffect(playerUUID, fixedEffectId);
-                            continue;
-                        }
+            // Load fixed effects
+            String fixedQuery = "SELECT f.id AS f_id, f.world, f.xPos, f.yPos, f.zPos, p.id AS p_id, p.effect, p.style, p.item_material, p.block_material, p.note, p.r, p.g, p.b FROM " + this.getTablePrefix() + "fixed f " +
+    						    "JOIN " + this.getTablePrefix() + "particle p ON f.particle_uuid = p.uuid " +
+    						    "WHERE f.owner_uuid = ? AND f.server_id = ?";
+            try (PreparedStatement statement = connection.prepareStatement(fixedQuery)) {
+                statement.setString(1, playerUUID.toString());
+                statement.setString(2, this.getServerId());
 
-                        // Particle properties
-                        int particleId = result.getInt("p_id");
-                        ParticleEffect effect = ParticleEffect.fromInternalName(result.getString("effect"));
-                        ParticleStyle style = ParticleStyle.fromInternalName(result.getString("style"));
-                        Material itemMaterial = ParticleUtils.closestMatchWithFallback(true, result.getString("item_material"));
-                        Material blockMaterial = ParticleUtils.closestMatchWithFallback(true, result.getString("block_material"));
-                        NoteColor noteColor = new NoteColor(result.getInt("note"));
-                        OrdinaryColor color = new OrdinaryColor(result.getInt("r"), result.getInt("g"), result.getInt("b"));
-                        ParticlePair particle = new ParticlePair(playerUUID, particleId, effect, style, itemMaterial, blockMaterial, color, noteColor);
-
-                        // Effect or style is now missing or disabled, remove the fixed effect
-                        if (effect == null || style == null) {
+                ResultSet result = statement.executeQuery();
+                while (result.next()) {
+                    this.databaseStatistics.recordRow();
+                    // Fixed effect properties
+                    int fixedEffectId = result.getInt("f_id");
+                    double xPos = result.getDouble("xPos");
+                    double yPos = result.getDouble("yPos");
+                    double zPos = result.getDouble("zPos");
+                    World world = Bukkit.getWorld(result.getString("world"));
+                    if (world == null) {
+                        // World was deleted, remove the fixed effect as it is no longer valid
+                        // Only delete on SQLite or if this server has its own fixed effects, otherwise these may belong to another server
+                        if (this.databaseConnector instanceof SQLiteConnector || !this.getServerId().isEmpty())
                             this.removeFixedEffect(playerUUID, fixedEffectId);
-                            continue;
-                        }
-
-                        fixedParticles.put(fixedEffectId, new FixedParticleEffect(playerUUID, fixedEffectId, new Location(world, xPos, yPos, zPos), particle));
+                        continue;
                     }
-                }
 
-                // If there aren't any groups then this is a brand new PPlayer and we need to save a new active group for them
-                boolean activeGroupExists = false;
-                for (ParticleGroup group : groups.values()) {
-                    if (group.getName().equals(ParticleGroup.DEFAULT_NAME)) {
-                        activeGroupExists = true;
-                        break;
+                    // Particle properties
+                    ParticlePair particle = this.readParticlePair(playerUUID, result.getInt("p_id"), result);
+
+                    // Effect or style is now missing or disabled, remove the fixed effect
+                    if (particle.getEffect() == null || particle.getStyle() == null) {
+                        this.removeFixedEffect(playerUUID, fixedEffectId);
+                        continue;
                     }
-                }
 
-                if (!activeGroupExists) {
-                    ParticleGroup activeGroup = new ParticleGroup(ParticleGroup.DEFAULT_NAME, new ConcurrentHashMap<>());
-                    this.saveParticleGroup(playerUUID, activeGroup);
-                    groups.put(activeGroup.getName(), activeGroup);
+                    fixedParticles.put(fixedEffectId, new FixedParticleEffect(playerUUID, fixedEffectId, new Location(world, xPos, yPos, zPos), particle));
                 }
+            }
 
-                PPlayer loadedPPlayer;
-                if (!playerUUID.equals(ConsolePPlayer.getUUID())) {
-                    loadedPPlayer = new PPlayer(playerUUID, groups, fixedParticles, particlesHidden);
-                } else {
-                    loadedPPlayer = new ConsolePPlayer(groups, fixedParticles);
+            // If there aren't any groups then this is a brand new PPlayer and we need to save a new active group for them
+            boolean activeGroupExists = false;
+            for (ParticleGroup group : groups.values()) {
+                if (group.getName().equals(ParticleGroup.DEFAULT_NAME)) {
+                    activeGroupExists = true;
+                    break;
                 }
+            }
 
-                this.sync(() -> {
-                    this.playerParticles.getManager(ParticleManager.class).addPPlayer(loadedPPlayer);
-                    callback.accept(loadedPPlayer);
-                });
-            });
+            if (!activeGroupExists) {
+                ParticleGroup activeGroup = new ParticleGroup(ParticleGroup.DEFAULT_NAME, new ConcurrentHashMap<>());
+                this.saveParticleGroup(playerUUID, activeGroup);
+                groups.put(activeGroup.getName(), activeGroup);
+            }
+
+            PPlayer loadedPPlayer;
+            if (!playerUUID.equals(ConsolePPlayer.getUUID())) {
+                loadedPPlayer = new PPlayer(playerUUID, groups, fixedParticles, particlesHidden);
+            } else {
+                loadedPPlayer = new ConsolePPlayer(groups, fixedParticles);
+            }
+
+            callback.accept(loadedPPlayer);
         });
     }
 
@@ -263,15 +543,38 @@ public class DataManager extends Manager {
      * Loads all PPlayers from the database that own FixedParticleEffects
      */
     public void loadFixedEffects() {
-        this.async(() -> this.databaseConnector.connect((connection) -> {
-            String query = "SELECT DISTINCT owner_uuid FROM " + this.getTablePrefix() + "fixed";
+        if (this.logStore != null) {
+            this.async(() -> this.connectLogStore(Operation.LOAD_FIXED_EFFECTS, (store) -> {
+                for (UUID playerUUID : store.getKeys(PlayerDataRecord.FLAG_HAS_FIXED_EFFECTS)) {
+                    this.databaseStatistics.recordRow();
+                    this.sync(() -> this.getPPlayer(playerUUID, (pplayer) -> { }));
+                }
+            }));
+            return;
+        }
+
+        this.async(() -> this.connect(Operation.LOAD_FIXED_EFFECTS, (connection) -> {
+            String query = "SELECT DISTINCT owner_uuid FROM " + this.getTablePrefix() + "fixed WHERE server_id = ?";
             try (PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setString(1, this.getServerId());
+
                 ResultSet result = statement.executeQuery();
                 while (result.next()) {
+                    this.databaseStatistics.recordRow();
                     UUID playerUUID = UUID.fromString(result.getString("owner_uuid"));
                     this.sync(() -> this.getPPlayer(playerUUID, (pplayer) -> { }));
                 }
             }
+
+            // Let the server owner know if there are fixed effects that haven't been moved to this server yet
+            if (!this.getServerId().isEmpty()) {
+                String unassignedQuery = "SELECT COUNT(*) FROM " + this.getTablePrefix() + "fixed WHERE server_id = ''";
+                try (PreparedStatement statement = connection.prepareStatement(unassignedQuery)) {
+                    ResultSet result = statement.executeQuery();
+                    if (result.next() && result.getInt(1) > 0)
+                        this.playerParticles.getLogger().info("There are " + result.getInt(1) + " fixed effects not assigned to a server. Use /pp fixed rehome none " + this.getServerId() + " to move them to this server.");
+                }
+            }
         }));
     }
 
@@ -280,17 +583,24 @@ public class DataManager extends Manager {
      *
      * @param playerUUID The player to hide PlayerParticles from
      * @param particlesHidden True if the particles should be hidden, otherwise False
+     * @return A future completed once the change is saved
      */
-    public void updateSettingParticlesHidden(UUID playerUUID, boolean particlesHidden) {
-        this.async(() -> this.databaseConnector.connect((connection) -> {
+    public CompletableFuture<Void> updateSettingParticlesHidden(UUID playerUUID, boolean particlesHidden) {
+        if (this.logStore != null) {
+            return this.updateLogStoreRecord(Operation.SAVE_SETTINGS, playerUUID, (record) -> record.setParticlesHidden(particlesHidden));
+        }
+
+        return this.write(Operation.SAVE_SETTINGS, (connection) -> {
             String updateQuery = "UPDATE " + this.getTablePrefix() + "settings SET particles_hidden = ? WHERE player_uuid = ?";
             try (PreparedStatement updateStatement = connection.prepareStatement(updateQuery)) {
                 updateStatement.setBoolean(1, particlesHidden);
                 updateStatement.setString(2, playerUUID.toString());
 
-                updateStatement.executeUpdate();
+                this.databaseStatistics.recordRows(updateStatement.executeUpdate());
             }
-        }));
+
+            this.logChange(connection, playerUUID, ChangeType.SETTINGS, null);
+        });
     }
 
     /**
@@ -298,69 +608,132 @@ public class DataManager extends Manager {
      *
      * @param playerUUID The owner of the group
      * @param group The group to create/update
+     * @return A future completed once the change is saved
      */
-    public void saveParticleGroup(UUID playerUUID, ParticleGroup group) {
+    public CompletableFuture<Void> saveParticleGroup(UUID playerUUID, ParticleGroup group) {
+        this.updateStyleIndex(playerUUID);
+
         if (group.getParticles().isEmpty() && !group.getName().equals(ParticleGroup.DEFAULT_NAME)) {
-            this.removeParticleGroup(playerUUID, group.getName());
-            return;
+            return this.removeParticleGroup(playerUUID, group.getName());
         }
 
-        this.async(() -> this.databaseConnector.connect((connection) -> {
-            String groupUUID;
-            boolean existingGroup;
+        if (this.logStore != null) {
+            return this.updateLogStoreRecord(Operation.SAVE_GROUP, playerUUID, (record) -> record.getParticleGroups().put(group.getName().toLowerCase(), group));
+        }
 
-            String groupUUIDQuery = "SELECT uuid FROM " + this.getTablePrefix() + "group WHERE owner_uuid = ? AND name = ?";
-            try (PreparedStatement statement = connection.prepareStatement(groupUUIDQuery)) {
-                statement.setString(1, playerUUID.toString());
-                statement.setString(2, group.getName());
+        return this.write(Operation.SAVE_GROUP, (connection) -> this.writeParticleGroup(connection, playerUUID, group));
+    }
 
-                ResultSet result = statement.executeQuery();
-                if (result.next()) { // Clear out particles from existing group
-                    groupUUID = result.getString("uuid");
-                    existingGroup = true;
-                } else { // Create new group
-                    groupUUID = UUID.randomUUID().toString();
-                    existingGroup = false;
-                }
+    /**
+     * Saves many ParticleGroups at once in a single write and transaction
+     * Empty groups other than the active group are removed instead, the same as {@link #saveParticleGroup(UUID, ParticleGroup)}
+     *
+     * @param groups The groups to create/update, keyed by their owner
+     * @return A future completed once every change is saved
+     */
+    public CompletableFuture<Void> saveParticleGroups(Map<UUID, ParticleGroup> groups) {
+        for (UUID playerUUID : groups.keySet())
+            this.updateStyleIndex(playerUUID);
+
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        Map<UUID, ParticleGroup> groupsToSave = new LinkedHashMap<>();
+        for (Map.Entry<UUID, ParticleGroup> entry : groups.entrySet()) {
+            ParticleGroup group = entry.getValue();
+            if (group.getParticles().isEmpty() && !group.getName().equals(ParticleGroup.DEFAULT_NAME)) {
+                writes.add(this.removeParticleGroup(entry.getKey(), group.getName()));
+            } else {
+                groupsToSave.put(entry.getKey(), group);
             }
+        }
 
-            if (existingGroup) {
-                String particlesDeleteQuery = "DELETE FROM " + this.getTablePrefix() + "particle WHERE group_uuid = ?";
-                try (PreparedStatement particlesDeleteStatement = connection.prepareStatement(particlesDeleteQuery)) {
-                    particlesDeleteStatement.setString(1, groupUUID);
-                    particlesDeleteStatement.executeUpdate();
-                }
-            } else {
-                String groupCreateQuery = "INSERT INTO " + this.getTablePrefix() + "group (uuid, owner_uuid, name) VALUES (?, ?, ?)";
-                try (PreparedStatement groupCreateStatement = connection.prepareStatement(groupCreateQuery)) {
-                    groupCreateStatement.setString(1, groupUUID);
-                    groupCreateStatement.setString(2, playerUUID.toString());
-                    groupCreateStatement.setString(3, group.getName());
-                    groupCreateStatement.executeUpdate();
+        if (groupsToSave.isEmpty())
+            return CompletableFuture.allOf(writes.toArray(new CompletableFuture[0]));
+
+        if (this.logStore != null) {
+            writes.add(this.writeLogStore(Operation.SAVE_GROUPS, (store) -> {
+                for (Map.Entry<UUID, ParticleGroup> entry : groupsToSave.entrySet()) {
+                    PlayerDataRecord record = PlayerDataRecord.read(entry.getKey(), store.read(entry.getKey()));
+                    record.getParticleGroups().put(entry.getValue().getName().toLowerCase(), entry.getValue());
+                    store.write(entry.getKey(), record.getFlags(), record.write());
+                    this.databaseStatistics.recordRow();
                 }
+            }));
+        } else {
+            writes.add(this.writeTransaction(Operation.SAVE_GROUPS, (connection) -> {
+                for (Map.Entry<UUID, ParticleGroup> entry : groupsToSave.entrySet())
+                    this.writeParticleGroup(connection, entry.getKey(), entry.getValue());
+            }));
+        }
+
+        return CompletableFuture.allOf(writes.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Writes a ParticleGroup to the database, replacing all of its particles if it already exists
+     *
+     * @param connection The connection to the database
+     * @param playerUUID The owner of the group
+     * @param group The group to create/update
+     * @throws SQLException Any error that occurs during the SQL execution
+     */
+    private void writeParticleGroup(Connection connection, UUID playerUUID, ParticleGroup group) throws SQLException {
+        String groupUUID;
+        boolean existingGroup;
+
+        String groupUUIDQuery = "SELECT uuid FROM " + this.getTablePrefix() + "group WHERE owner_uuid = ? AND name = ?";
+        try (PreparedStatement statement = connection.prepareStatement(groupUUIDQuery)) {
+            statement.setString(1, playerUUID.toString());
+            statement.setString(2, group.getName());
+
+            ResultSet result = statement.executeQuery();
+            if (result.next()) { // Clear out particles from existing group
+                this.databaseStatistics.recordRow();
+                groupUUID = result.getString("uuid");
+                existingGroup = true;
+            } else { // Create new group
+                groupUUID = UUID.randomUUID().toString();
+                existingGroup = false;
             }
+        }
 
-            // Fill group with new particles
-            String createParticlesQuery = "INSERT INTO " + this.getTablePrefix() + "particle (uuid, group_uuid, id, effect, style, item_material, block_material, note, r, g, b) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            try (PreparedStatement particlesStatement = connection.prepareStatement(createParticlesQuery)) {
-                for (ParticlePair particle : group.getParticles().values()) {
-                    particlesStatement.setString(1, UUID.randomUUID().toString());
-                    particlesStatement.setString(2, groupUUID);
-                    particlesStatement.setInt(3, particle.getId());
-                    particlesStatement.setString(4, particle.getEffect().getInternalName());
-                    particlesStatement.setString(5, particle.getStyle().getInternalName());
-                    particlesStatement.setString(6, particle.getItemMaterial().name());
-                    particlesStatement.setString(7, particle.getBlockMaterial().name());
-                    particlesStatement.setInt(8, particle.getNoteColor().getNote());
-                    particlesStatement.setInt(9, particle.getColor().getRed());
-                    particlesStatement.setInt(10, particle.getColor().getGreen());
-                    particlesStatement.setInt(11, particle.getColor().getBlue());
-                    particlesStatement.addBatch();
-                }
+        if (existingGroup) {
+            String particlesDeleteQuery = "DELETE FROM " + this.getTablePrefix() + "particle WHERE group_uuid = ?";
+            try (PreparedStatement particlesDeleteStatement = connection.prepareStatement(particlesDeleteQuery)) {
+                particlesDeleteStatement.setString(1, groupUUID);
+                this.databaseStatistics.recordRows(particlesDeleteStatement.executeUpdate());
+            }
+        } else {
+            String groupCreateQuery = "INSERT INTO " + this.getTablePrefix() + "group (uuid, owner_uuid, name) VALUES (?, ?, ?)";
+            try (PreparedStatement groupCreateStatement = connection.prepareStatement(groupCreateQuery)) {
+                groupCreateStatement.setString(1, groupUUID);
+                groupCreateStatement.setString(2, playerUUID.toString());
+                groupCreateStatement.setString(3, group.getName());
+                this.databaseStatistics.recordRows(groupCreateStatement.executeUpdate());
+            }
+        }
 
-                particlesStatement.executeBatch();
+        // Fill group with new particles
+        String createParticlesQuery = "INSERT INTO " + this.getTablePrefix() + "particle (uuid, group_uuid, id, effect, style, item_material, block_material, note, r, g, b) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement particlesStatement = connection.prepareStatement(createParticlesQuery)) {
+            for (ParticlePair particle : group.getParticles().values()) {
+                particlesStatement.setString(1, UUID.randomUUID().toString());
+                particlesStatement.setString(2, groupUUID);
+                particlesStatement.setInt(3, particle.getId());
+                particlesStatement.setString(4, particle.getEffect().getInternalName());
+                particlesStatement.setString(5, particle.getStyle().getInternalName());
+                particlesStatement.setString(6, particle.getItemMaterial().name());
+                particlesStatement.setString(7, particle.getBlockMaterial().name());
+                particlesStatement.setInt(8, particle.getNoteColor().getNote());
+                particlesStatement.setInt(9, particle.getColor().getRed());
+                particlesStatement.setInt(10, particle.getColor().getGreen());
+                particlesStatement.setInt(11, particle.getColor().getBlue());
+                particlesStatement.addBatch();
             }
-        }));
+
+            this.databaseStatistics.recordRows(particlesStatement.executeBatch());
+        }
+
+        this.logChange(connection, playerUUID, ChangeType.GROUP, group.getName());
     }
 
     /**
@@ -368,9 +741,14 @@ public class DataManager extends Manager {
      *
      * @param playerUUID The owner of the group
      * @param groupName The group to remove
+     * @return A future completed once the change is saved
      */
-    public void removeParticleGroup(UUID playerUUID, String groupName) {
-        this.async(() -> this.databaseConnector.connect((connection) -> {
+    public CompletableFuture<Void> removeParticleGroup(UUID playerUUID, String groupName) {
+        if (this.logStore != null) {
+            return this.updateLogStoreRecord(Operation.REMOVE_GROUP, playerUUID, (record) -> record.getParticleGroups().remove(groupName.toLowerCase()));
+        }
+
+        return this.write(Operation.REMOVE_GROUP, (connection) -> {
             String groupQuery = "SELECT * FROM " + this.getTablePrefix() + "group WHERE owner_uuid = ? AND name = ?";
             String particleDeleteQuery = "DELETE FROM " + this.getTablePrefix() + "particle WHERE group_uuid = ?";
             String groupDeleteQuery = "DELETE FROM " + this.getTablePrefix() + "group WHERE uuid = ?";
@@ -383,6 +761,7 @@ public class DataManager extends Manager {
 
                 ResultSet result = statement.executeQuery();
                 if (result.next()) {
+                    this.databaseStatistics.recordRow();
                     groupUUID = result.getString("uuid");
                 }
             }
@@ -391,16 +770,18 @@ public class DataManager extends Manager {
             try (PreparedStatement statement = connection.prepareStatement(particleDeleteQuery)) {
                 statement.setString(1, groupUUID);
 
-                statement.executeUpdate();
+                this.databaseStatistics.recordRows(statement.executeUpdate());
             }
 
             // Execute group delete update
             try (PreparedStatement statement = connection.prepareStatement(groupDeleteQuery)) {
                 statement.setString(1, groupUUID);
 
-                statement.executeUpdate();
+                this.databaseStatistics.recordRows(statement.executeUpdate());
             }
-        }));
+
+            this.logChange(connection, playerUUID, ChangeType.GROUP, groupName);
+        });
     }
 
     /**
@@ -408,20 +789,53 @@ public class DataManager extends Manager {
      * This works even if the player is offline.
      *
      * @param playerName The name of the player to reset the active particle group for
-     * @param callback The callback to execute when finished
+     * @param callback The callback to execute once with whether the change was saved, after any retries
+     * @return A future completed once the change is saved
      */
-    public void resetActiveParticleGroup(String playerName, Consumer<Boolean> callback) {
-        this.async(() -> this.databaseConnector.connect((connection) -> {
-            @SuppressWarnings("deprecation")
-            OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(playerName);
+    public CompletableFuture<Void> resetActiveParticleGroup(String playerName, Consumer<Boolean> callback) {
+        // Looking up the player by name can block, so it is done with the write off of the main thread
+        UUID[] playerUUID = new UUID[1];
+        CompletableFuture<Void> future;
+        if (this.logStore != null) {
+            future = this.writeLogStore(Operation.RESET_GROUP, (store) -> {
+                @SuppressWarnings("deprecation")
+                OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(playerName);
+                playerUUID[0] = offlinePlayer.getUniqueId();
+
+                PlayerDataRecord record = PlayerDataRecord.read(offlinePlayer.getUniqueId(), store.read(offlinePlayer.getUniqueId()));
+                record.getParticleGroups().get(ParticleGroup.DEFAULT_NAME).getParticles().clear();
+                store.write(offlinePlayer.getUniqueId(), record.getFlags(), record.write());
+                this.databaseStatistics.recordRow();
+            });
+        } else {
+            future = this.write(Operation.RESET_GROUP, (connection) -> {
+                @SuppressWarnings("deprecation")
+                OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(playerName);
+                playerUUID[0] = offlinePlayer.getUniqueId();
+
+                String query = "DELETE FROM " + this.getTablePrefix() + "particle WHERE group_uuid IN (SELECT uuid FROM " + this.getTablePrefix() + "group WHERE owner_uuid = ? AND name = ?)";
+                try (PreparedStatement statement = connection.prepareStatement(query)) {
+                    statement.setString(1, offlinePlayer.getUniqueId().toString());
+                    statement.setString(2, ParticleGroup.DEFAULT_NAME);
+                    this.databaseStatistics.recordRows(statement.executeUpdate());
+                }
 
-            String query = "DELETE FROM " + this.getTablePrefix() + "particle WHERE group_uuid IN (SELECT uuid FROM " + this.getTablePrefix() + "group WHERE owner_uuid = ? AND name = ?)";
-            try (PreparedStatement statement = connection.prepareStatement(query)) {
-                statement.setString(1, offlinePlayer.getUniqueId().toString());
-                statement.setString(2, ParticleGroup.DEFAULT_NAME);
-                callback.accept(statement.execute());
+                this.logChange(connection, offlinePlayer.getUniqueId(), ChangeType.GROUP, ParticleGroup.DEFAULT_NAME);
+            });
+        }
+
+        // Keep any cached copy in line with the saved data once the reset has gone through
+        future.thenRun(() -> this.sync(() -> {
+            PPlayer cached = this.getPPlayer(playerUUID[0]);
+            if (cached != null) {
+                cached.getActiveParticleGroup().getParticles().clear();
+                this.updateStyleIndex(cached.getUniqueId());
             }
         }));
+
+        // Writes can be run again if a flush has to retry them one at a time, so the callback is only run once they're done
+        future.whenComplete((result, ex) -> callback.accept(ex == null));
+        return future;
     }
 
     /**
@@ -429,9 +843,19 @@ public class DataManager extends Manager {
      * Does not perform a check to see if a fixed effect with this id already exists
      *
      * @param fixedEffect The fixed effect to save
+     * @return A future completed once the change is saved
      */
-    public void saveFixedEffect(FixedParticleEffect fixedEffect) {
-        this.async(() -> this.databaseConnector.connect((connection) -> {
+    public CompletableFuture<Void> saveFixedEffect(FixedParticleEffect fixedEffect) {
+        // The owner now has a fixed effect to display, make sure they aren't only held in the offline cache
+        CachedPPlayer offline = this.offlinePPlayers.remove(fixedEffect.getOwnerUniqueId());
+        if (offline != null)
+            this.playerParticles.getManager(ParticleManager.class).addPPlayer(offline.getPPlayer());
+
+        if (this.logStore != null) {
+            return this.updateLogStoreRecord(Operation.SAVE_FIXED, fixedEffect.getOwnerUniqueId(), (record) -> record.getFixedEffects().put(fixedEffect.getId(), fixedEffect));
+        }
+
+        return this.write(Operation.SAVE_FIXED, (connection) -> {
             String particleUUID = UUID.randomUUID().toString();
 
             String particleQuery = "INSERT INTO " + this.getTablePrefix() + "particle (uuid, id, effect, style, item_material, block_material, note, r, g, b) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
@@ -447,10 +871,10 @@ public class DataManager extends Manager {
                 statement.setInt(8, particle.getColor().getRed());
                 statement.setInt(9, particle.getColor().getGreen());
                 statement.setInt(10, particle.getColor().getBlue());
-                statement.executeUpdate();
+                this.databaseStatistics.recordRows(statement.executeUpdate());
             }
 
-            String fixedEffectQuery = "INSERT INTO " + this.getTablePrefix() + "fixed (owner_uuid, id, particle_uuid, world, xPos, yPos, zPos) VALUES (?, ?, ?, ?, ?, ?, ?)";
+            String fixedEffectQuery = "INSERT INTO " + this.getTablePrefix() + "fixed (owner_uuid, id, particle_uuid, world, xPos, yPos, zPos, server_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
             try (PreparedStatement statement = connection.prepareStatement(fixedEffectQuery)) {
                 statement.setString(1, fixedEffect.getOwnerUniqueId().toString());
                 statement.setInt(2, fixedEffect.getId());
@@ -459,33 +883,42 @@ public class DataManager extends Manager {
                 statement.setDouble(5, fixedEffect.getLocation().getX());
                 statement.setDouble(6, fixedEffect.getLocation().getY());
                 statement.setDouble(7, fixedEffect.getLocation().getZ());
-                statement.executeUpdate();
+                statement.setString(8, this.getServerId());
+                this.databaseStatistics.recordRows(statement.executeUpdate());
             }
-        }));
+
+            this.logChange(connection, fixedEffect.getOwnerUniqueId(), ChangeType.FIXED, String.valueOf(fixedEffect.getId()));
+        });
     }
 
     /**
      * Updates a fixed effect's particle values
      *
      * @param fixedEffect The fixed effect to update
+     * @return A future completed once the change is saved
      */
-    public void updateFixedEffect(FixedParticleEffect fixedEffect) {
-        this.async(() -> this.databaseConnector.connect((connection) -> {
+    public CompletableFuture<Void> updateFixedEffect(FixedParticleEffect fixedEffect) {
+        if (this.logStore != null) {
+            return this.updateLogStoreRecord(Operation.UPDATE_FIXED, fixedEffect.getOwnerUniqueId(), (record) -> record.getFixedEffects().put(fixedEffect.getId(), fixedEffect));
+        }
+
+        return this.write(Operation.UPDATE_FIXED, (connection) -> {
             // Update fixed effect
-            String fixedEffectQuery = "UPDATE " + this.getTablePrefix() + "fixed SET xPos = ?, yPos = ?, zPos = ? WHERE owner_uuid = ? AND id = ?";
+            String fixedEffectQuery = "UPDATE " + this.getTablePrefix() + "fixed SET xPos = ?, yPos = ?, zPos = ? WHERE owner_uuid = ? AND id = ? AND server_id = ?";
             try (PreparedStatement statement = connection.prepareStatement(fixedEffectQuery)) {
                 statement.setDouble(1, fixedEffect.getLocation().getX());
                 statement.setDouble(2, fixedEffect.getLocation().getY());
                 statement.setDouble(3, fixedEffect.getLocation().getZ());
                 statement.setString(4, fixedEffect.getOwnerUniqueId().toString());
                 statement.setInt(5, fixedEffect.getId());
-                statement.executeUpdate();
+                statement.setString(6, this.getServerId());
+                this.databaseStatistics.recordRows(statement.executeUpdate());
             }
 
             // Update particle
             String particleUpdateQuery = "UPDATE " + this.getTablePrefix() + "particle " +
                                          "SET effect = ?, style = ?, item_material = ?, block_material = ?, note = ?, r = ?, g = ?, b = ? " +
-                                         "WHERE uuid = (SELECT particle_uuid FROM " + this.getTablePrefix() + "fixed WHERE owner_uuid = ? AND id = ?)";
+                                         "WHERE uuid = (SELECT particle_uuid FROM " + this.getTablePrefix() + "fixed WHERE owner_uuid = ? AND id = ? AND server_id = ?)";
             try (PreparedStatement statement = connection.prepareStatement(particleUpdateQuery)) {
                 ParticlePair particle = fixedEffect.getParticlePair();
                 statement.setString(1, particle.getEffect().getInternalName());
@@ -498,9 +931,12 @@ public class DataManager extends Manager {
                 statement.setInt(8, particle.getColor().getBlue());
                 statement.setString(9, fixedEffect.getOwnerUniqueId().toString());
                 statement.setInt(10, fixedEffect.getId());
-                statement.executeUpdate();
+                statement.setString(11, this.getServerId());
+                this.databaseStatistics.recordRows(statement.executeUpdate());
             }
-        }));
+
+            this.logChange(connection, fixedEffect.getOwnerUniqueId(), ChangeType.FIXED, String.valueOf(fixedEffect.getId()));
+        });
     }
 
     /**
@@ -509,18 +945,25 @@ public class DataManager extends Manager {
      *
      * @param playerUUID The player who owns the effect
      * @param id The id of the effect to remove
+     * @return A future completed once the change is saved
      */
-    public void removeFixedEffect(UUID playerUUID, int id) {
-        this.async(() -> this.databaseConnector.connect((connection) -> {
+    public CompletableFuture<Void> removeFixedEffect(UUID playerUUID, int id) {
+        if (this.logStore != null) {
+            return this.updateLogStoreRecord(Operation.REMOVE_FIXED, playerUUID, (record) -> record.getFixedEffects().remove(id));
+        }
+
+        return this.write(Operation.REMOVE_FIXED, (connection) -> {
             String particleUUID = null;
 
-            String particleUUIDQuery = "SELECT particle_uuid FROM " + this.getTablePrefix() + "fixed WHERE owner_uuid = ? AND id = ?";
+            String particleUUIDQuery = "SELECT particle_uuid FROM " + this.getTablePrefix() + "fixed WHERE owner_uuid = ? AND id = ? AND server_id = ?";
             try (PreparedStatement statement = connection.prepareStatement(particleUUIDQuery)) {
                 statement.setString(1, playerUUID.toString());
                 statement.setInt(2, id);
+                statement.setString(3, this.getServerId());
 
                 ResultSet result = statement.executeQuery();
                 if (result.next()) {
+                    this.databaseStatistics.recordRow();
                     particleUUID = result.getString("particle_uuid");
                 }
             }
@@ -529,30 +972,713 @@ public class DataManager extends Manager {
             try (PreparedStatement statement = connection.prepareStatement(particleDeleteQuery)) {
                 statement.setString(1, particleUUID);
 
-                statement.executeUpdate();
+                this.databaseStatistics.recordRows(statement.executeUpdate());
             }
 
-            String fixedEffectDeleteQuery = "DELETE FROM " + this.getTablePrefix() + "fixed WHERE owner_uuid = ? AND id = ?";
+            String fixedEffectDeleteQuery = "DELETE FROM " + this.getTablePrefix() + "fixed WHERE owner_uuid = ? AND id = ? AND server_id = ?";
             try (PreparedStatement statement = connection.prepareStatement(fixedEffectDeleteQuery)) {
                 statement.setString(1, playerUUID.toString());
                 statement.setInt(2, id);
+                statement.setString(3, this.getServerId());
 
-                statement.executeUpdate();
+                this.databaseStatistics.recordRows(statement.executeUpdate());
             }
-        }));
+
+            this.logChange(connection, playerUUID, ChangeType.FIXED, String.valueOf(id));
+        });
     }
 
     /**
-     * Asynchronizes the callback with it's own thread unless it is already not on the main thread
+     * Moves all fixed effects saved for one server to another server
+     * Fixed effects whose owner already has a fixed effect with the same id on the target server are left where they are
      *
-     * @param asyncCallback The callback to run on a separate thread
+     * @param fromServerId The server id to move fixed effects from, an empty string for fixed effects not assigned to a server
+     * @param toServerId The server id to move fixed effects to, an empty string to unassign them
+     * @param worldName The world to move fixed effects in, or null for all worlds
+     * @param callback The callback to execute with the number of fixed effects moved and the number left behind, only run once the change is saved
+     * @return A future completed once the change is saved, or completed exceptionally if it couldn't be
      */
-    private void async(Runnable asyncCallback) {
-        Bukkit.getScheduler().runTaskAsynchronously(this.playerParticles, asyncCallback);
-    }
+    public CompletableFuture<Void> rehomeFixedEffects(String fromServerId, String toServerId, String worldName, BiConsumer<Integer, Integer> callback) {
+        if (this.logStore != null) { // Server ids only exist in a shared database
+            callback.accept(0, 0);
+            return CompletableFuture.completedFuture(null);
+        }
 
-    /**
-     * Synchronizes the callback with the main thread
+        int[] counts = new int[2];
+        CompletableFuture<Void> future = this.write(Operation.REHOME_FIXED, (connection) -> {
+            String worldFilter = worldName != null ? " AND world = ?" : "";
+
+            // Remember which fixed effects are being moved so they can be updated on any server that has them loaded
+            List<Change> changes = new ArrayList<>();
+            String selectQuery = "SELECT owner_uuid, id FROM " + this.getTablePrefix() + "fixed WHERE server_id = ?" + worldFilter;
+            try (PreparedStatement statement = connection.prepareStatement(selectQuery)) {
+                statement.setString(1, fromServerId);
+                if (worldName != null)
+                    statement.setString(2, worldName);
+
+                ResultSet result = statement.executeQuery();
+                while (result.next()) {
+                    this.databaseStatistics.recordRow();
+                    changes.add(new Change(UUID.fromString(result.getString("owner_uuid")), ChangeType.FIXED, String.valueOf(result.getInt("id"))));
+                }
+            }
+
+            String ignore = this.databaseConnector instanceof SQLiteConnector ? "OR IGNORE" : "IGNORE";
+            String updateQuery = "UPDATE " + ignore + " " + this.getTablePrefix() + "fixed SET server_id = ? WHERE server_id = ?" + worldFilter;
+            int moved;
+            try (PreparedStatement statement = connection.prepareStatement(updateQuery)) {
+                statement.setString(1, toServerId);
+                statement.setString(2, fromServerId);
+                if (worldName != null)
+                    statement.setString(3, worldName);
+
+                moved = statement.executeUpdate();
+                this.databaseStatistics.recordRows(moved);
+            }
+
+            for (Change change : changes) {
+                this.applyChange(connection, change);
+                this.logChange(connection, change.playerUUID, change.changeType, change.changeKey);
+            }
+
+            counts[0] = moved;
+            counts[1] = changes.size() - moved;
+        });
+
+        // Writes can be run again if a flush has to retry them one at a time, so the callback is only run once they're done
+        future.thenRun(() -> callback.accept(counts[0], counts[1]));
+        return future;
+    }
+
+    /**
+     * Reads a player's record from the log store, changes it, and writes it back
+     *
+     * @param operation The operation the change is for
+     * @param playerUUID The player whose record to change
+     * @param update The change to make to the record
+     * @return A future completed once the change is saved
+     */
+    private CompletableFuture<Void> updateLogStoreRecord(Operation operation, UUID playerUUID, Consumer<PlayerDataRecord> update) {
+        return this.writeLogStore(operation, (store) -> {
+            PlayerDataRecord record = PlayerDataRecord.read(playerUUID, store.read(playerUUID));
+            update.accept(record);
+            store.write(playerUUID, record.getFlags(), record.write());
+            this.databaseStatistics.recordRow();
+        });
+    }
+
+    /**
+     * Queues a write to the database to be run off of the main thread
+     *
+     * @param operation The operation the write performs
+     * @param callback The write to run once a connection is retrieved
+     * @return A future completed once the write is saved, or completed exceptionally if it fails or is dropped
+     */
+    private CompletableFuture<Void> write(Operation operation, ConnectionCallback callback) {
+        return this.queueWrite(new PendingWrite(operation, callback, null, false));
+    }
+
+    /**
+     * Queues a write to the database to be run off of the main thread in its own transaction
+     * When pending writes are flushed the write is run as part of the flush's transaction instead
+     *
+     * @param operation The operation the write performs
+     * @param callback The write to run once a connection is retrieved
+     * @return A future completed once the write is saved, or completed exceptionally if it fails or is dropped
+     */
+    private CompletableFuture<Void> writeTransaction(Operation operation, ConnectionCallback callback) {
+        return this.queueWrite(new PendingWrite(operation, callback, null, true));
+    }
+
+    /**
+     * Queues a write to the log store to be run off of the main thread
+     *
+     * @param operation The operation the write performs
+     * @param callback The write to run with the log store
+     * @return A future completed once the write is saved, or completed exceptionally if it fails or is dropped
+     */
+    private CompletableFuture<Void> writeLogStore(Operation operation, LogStore.StoreCallback callback) {
+        return this.queueWrite(new PendingWrite(operation, null, callback, false));
+    }
+
+    /**
+     * Adds a write to the pending writes and schedules a task to run it
+     * Writes are dropped if data is being flushed for a shutdown or reload
+     *
+     * @param pendingWrite The write to queue
+     * @return A future completed once the write is saved, or completed exceptionally if it fails or is dropped
+     */
+    private CompletableFuture<Void> queueWrite(PendingWrite pendingWrite) {
+        if (!this.acceptingWrites) {
+            this.playerParticles.getLogger().warning("Dropped a " + pendingWrite.operation.getName() + " change because data is being saved for a shutdown or reload.");
+            pendingWrite.complete(false);
+            return pendingWrite.future;
+        }
+
+        this.pendingWrites.add(pendingWrite);
+        this.async(this::runPendingWrite);
+        return pendingWrite.future;
+    }
+
+    /**
+     * Runs the oldest pending write, if it hasn't already been run by a flush
+     * Runs off of the main thread
+     */
+    private void runPendingWrite() {
+        this.runningWrites.incrementAndGet();
+        try {
+            // A flush has started and will take care of anything left in the queue,
+            // or writes are paused and the queue will be picked up again once they are resumed
+            if (!this.acceptingWrites || this.writesPaused)
+                return;
+
+            PendingWrite pendingWrite = this.pendingWrites.poll();
+            if (pendingWrite == null)
+                return;
+
+            // The connectors log and swallow errors, so the write only succeeded if the callback got to the end
+            boolean[] saved = { false };
+            try {
+                if (pendingWrite.storeCallback != null) {
+                    this.connectLogStore(pendingWrite.operation, (store) -> {
+                        pendingWrite.storeCallback.accept(store);
+                        saved[0] = true;
+                    });
+                } else {
+                    this.connect(pendingWrite.operation, (connection) -> {
+                        if (pendingWrite.transaction) {
+                            connection.setAutoCommit(false);
+                            try {
+                                pendingWrite.callback.accept(connection);
+                                connection.commit();
+                            } catch (SQLException | RuntimeException ex) {
+                                connection.rollback();
+                                throw ex;
+                            } finally {
+                                connection.setAutoCommit(true);
+                            }
+                        } else {
+                            pendingWrite.callback.accept(connection);
+                        }
+                        saved[0] = true;
+                    });
+                }
+            } catch (RuntimeException ex) { // Not every connector catches these
+                this.playerParticles.getLogger().severe("Unable to save a " + pendingWrite.operation.getName() + " change: " + ex.getMessage());
+            } finally {
+                pendingWrite.complete(saved[0]);
+            }
+        } finally {
+            this.runningWrites.decrementAndGet();
+        }
+    }
+
+    /**
+     * Holds new writes in the queue instead of running them and waits for the ones already running to finish,
+     * so the saved data doesn't change while it is being copied. Should be called off of the main thread.
+     *
+     * @return true if every running write finished before the flush timeout, otherwise writes are resumed and false is returned
+     */
+    public boolean pauseWrites() {
+        this.writesPaused = true;
+        if (this.waitForRunningWrites(System.currentTimeMillis() + Setting.DATA_FLUSH_TIMEOUT.getLong()))
+            return true;
+
+        this.resumeWrites();
+        return false;
+    }
+
+    /**
+     * Runs the writes that were held while writes were paused, and any new ones as they come in
+     */
+    public void resumeWrites() {
+        this.writesPaused = false;
+        for (int i = this.pendingWrites.size(); i > 0; i--)
+            this.async(this::runPendingWrite);
+    }
+
+    /**
+     * Waits for writes running on other threads to finish
+     *
+     * @param deadline The time to stop waiting
+     * @return true if no writes are running, otherwise false
+     */
+    private boolean waitForRunningWrites(long deadline) {
+        while (this.runningWrites.get() > 0 && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return this.runningWrites.get() == 0;
+    }
+
+    /**
+     * Stops accepting new writes and saves everything still waiting to be written on the current thread.
+     * Writes to the database are grouped into large transactions so this finishes quickly.
+     * Gives up once the configured deadline passes and reports anything that couldn't be saved.
+     */
+    private void flushPendingWrites() {
+        this.acceptingWrites = false;
+        long deadline = System.currentTimeMillis() + Setting.DATA_FLUSH_TIMEOUT.getLong();
+
+        // Let writes that already started on other threads finish, they could be using the same connection
+        this.waitForRunningWrites(deadline);
+
+        List<PendingWrite> pendingWrites = new ArrayList<>();
+        PendingWrite pendingWrite;
+        while ((pendingWrite = this.pendingWrites.poll()) != null)
+            pendingWrites.add(pendingWrite);
+
+        if (this.runningWrites.get() > 0) {
+            this.playerParticles.getLogger().severe(this.runningWrites.get() + " changes were still being saved when the deadline passed.");
+            this.reportDroppedWrites(pendingWrites);
+            return;
+        }
+
+        if (pendingWrites.isEmpty())
+            return;
+
+        int saved;
+        if (this.logStore != null) {
+            saved = this.flushLogStoreWrites(pendingWrites, deadline);
+        } else {
+            saved = this.flushDatabaseWrites(pendingWrites, deadline);
+        }
+
+        this.playerParticles.getLogger().info("Saved " + saved + " pending changes.");
+        this.reportDroppedWrites(pendingWrites.subList(saved, pendingWrites.size()));
+    }
+
+    /**
+     * Runs pending database writes in transactions of up to {@link #FLUSH_BATCH_SIZE} writes
+     * If a transaction fails, its writes are retried one at a time so one bad write doesn't take the rest with it
+     *
+     * @param pendingWrites The writes to run
+     * @param deadline The time to stop starting new transactions
+     * @return The number of writes that were run, failed writes are counted as they won't succeed if tried again
+     */
+    private int flushDatabaseWrites(List<PendingWrite> pendingWrites, long deadline) {
+        int[] flushed = { 0 };
+        boolean[] connected = { false };
+        try {
+            this.databaseConnector.connect((connection) -> {
+                connected[0] = true;
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    while (flushed[0] < pendingWrites.size() && System.currentTimeMillis() < deadline) {
+                        List<PendingWrite> batch = pendingWrites.subList(flushed[0], Math.min(pendingWrites.size(), flushed[0] + FLUSH_BATCH_SIZE));
+                        try {
+                            for (PendingWrite write : batch)
+                                this.databaseStatistics.instrument(write.operation, write.callback).accept(connection);
+                            connection.commit();
+                            for (PendingWrite write : batch)
+                                write.complete(true);
+                        } catch (SQLException | RuntimeException ex) {
+                            connection.rollback();
+                            for (PendingWrite write : batch) {
+                                try {
+                                    this.databaseStatistics.instrument(write.operation, write.callback).accept(connection);
+                                    connection.commit();
+                                    write.complete(true);
+                                } catch (SQLException | RuntimeException writeEx) {
+                                    connection.rollback();
+                                    this.playerParticles.getLogger().severe("Unable to save a " + write.operation.getName() + " change: " + writeEx.getMessage());
+                                    write.complete(false);
+                                }
+                            }
+                        }
+                        flushed[0] += batch.size();
+                    }
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            });
+        } catch (RuntimeException ex) { // Not every connector catches these, anything not flushed is reported as lost
+            this.playerParticles.getLogger().severe("An error occurred saving pending changes: " + ex.getMessage());
+        }
+
+        if (!connected[0])
+            for (PendingWrite write : pendingWrites)
+                this.databaseStatistics.recordFailure(write.operation);
+        return flushed[0];
+    }
+
+    /**
+     * Runs pending log store writes
+     *
+     * @param pendingWrites The writes to run
+     * @param deadline The time to stop running writes
+     * @return The number of writes that were run, failed writes are counted as they won't succeed if tried again
+     */
+    private int flushLogStoreWrites(List<PendingWrite> pendingWrites, long deadline) {
+        int[] flushed = { 0 };
+        this.logStore.connect((store) -> {
+            for (PendingWrite write : pendingWrites) {
+                if (System.currentTimeMillis() >= deadline)
+                    break;
+
+                try {
+                    this.databaseStatistics.instrumentLogStore(write.operation, write.storeCallback).accept(store);
+                    write.complete(true);
+                } catch (Exception ex) {
+                    this.playerParticles.getLogger().severe("Unable to save a " + write.operation.getName() + " change: " + ex.getMessage());
+                    write.complete(false);
+                }
+                flushed[0]++;
+            }
+        });
+        return flushed[0];
+    }
+
+    /**
+     * Logs the writes that couldn't be saved before the deadline
+     *
+     * @param droppedWrites The writes that were not saved
+     */
+    private void reportDroppedWrites(List<PendingWrite> droppedWrites) {
+        if (droppedWrites.isEmpty())
+            return;
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (PendingWrite write : droppedWrites) {
+            counts.merge(write.operation.getName(), 1, Integer::sum);
+            write.complete(false);
+        }
+
+        this.playerParticles.getLogger().severe("Unable to save " + droppedWrites.size() + " changes before the deadline, these have been lost: " + counts
+                + ". Consider raising data-flush-timeout in the config.");
+    }
+
+    /**
+     * Compacts the log store if enough of it is taken up by old copies of player data
+     * Runs on the compaction task, off of the main thread
+     */
+    private void compactLogStore() {
+        LogStore logStore = this.logStore;
+        if (logStore == null)
+            return;
+
+        logStore.connect((store) -> {
+            if (store.getWastedRatio() >= Setting.LOG_STORE_COMPACTION_THRESHOLD.getDouble())
+                store.compact();
+        });
+    }
+
+    /**
+     * Records a change in the change log so other servers sharing the database can pick it up
+     * Does nothing unless syncing changes is enabled
+     *
+     * @param connection The connection the change was made with
+     * @param playerUUID The player whose data changed
+     * @param changeType What part of the player's data changed
+     * @param changeKey The group name or fixed effect id that changed, or null for settings
+     * @throws SQLException Any error that occurs during the SQL execution
+     */
+    private void logChange(Connection connection, UUID playerUUID, ChangeType changeType, String changeKey) throws SQLException {
+        if (this.changeLogTask == null)
+            return;
+
+        String query = "INSERT INTO " + this.getTablePrefix() + "change_log (server_id, player_uuid, change_type, change_key, created) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, this.changeLogServerId);
+            statement.setString(2, playerUUID.toString());
+            statement.setString(3, changeType.name());
+            statement.setString(4, changeKey);
+            statement.setLong(5, System.currentTimeMillis());
+            this.databaseStatistics.recordRows(statement.executeUpdate());
+        }
+    }
+
+    /**
+     * Reads any new entries in the change log written by other servers and applies them to loaded PPlayers
+     * Runs on the change log task, off of the main thread
+     */
+    private void pollChangeLog() {
+        synchronized (this.changeLogGaps) {
+            this.connect(Operation.SYNC_CHANGES, this::readChangeLog);
+        }
+    }
+
+    /**
+     * Reads any new entries in the change log, along with entries that were skipped because they weren't committed yet when they were last looked for
+     *
+     * @param connection The connection to the database
+     * @throws SQLException Any error that occurs during the SQL execution
+     */
+    private void readChangeLog(Connection connection) throws SQLException {
+        if (this.lastChangeId < 0) {
+            String maxQuery = "SELECT MAX(id) FROM " + this.getTablePrefix() + "change_log";
+            try (PreparedStatement statement = connection.prepareStatement(maxQuery)) {
+                ResultSet result = statement.executeQuery();
+                this.lastChangeId = result.next() ? result.getLong(1) : 0;
+            }
+            return;
+        }
+
+        // Multiple changes to the same thing only need to be applied once
+        Map<String, Change> changes = new LinkedHashMap<>();
+        long now = System.currentTimeMillis();
+        this.changeLogGaps.values().removeIf(x -> now - x > CHANGE_LOG_GAP_TIMEOUT);
+
+        StringBuilder gapFilter = new StringBuilder();
+        for (int i = 0; i < this.changeLogGaps.size(); i++)
+            gapFilter.append(i == 0 ? " OR id IN (?" : ", ?");
+        if (!this.changeLogGaps.isEmpty())
+            gapFilter.append(')');
+
+        String query = "SELECT id, server_id, player_uuid, change_type, change_key FROM " + this.getTablePrefix() + "change_log WHERE id > ?" + gapFilter + " ORDER BY id LIMIT 1000";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setLong(1, this.lastChangeId);
+            int index = 2;
+            for (long gap : this.changeLogGaps.keySet())
+                statement.setLong(index++, gap);
+
+            ResultSet result = statement.executeQuery();
+            while (result.next()) {
+                this.databaseStatistics.recordRow();
+                long id = result.getLong("id");
+                if (id > this.lastChangeId) {
+                    // Anything skipped over may still be committed by another server
+                    for (long gap = Math.max(this.lastChangeId + 1, id - MAX_CHANGE_LOG_GAPS); gap < id; gap++)
+                        this.changeLogGaps.put(gap, now);
+                    this.lastChangeId = id;
+                } else {
+                    this.changeLogGaps.remove(id);
+                }
+
+                if (this.changeLogServerId.equals(result.getString("server_id")))
+                    continue;
+
+                Change change = new Change(UUID.fromString(result.getString("player_uuid")), ChangeType.valueOf(result.getString("change_type")), result.getString("change_key"));
+                changes.put(change.playerUUID + ":" + change.changeType + ":" + change.changeKey, change);
+            }
+        }
+
+        // Stop waiting for the oldest gaps if there are too many, they are most likely rolled back writes
+        while (this.changeLogGaps.size() > MAX_CHANGE_LOG_GAPS)
+            this.changeLogGaps.remove(this.changeLogGaps.keySet().iterator().next());
+
+        for (Change change : changes.values())
+            this.applyChange(connection, change);
+
+        // Clean up old entries every so often, every server does this but the query is cheap
+        if (now - this.lastChangeLogPrune > 60000) {
+            this.lastChangeLogPrune = now;
+
+            String pruneQuery = "DELETE FROM " + this.getTablePrefix() + "change_log WHERE created < ?";
+            try (PreparedStatement statement = connection.prepareStatement(pruneQuery)) {
+                statement.setLong(1, now - Setting.MYSQL_SYNC_RETENTION.getLong() * 60000);
+                this.databaseStatistics.recordRows(statement.executeUpdate());
+            }
+        }
+    }
+
+    /**
+     * Reads the current state of whatever a change log entry refers to and updates the loaded PPlayer to match
+     *
+     * @param connection The connection to the database
+     * @param change The change to apply
+     * @throws SQLException Any error that occurs during the SQL execution
+     */
+    private void applyChange(Connection connection, Change change) throws SQLException {
+        UUID playerUUID = change.playerUUID;
+        PPlayer pplayer = this.getPPlayer(playerUUID);
+
+        switch (change.changeType) {
+            case SETTINGS:
+                if (pplayer == null)
+                    return;
+
+                String settingsQuery = "SELECT particles_hidden FROM " + this.getTablePrefix() + "settings WHERE player_uuid = ?";
+                try (PreparedStatement statement = connection.prepareStatement(settingsQuery)) {
+                    statement.setString(1, playerUUID.toString());
+
+                    ResultSet result = statement.executeQuery();
+                    if (result.next()) {
+                        this.databaseStatistics.recordRow();
+                        boolean particlesHidden = result.getBoolean("particles_hidden");
+                        this.sync(() -> pplayer.setParticlesHidden(particlesHidden));
+                    }
+                }
+                break;
+            case GROUP:
+                if (pplayer == null)
+                    return;
+
+                String groupName = change.changeKey;
+                ParticleGroup group = this.readParticleGroup(connection, playerUUID, groupName);
+                this.sync(() -> {
+                    if (group != null) {
+                        pplayer.getParticleGroups().put(group.getName().toLowerCase(), group);
+                    } else if (groupName.equalsIgnoreCase(ParticleGroup.DEFAULT_NAME)) {
+                        pplayer.getActiveParticleGroup().getParticles().clear();
+                    } else {
+                        pplayer.getParticleGroups().remove(groupName.toLowerCase());
+                    }
+                    this.updateStyleIndex(playerUUID);
+                });
+                break;
+            case FIXED:
+                int fixedEffectId = Integer.parseInt(change.changeKey);
+                FixedParticleEffect fixedEffect = this.readFixedEffect(connection, playerUUID, fixedEffectId);
+                this.sync(() -> {
+                    if (pplayer != null) {
+                        if (fixedEffect != null) {
+                            pplayer.addFixedEffect(fixedEffect);
+                        } else {
+                            pplayer.removeFixedEffect(fixedEffectId);
+                        }
+                    }
+
+                    // Loads the PPlayer if they have a new fixed effect, or moves them out of the offline cache
+                    if (pplayer != null || fixedEffect != null)
+                        this.getPPlayer(playerUUID, (loadedPPlayer) -> { });
+                });
+                break;
+        }
+    }
+
+    /**
+     * Reads a single ParticleGroup belonging to a player
+     *
+     * @param connection The connection to the database
+     * @param playerUUID The owner of the group
+     * @param groupName The name of the group
+     * @return The group, or null if it does not exist
+     * @throws SQLException Any error that occurs during the SQL execution
+     */
+    private ParticleGroup readParticleGroup(Connection connection, UUID playerUUID, String groupName) throws SQLException {
+        String query = "SELECT g.name, p.id, p.effect, p.style, p.item_material, p.block_material, p.note, p.r, p.g, p.b FROM " + this.getTablePrefix() + "group g " +
+                       "LEFT JOIN " + this.getTablePrefix() + "particle p ON g.uuid = p.group_uuid " +
+                       "WHERE g.owner_uuid = ? AND g.name = ?";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, playerUUID.toString());
+            statement.setString(2, groupName);
+
+            ParticleGroup group = null;
+            ResultSet result = statement.executeQuery();
+            while (result.next()) {
+                this.databaseStatistics.recordRow();
+                if (group == null)
+                    group = new ParticleGroup(result.getString("name"), new ConcurrentHashMap<>());
+
+                // Groups without any particles still have a row from the join
+                if (result.getString("effect") == null)
+                    continue;
+
+                ParticlePair particle = this.readParticlePair(playerUUID, result.getInt("id"), result);
+                if (particle.getEffect() != null && particle.getStyle() != null)
+                    group.getParticles().put(particle.getId(), particle);
+            }
+
+            return group;
+        }
+    }
+
+    /**
+     * Reads a single FixedParticleEffect belonging to a player
+     *
+     * @param connection The connection to the database
+     * @param playerUUID The owner of the fixed effect
+     * @param id The id of the fixed effect
+     * @return The fixed effect, or null if it does not exist or can't be displayed on this server
+     * @throws SQLException Any error that occurs during the SQL execution
+     */
+    private FixedParticleEffect readFixedEffect(Connection connection, UUID playerUUID, int id) throws SQLException {
+        String query = "SELECT f.world, f.xPos, f.yPos, f.zPos, p.id AS p_id, p.effect, p.style, p.item_material, p.block_material, p.note, p.r, p.g, p.b FROM " + this.getTablePrefix() + "fixed f " +
+                       "JOIN " + this.getTablePrefix() + "particle p ON f.particle_uuid = p.uuid " +
+                       "WHERE f.owner_uuid = ? AND f.id = ? AND f.server_id = ?";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, playerUUID.toString());
+            statement.setInt(2, id);
+            statement.setString(3, this.getServerId());
+
+            ResultSet result = statement.executeQuery();
+            if (!result.next())
+                return null;
+            this.databaseStatistics.recordRow();
+
+            World world = Bukkit.getWorld(result.getString("world"));
+            ParticlePair particle = this.readParticlePair(playerUUID, result.getInt("p_id"), result);
+            if (world == null || particle.getEffect() == null || particle.getStyle() == null)
+                return null;
+
+            return new FixedParticleEffect(playerUUID, id, new Location(world, result.getDouble("xPos"), result.getDouble("yPos"), result.getDouble("zPos")), particle);
+        }
+    }
+
+    /**
+     * Reads the particle columns of the current row into a ParticlePair
+     * The effect and style will be null if they are missing or disabled
+     *
+     * @param ownerUUID The owner of the particle
+     * @param id The id of the particle
+     * @param result The result to read from
+     * @return The ParticlePair from the current row
+     * @throws SQLException Any error that occurs during the SQL execution
+     */
+    private ParticlePair readParticlePair(UUID ownerUUID, int id, ResultSet result) throws SQLException {
+        ParticleEffect effect = ParticleEffect.fromInternalName(result.getString("effect"));
+        ParticleStyle style = ParticleStyle.fromInternalName(result.getString("style"));
+        Material itemMaterial = ParticleUtils.closestMatchWithFallback(true, result.getString("item_material"));
+        Material blockMaterial = ParticleUtils.closestMatchWithFallback(true, result.getString("block_material"));
+        NoteColor noteColor = new NoteColor(result.getInt("note"));
+        OrdinaryColor color = new OrdinaryColor(result.getInt("r"), result.getInt("g"), result.getInt("b"));
+        return new ParticlePair(ownerUUID, id, effect, style, itemMaterial, blockMaterial, color, noteColor);
+    }
+
+    /**
+     * Executes a callback with a connection to the database, recording it in the database statistics
+     *
+     * @param operation The operation the callback performs
+     * @param callback The callback to execute once the connection is retrieved
+     */
+    private void connect(Operation operation, ConnectionCallback callback) {
+        this.databaseStatistics.connect(this.databaseConnector, operation, callback);
+    }
+
+    /**
+     * Executes a callback with the log store, recording it in the database statistics
+     *
+     * @param operation The operation the callback performs
+     * @param callback The callback to execute once the store is free
+     */
+    private void connectLogStore(Operation operation, LogStore.StoreCallback callback) {
+        this.databaseStatistics.connect(this.logStore, operation, callback);
+    }
+
+    /**
+     * Appends the database statistics since the last time this ran to the rolling log file
+     * Runs on the statistics log task, off of the main thread
+     */
+    private void writeStatisticsLog() {
+        try {
+            this.databaseStatistics.writeLog(new File(this.playerParticles.getDataFolder(), "logs" + File.separator + "database.log"));
+        } catch (IOException ex) {
+            this.playerParticles.getLogger().warning("Unable to write the database statistics log: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Asynchronizes the callback with it's own thread unless it is already not on the main thread
+     *
+     * @param asyncCallback The callback to run on a separate thread
+     */
+    private void async(Runnable asyncCallback) {
+        DatabaseStatistics statistics = this.databaseStatistics;
+        long queuedTime = System.nanoTime();
+        Bukkit.getScheduler().runTaskAsynchronously(this.playerParticles, () -> {
+            statistics.recordQueueWait(System.nanoTime() - queuedTime);
+            asyncCallback.run();
+        });
+    }
+
+    /**
+     * Synchronizes the callback with the main thread
      *
      * @param syncCallback The callback to run on the main thread
      */
@@ -561,21 +1687,148 @@ public class DataManager extends Manager {
     }
 
     /**
-     * @return The connector to the database
+     * Creates a new connector to the MySQL database using the mysql-settings in the config
+     *
+     * @return A new connector to the MySQL database
+     */
+    public MySQLConnector createMySQLConnector() {
+        String hostname = Setting.MYSQL_HOSTNAME.getString();
+        int port = Setting.MYSQL_PORT.getInt();
+        String database = Setting.MYSQL_DATABASE_NAME.getString();
+        String username = Setting.MYSQL_USER_NAME.getString();
+        String password = Setting.MYSQL_USER_PASSWORD.getString();
+        boolean useSSL = Setting.MYSQL_USE_SSL.getBoolean();
+
+        return new MySQLConnector(this.playerParticles, hostname, port, database, username, password, useSSL);
+    }
+
+    /**
+     * @return The connector to the database, or null if the log store is being used instead
      */
     public DatabaseConnector getDatabaseConnector() {
         return this.databaseConnector;
     }
 
+    /**
+     * @return The timings and counts for everything done through the database connector since the last reload
+     */
+    public DatabaseStatistics getDatabaseStatistics() {
+        return this.databaseStatistics;
+    }
+
+    /**
+     * @return the id of the server used to separate fixed effects in a shared database, an empty string if not set
+     */
+    public String getServerId() {
+        if (this.databaseConnector instanceof MySQLConnector) {
+            return Setting.MYSQL_SERVER_ID.getString();
+        } else {
+            return "";
+        }
+    }
+
     /**
      * @return the prefix to be used by all table names
      */
     public String getTablePrefix() {
-        if (this.databaseConnector instanceof MySQLConnector) {
+        return this.getTablePrefix(this.databaseConnector);
+    }
+
+    /**
+     * Gets the prefix to be used by all table names for a database
+     *
+     * @param databaseConnector The connector to the database
+     * @return the prefix to be used by all table names
+     */
+    public String getTablePrefix(DatabaseConnector databaseConnector) {
+        if (databaseConnector instanceof MySQLConnector) {
             return Setting.MYSQL_TABLE_PREFIX.getString();
         } else {
             return this.playerParticles.getDescription().getName().toLowerCase() + '_';
         }
     }
 
+    /**
+     * The parts of a player's data that can be recorded in the change log
+     */
+    private enum ChangeType {
+        SETTINGS,
+        GROUP,
+        FIXED
+    }
+
+    /**
+     * An entry read from the change log
+     */
+    private static class Change {
+
+        private final UUID playerUUID;
+        private final ChangeType changeType;
+        private final String changeKey;
+
+        private Change(UUID playerUUID, ChangeType changeType, String changeKey) {
+            this.playerUUID = playerUUID;
+            this.changeType = changeType;
+            this.changeKey = changeKey;
+        }
+
+    }
+
+    /**
+     * A write waiting to be run, either against the database or the log store
+     */
+    private static class PendingWrite {
+
+        private final Operation operation;
+        private final ConnectionCallback callback;
+        private final LogStore.StoreCallback storeCallback;
+        private final boolean transaction;
+        private final CompletableFuture<Void> future;
+
+        private PendingWrite(Operation operation, ConnectionCallback callback, LogStore.StoreCallback storeCallback, boolean transaction) {
+            this.operation = operation;
+            this.callback = callback;
+            this.storeCallback = storeCallback;
+            this.transaction = transaction;
+            this.future = new CompletableFuture<>();
+        }
+
+        /**
+         * Completes the future for this write
+         *
+         * @param saved true if the write was saved, otherwise the future is completed exceptionally
+         */
+        private void complete(boolean saved) {
+            if (saved) {
+                this.future.complete(null);
+            } else {
+                this.future.completeExceptionally(new IllegalStateException("Unable to save a " + this.operation.getName() + " change"));
+            }
+        }
+
+    }
+
+    /**
+     * A PPlayer held outside of the ParticleManager along with when it was cached
+     */
+    private static class CachedPPlayer {
+
+        private final PPlayer pplayer;
+        private final long loadedTime;
+
+        private CachedPPlayer(PPlayer pplayer, long loadedTime) {
+            this.pplayer = pplayer;
+            this.loadedTime = loadedTime;
+        }
+
+        private PPlayer getPPlayer() {
+            return this.pplayer;
+        }
+
+        private boolean isExpired(long now, long ttl) {
+            return now - this.loadedTime > ttl;
+        }
+
+    }
+
 }
@@ -3,31 +3,83 @@ package dev.esophose.playerparticles.manager;
 import dev.esophose.playerparticles.PlayerParticles;
 import dev.esophose.playerparticles.database.DataMigration;
 import dev.esophose.playerparticles.database.DatabaseConnector;
+import dev.esophose.playerparticles.database.MySQLConnector;
 import dev.esophose.playerparticles.database.SQLiteConnector;
 import dev.esophose.playerparticles.database.migrations._1_InitialMigration;
+import dev.esophose.playerparticles.database.migrations._2_CreateChangeLogTable;
+import dev.esophose.playerparticles.database.migrations._3_AddFixedEffectServerId;
+import dev.esophose.playerparticles.particles.PPlayer;
+import dev.esophose.playerparticles.util.StringPlaceholders;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 public class DataMigrationManager extends Manager {
 
+    /**
+     * The tables copied by a data transfer and their primary key columns, in the order they need to be copied
+     */
+    private static final Map<String, String> TRANSFER_TABLES = new LinkedHashMap<String, String>() {{
+        this.put("settings", "player_uuid");
+        this.put("group", "uuid");
+        this.put("particle", "uuid");
+        this.put("fixed", "owner_uuid, server_id, id");
+    }};
+
+    /**
+     * The columns to copy from tables without a primary key, grouped by the key columns above so duplicate rows are only copied once
+     */
+    private static final Map<String, String> GROUPED_TRANSFER_COLUMNS = new HashMap<String, String>() {{
+        this.put("settings", "player_uuid, MAX(particles_hidden) AS particles_hidden");
+    }};
+
     private List<DataMigration> migrations;
+    private final AtomicBoolean transferInProgress;
 
     public DataMigrationManager(PlayerParticles playerParticles) {
         super(playerParticles);
 
         this.migrations = Arrays.asList(
-                new _1_InitialMigration()
+                new _1_InitialMigration(),
+                new _2_CreateChangeLogTable(),
+                new _3_AddFixedEffectServerId()
         );
+        this.transferInProgress = new AtomicBoolean(false);
     }
 
     @Override
     public void reload() {
         DataManager dataManager = this.playerParticles.getManager(DataManager.class);
-        DatabaseConnector databaseConnector = dataManager.getDatabaseConnector();
+        if (dataManager.getDatabaseConnector() == null) // The log store doesn't need migrations
+            return;
+
+        this.migrate(dataManager.getDatabaseConnector(), dataManager.getTablePrefix());
+    }
+
+    @Override
+    public void disable() {
+
+    }
+
+    /**
+     * Runs any migrations a database hasn't had applied yet
+     *
+     * @param databaseConnector The connector to the database
+     * @param tablePrefix The prefix of the tables in the database
+     */
+    private void migrate(DatabaseConnector databaseConnector, String tablePrefix) {
+        String migrationsTableName = tablePrefix + "migrations";
 
         databaseConnector.connect((connection -> {
             int currentMigration = -1;
@@ -41,26 +93,26 @@ public class DataMigrationManager extends Manager {
             }
 
             try (PreparedStatement statement = connection.prepareStatement(query)) {
-                statement.setString(1, this.getMigrationsTableName());
+                statement.setString(1, migrationsTableName);
                 migrationsExist = statement.executeQuery().next();
             }
 
             if (!migrationsExist) {
                 // No migration table exists, create one
-                String createTable = "CREATE TABLE " + this.getMigrationsTableName() + " (migration_version INT NOT NULL)";
+                String createTable = "CREATE TABLE " + migrationsTableName + " (migration_version INT NOT NULL)";
                 try (PreparedStatement statement = connection.prepareStatement(createTable)) {
                     statement.execute();
                 }
 
                 // Insert primary row into migration table
-                String insertRow = "INSERT INTO " + this.getMigrationsTableName() + " VALUES (?)";
+                String insertRow = "INSERT INTO " + migrationsTableName + " VALUES (?)";
                 try (PreparedStatement statement = connection.prepareStatement(insertRow)) {
                     statement.setInt(1, -1);
                     statement.execute();
                 }
             } else {
                 // Grab the current migration version
-                String selectVersion = "SELECT migration_version FROM " + this.getMigrationsTableName();
+                String selectVersion = "SELECT migration_version FROM " + migrationsTableName;
                 try (PreparedStatement statement = connection.prepareStatement(selectVersion)) {
                     ResultSet result = statement.executeQuery();
                     result.next();
@@ -82,7 +134,7 @@ public class DataMigrationManager extends Manager {
 
             // Migrate the data
             for (DataMigration dataMigration : requiredMigrations)
-                dataMigration.migrate(databaseConnector, connection, dataManager.getTablePrefix());
+                dataMigration.migrate(databaseConnector, connection, tablePrefix);
 
             // Set the new current migration to be the highest migrated to
             currentMigration = requiredMigrations
@@ -91,7 +143,7 @@ public class DataMigrationManager extends Manager {
                     .max(Integer::compareTo)
                     .orElse(-1);
 
-            String updateVersion = "UPDATE " + this.getMigrationsTableName() + " SET migration_version = ?";
+            String updateVersion = "UPDATE " + migrationsTableName + " SET migration_version = ?";
             try (PreparedStatement statement = connection.prepareStatement(updateVersion)) {
                 statement.setInt(1, currentMigration);
                 statement.execute();
@@ -99,16 +151,348 @@ public class DataMigrationManager extends Manager {
         }));
     }
 
-    @Override
-    public void disable() {
+    /**
+     * Copies all saved data from the database currently in use to another type of database.
+     * Saving is paused for the duration so the copy is consistent.
+     * Rows are copied in batches ordered by primary key, with each batch committed in its own transaction along with
+     * the last key copied. If the transfer fails or the server stops, running it again resumes after that key.
+     * Should be called off of the main thread.
+     *
+     * @param pplayer The PPlayer to send progress messages to
+     * @param toMySQL true to transfer to MySQL, false to transfer to SQLite
+     * @param batchSize The number of rows to write in each batch
+     */
+    public void transferData(PPlayer pplayer, boolean toMySQL, int batchSize) {
+        LocaleManager localeManager = this.playerParticles.getManager(LocaleManager.class);
+        DataManager dataManager = this.playerParticles.getManager(DataManager.class);
+        DatabaseConnector source = dataManager.getDatabaseConnector();
+        String storageName = toMySQL ? "MySQL" : "SQLite";
+
+        if (source == null) {
+            localeManager.sendMessage(pplayer, "transfer-failed", StringPlaceholders.single("error", "Transfers from the log store are not supported"));
+            return;
+        }
+
+        if ((source instanceof MySQLConnector) == toMySQL) {
+            localeManager.sendMessage(pplayer, "transfer-same-storage", StringPlaceholders.single("storage", storageName));
+            return;
+        }
+
+        if (!this.transferInProgress.compareAndSet(false, true)) {
+            localeManager.sendMessage(pplayer, "transfer-in-progress");
+            return;
+        }
+
+        DatabaseConnector target = toMySQL ? dataManager.createMySQLConnector() : new SQLiteConnector(this.playerParticles);
+        boolean writesPaused = false;
+        try {
+            if (!target.isInitialized()) {
+                localeManager.sendMessage(pplayer, "transfer-failed", StringPlaceholders.single("error", "Unable to connect to " + storageName));
+                return;
+            }
+
+            // Saves replace rows with new keys, so nothing can be saved while the data is being copied or the copy would be a mix of old and new rows
+            if (!dataManager.pauseWrites()) {
+                localeManager.sendMessage(pplayer, "transfer-failed", StringPlaceholders.single("error", "Pending changes did not finish saving in time"));
+                return;
+            }
+            writesPaused = true;
+
+            String sourcePrefix = dataManager.getTablePrefix();
+            String targetPrefix = dataManager.getTablePrefix(target);
+            String checkpointTableName = targetPrefix + "transfer";
+
+            // SQLite keeps fixed effect ids unique per player rather than per server, so effects from a shared database may not fit
+            if (!toMySQL) {
+                boolean[] conflicts = new boolean[1];
+                this.connectOrThrow(source, (connection) -> {
+                    try (Statement statement = connection.createStatement()) {
+                        conflicts[0] = statement.executeQuery("SELECT 1 FROM " + sourcePrefix + "fixed GROUP BY owner_uuid, id HAVING COUNT(*) > 1 LIMIT 1").next();
+                    }
+                });
+
+                if (conflicts[0]) {
+                    localeManager.sendMessage(pplayer, "transfer-fixed-conflict");
+                    return;
+                }
+            }
+
+            // Make sure the tables exist and match the current structure
+            this.migrate(target, targetPrefix);
+
+            Map<String, TransferCheckpoint> checkpoints = new HashMap<>();
+            boolean[] targetNotEmpty = new boolean[1];
+            this.connectOrThrow(target, (connection) -> {
+                String createCheckpoints = "CREATE TABLE IF NOT EXISTS " + checkpointTableName + " (table_name VARCHAR(100) NOT NULL, rows_copied BIGINT NOT NULL, " +
+                        "last_key_1 VARCHAR(100), last_key_2 VARCHAR(100), last_key_3 VARCHAR(100), PRIMARY KEY(table_name))";
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(createCheckpoints);
+                }
+
+                try (Statement statement = connection.createStatement()) {
+                    ResultSet result = statement.executeQuery("SELECT table_name, rows_copied, last_key_1, last_key_2, last_key_3 FROM " + checkpointTableName);
+                    while (result.next()) {
+                        Object[] lastKey = null;
+                        if (result.getString("last_key_1") != null) {
+                            int keyColumns = TRANSFER_TABLES.getOrDefault(result.getString("table_name"), "").split(", ").length;
+                            lastKey = new Object[keyColumns];
+                            for (int i = 0; i < keyColumns; i++)
+                                lastKey[i] = result.getString("last_key_" + (i + 1));
+                        }
+                        checkpoints.put(result.getString("table_name"), new TransferCheckpoint(result.getLong("rows_copied"), lastKey));
+                    }
+                }
+
+                if (!checkpoints.isEmpty())
+                    return;
+
+                // Don't mix the transferred data in with data that is already there
+                for (String table : TRANSFER_TABLES.keySet()) {
+                    try (Statement statement = connection.createStatement()) {
+                        if (statement.executeQuery("SELECT 1 FROM " + targetPrefix + table + " LIMIT 1").next()) {
+                            targetNotEmpty[0] = true;
+                            return;
+                        }
+                    }
+                }
+
+                String insertCheckpoint = "INSERT INTO " + checkpointTableName + " (table_name, rows_copied) VALUES (?, 0)";
+                connection.setAutoCommit(false);
+                try (PreparedStatement statement = connection.prepareStatement(insertCheckpoint)) {
+                    for (String table : TRANSFER_TABLES.keySet()) {
+                        statement.setString(1, table);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    connection.commit();
+                } catch (SQLException ex) {
+                    connection.rollback();
+                    throw ex;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            });
+
+            if (targetNotEmpty[0]) {
+                localeManager.sendMessage(pplayer, "transfer-not-empty", StringPlaceholders.single("storage", storageName));
+                return;
+            }
+
+            localeManager.sendMessage(pplayer, checkpoints.isEmpty() ? "transfer-started" : "transfer-resuming", StringPlaceholders.single("storage", storageName));
+
+            long transferred = 0;
+            for (Map.Entry<String, String> table : TRANSFER_TABLES.entrySet())
+                transferred += this.transferTable(pplayer, source, sourcePrefix, target, targetPrefix, checkpointTableName,
+                        table.getKey(), table.getValue().split(", "), checkpoints.getOrDefault(table.getKey(), new TransferCheckpoint(0, null)), batchSize);
+
+            this.connectOrThrow(target, (connection) -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DROP TABLE " + checkpointTableName);
+                }
+            });
+
+            localeManager.sendMessage(pplayer, "transfer-success", StringPlaceholders.builder("amount", transferred).addPlaceholder("storage", storageName).build());
+        } catch (SQLException ex) {
+            localeManager.sendMessage(pplayer, "transfer-failed", StringPlaceholders.single("error", ex.getMessage()));
+            this.playerParticles.getLogger().severe("An error occurred transferring data to " + storageName + ": " + ex.getMessage());
+        } finally {
+            if (writesPaused)
+                dataManager.resumeWrites();
+            target.closeConnection();
+            this.transferInProgress.set(false);
+        }
+    }
+
+    /**
+     * Copies the rows of a single table from one database to another in batches ordered by the table's primary key.
+     * Each batch is read and written with its own connection, so other queries can use the databases between batches.
+     *
+     * @param pplayer The PPlayer to send progress messages to
+     * @param source The connector to the database being read from
+     * @param sourcePrefix The prefix of the tables being read from
+     * @param target The connector to the database being written to
+     * @param targetPrefix The prefix of the tables being written to
+     * @param checkpointTableName The name of the table holding the transfer progress
+     * @param table The name of the table without a prefix
+     * @param keyColumns The primary key columns of the table
+     * @param checkpoint Where the last transfer of this table stopped
+     * @param batchSize The number of rows to copy in each batch
+     * @return The number of rows copied by this call
+     * @throws SQLException Any error that occurs during the SQL execution
+     */
+    private long transferTable(PPlayer pplayer, DatabaseConnector source, String sourcePrefix, DatabaseConnector target, String targetPrefix,
+                               String checkpointTableName, String table, String[] keyColumns, TransferCheckpoint checkpoint, int batchSize) throws SQLException {
+        LocaleManager localeManager = this.playerParticles.getManager(LocaleManager.class);
+
+        String orderBy = String.join(", ", keyColumns);
+        String groupedColumns = GROUPED_TRANSFER_COLUMNS.get(table);
+
+        long[] total = new long[1];
+        this.connectOrThrow(source, (connection) -> {
+            try (Statement statement = connection.createStatement()) {
+                ResultSet result = statement.executeQuery("SELECT COUNT(" + (groupedColumns != null ? "DISTINCT " + orderBy : "*") + ") FROM " + sourcePrefix + table);
+                total[0] = result.next() ? result.getLong(1) : 0;
+            }
+        });
+
+        String select = "SELECT " + (groupedColumns != null ? groupedColumns : "*") + " FROM " + sourcePrefix + table;
+        String order = (groupedColumns != null ? " GROUP BY " + orderBy : "") + " ORDER BY " + orderBy + " LIMIT " + batchSize;
+        String selectFirstQuery = select + order;
+        String selectNextQuery = select + " WHERE " + keyAfter(keyColumns, 0) + order;
+
+        StringBuilder checkpointQuery = new StringBuilder("UPDATE " + checkpointTableName + " SET rows_copied = ?");
+        for (int i = 1; i <= keyColumns.length; i++)
+            checkpointQuery.append(", last_key_").append(i).append(" = ?");
+        checkpointQuery.append(" WHERE table_name = ?");
+
+        Object[] lastKey = checkpoint.lastKey;
+        long rowsCopied = checkpoint.rowsCopied;
+        long copied = 0;
+        long lastProgressReport = System.currentTimeMillis();
+        while (true) {
+            Object[] startKey = lastKey;
+            List<String> columns = new ArrayList<>();
+            List<Object[]> rows = new ArrayList<>(batchSize);
+            this.connectOrThrow(source, (connection) -> {
+                try (PreparedStatement statement = connection.prepareStatement(startKey == null ? selectFirstQuery : selectNextQuery)) {
+                    if (startKey != null) {
+                        int index = 1;
+                        for (int i = 0; i < startKey.length; i++) {
+                            statement.setObject(index++, startKey[i]);
+                            if (i < startKey.length - 1)
+                                statement.setObject(index++, startKey[i]);
+                        }
+                    }
+
+                    ResultSet result = statement.executeQuery();
+                    ResultSetMetaData metaData = result.getMetaData();
+                    for (int i = 1; i <= metaData.getColumnCount(); i++)
+                        columns.add(metaData.getColumnLabel(i));
+
+                    while (result.next()) {
+                        Object[] row = new Object[columns.size()];
+                        for (int i = 0; i < row.length; i++)
+                            row[i] = result.getObject(i + 1);
+                        rows.add(row);
+                    }
+                }
+            });
+
+            if (rows.isEmpty())
+                break;
+
+            Object[] lastRow = rows.get(rows.size() - 1);
+            lastKey = new Object[keyColumns.length];
+            for (int i = 0; i < keyColumns.length; i++)
+                lastKey[i] = lastRow[indexOfColumn(columns, keyColumns[i])];
 
+            rowsCopied += rows.size();
+            copied += rows.size();
+
+            String insertQuery = "INSERT INTO " + targetPrefix + table + " (" + String.join(", ", columns) + ") VALUES (" +
+                    columns.stream().map(x -> "?").collect(Collectors.joining(", ")) + ")";
+            Object[] endKey = lastKey;
+            long checkpointRows = rowsCopied;
+            this.connectOrThrow(target, (connection) -> {
+                connection.setAutoCommit(false);
+                try (PreparedStatement insertStatement = connection.prepareStatement(insertQuery);
+                     PreparedStatement checkpointStatement = connection.prepareStatement(checkpointQuery.toString())) {
+                    for (Object[] row : rows) {
+                        for (int i = 0; i < row.length; i++)
+                            insertStatement.setObject(i + 1, row[i]);
+                        insertStatement.addBatch();
+                    }
+                    insertStatement.executeBatch();
+
+                    checkpointStatement.setLong(1, checkpointRows);
+                    for (int i = 0; i < endKey.length; i++)
+                        checkpointStatement.setString(i + 2, String.valueOf(endKey[i]));
+                    checkpointStatement.setString(endKey.length + 2, table);
+                    checkpointStatement.executeUpdate();
+
+                    connection.commit();
+                } catch (SQLException ex) {
+                    connection.rollback();
+                    throw ex;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            });
+
+            long now = System.currentTimeMillis();
+            if (now - lastProgressReport > 5000) {
+                lastProgressReport = now;
+                localeManager.sendMessage(pplayer, "transfer-progress", StringPlaceholders.builder("amount", rowsCopied).addPlaceholder("total", total[0]).addPlaceholder("table", table).build());
+            }
+
+            if (rows.size() < batchSize)
+                break;
+        }
+
+        localeManager.sendMessage(pplayer, "transfer-progress", StringPlaceholders.builder("amount", rowsCopied).addPlaceholder("total", total[0]).addPlaceholder("table", table).build());
+        return copied;
     }
 
     /**
-     * @return the name of the migrations table
+     * Builds a condition matching the rows that come after a key when ordered by its columns,
+     * for example (a > ? OR (a = ? AND b > ?)) for the columns a and b.
+     * Every column but the last takes two parameters.
+     *
+     * @param keyColumns The columns of the key
+     * @param index The first column to include
+     * @return The condition
      */
-    private String getMigrationsTableName() {
-        return this.playerParticles.getManager(DataManager.class).getTablePrefix() + "migrations";
+    private static String keyAfter(String[] keyColumns, int index) {
+        if (index == keyColumns.length - 1)
+            return keyColumns[index] + " > ?";
+        return "(" + keyColumns[index] + " > ? OR (" + keyColumns[index] + " = ? AND " + keyAfter(keyColumns, index + 1) + "))";
+    }
+
+    private static int indexOfColumn(List<String> columns, String column) throws SQLException {
+        for (int i = 0; i < columns.size(); i++)
+            if (columns.get(i).equalsIgnoreCase(column))
+                return i;
+        throw new SQLException("Missing key column " + column);
+    }
+
+    /**
+     * Runs a callback with a connection from a connector, passing on any error instead of only logging it
+     *
+     * @param connector The connector to get the connection from
+     * @param callback The callback to run
+     * @throws SQLException If the callback failed or a connection couldn't be made
+     */
+    private void connectOrThrow(DatabaseConnector connector, DatabaseConnector.ConnectionCallback callback) throws SQLException {
+        SQLException[] error = new SQLException[1];
+        boolean[] ran = new boolean[1];
+        connector.connect((connection) -> {
+            ran[0] = true;
+            try {
+                callback.accept(connection);
+            } catch (SQLException ex) {
+                error[0] = ex;
+            }
+        });
+
+        if (error[0] != null)
+            throw error[0];
+        if (!ran[0])
+            throw new SQLException("Unable to get a database connection");
+    }
+
+    /**
+     * Where a transfer of a table stopped
+     */
+    private static class TransferCheckpoint {
+
+        private final long rowsCopied;
+        private final Object[] lastKey;
+
+        private TransferCheckpoint(long rowsCopied, Object[] lastKey) {
+            this.rowsCopied = rowsCopied;
+            this.lastKey = lastKey;
+        }
+
     }
 
 }
@@ -13,9 +13,11 @@ import dev.esophose.playerparticles.locale.VietnameseLocale;
 import dev.esophose.playerparticles.manager.ConfigurationManager.Setting;
 import dev.esophose.playerparticles.particles.PPlayer;
 import dev.esophose.playerparticles.util.HexUtils;
+import dev.esophose.playerparticles.util.MessageTemplate;
 import dev.esophose.playerparticles.util.StringPlaceholders;
 import java.io.File;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
 import net.md_5.bungee.api.ChatColor;
 import org.bukkit.command.CommandSender;
@@ -23,10 +25,15 @@ import org.bukkit.entity.Player;
 
 public class LocaleManager extends Manager {
 
-    private CommentedFileConfiguration locale;
+    /**
+     * The messages of the selected locale, compiled when the locale is loaded
+     */
+    private volatile Map<String, MessageTemplate> messages;
 
     public LocaleManager(PlayerParticles playerParticles) {
         super(playerParticles);
+
+        this.messages = new HashMap<>();
     }
 
     /**
@@ -98,7 +105,32 @@ public class LocaleManager extends Manager {
             this.playerParticles.getLogger().severe("File " + targetLocaleFile.getName() + " does not exist. Defaulting to en_US.lang");
         }
 
-        this.locale = CommentedFileConfiguration.loadConfiguration(this.playerParticles, targetLocaleFile);
+        Map<String, MessageTemplate> messages = new HashMap<>();
+        this.compileMessages(CommentedFileConfiguration.loadConfiguration(this.playerParticles, targetLocaleFile), messages);
+
+        // Messages that haven't been translated yet are shown in English
+        File englishLocaleFile = new File(this.playerParticles.getDataFolder() + "/locale", "en_US.lang");
+        if (!englishLocaleFile.equals(targetLocaleFile))
+            this.compileMessages(CommentedFileConfiguration.loadConfiguration(this.playerParticles, englishLocaleFile), messages);
+
+        this.messages = messages;
+    }
+
+    /**
+     * Compiles the messages in a locale file, skipping any that have already been compiled
+     *
+     * @param locale The locale file
+     * @param messages The compiled messages to add to
+     */
+    private void compileMessages(CommentedFileConfiguration locale, Map<String, MessageTemplate> messages) {
+        for (String key : locale.getKeys(true)) {
+            if (messages.containsKey(key) || locale.isConfigurationSection(key))
+                continue;
+
+            String message = locale.getString(key);
+            if (message != null)
+                messages.put(key, MessageTemplate.compile(message));
+        }
     }
 
     @Override
@@ -111,10 +143,10 @@ public class LocaleManager extends Manager {
     }
 
     public String getLocaleMessage(String messageKey, StringPlaceholders stringPlaceholders) {
-        String message = this.locale.getString(messageKey);
+        MessageTemplate message = this.messages.get(messageKey);
         if (message == null)
             return ChatColor.RED + "Missing message in locale file: " + messageKey;
-        return HexUtils.colorify(stringPlaceholders.apply(message));
+        return message.render(stringPlaceholders);
     }
 
     /**
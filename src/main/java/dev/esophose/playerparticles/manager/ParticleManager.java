@@ -7,11 +7,21 @@ import dev.esophose.playerparticles.particles.ConsolePPlayer;
 import dev.esophose.playerparticles.particles.FixedParticleEffect;
 import dev.esophose.playerparticles.particles.PParticle;
 import dev.esophose.playerparticles.particles.PPlayer;
+import dev.esophose.playerparticles.particles.PPlayerRegistry;
+import dev.esophose.playerparticles.particles.ParticleAnimation;
+import dev.esophose.playerparticles.particles.ParticleAnimationScheduler;
 import dev.esophose.playerparticles.particles.ParticleEffect;
 import dev.esophose.playerparticles.particles.ParticlePair;
+import dev.esophose.playerparticles.particles.TransientParticleEffect;
+import dev.esophose.playerparticles.particles.VisibilitySnapshot;
+import dev.esophose.playerparticles.particles.VisibilityTracker;
 import dev.esophose.playerparticles.particles.data.NoteColor;
 import dev.esophose.playerparticles.particles.data.OrdinaryColor;
+import dev.esophose.playerparticles.styles.BufferedParticleStyle;
 import dev.esophose.playerparticles.styles.DefaultStyles;
+import dev.esophose.playerparticles.styles.ParticleRenderContext;
+import dev.esophose.playerparticles.styles.ParticleSink;
+import dev.esophose.playerparticles.styles.ParticleStyle;
 import dev.esophose.playerparticles.util.NMSUtil;
 import java.awt.Color;
 import java.util.Collection;
@@ -20,6 +30,7 @@ import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
@@ -28,16 +39,40 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.scheduler.BukkitTask;
 
 public class ParticleManager extends Manager implements Listener, Runnable {
 
     /**
-     * The map containing all the loaded PPlayer info
+     * The number of particle ticks to keep load history for
      */
-    private final Map<UUID, PPlayer> particlePlayers;
+    public static final int LOAD_HISTORY_SIZE = 100;
+
+    /**
+     * The number of ticks between visibility refreshes
+     */
+    private static final long VISIBILITY_REFRESH_TICKS = 10;
+
+    /**
+     * All the loaded PPlayer info, indexed by UUID, world and style
+     */
+    private final PPlayerRegistry particlePlayers;
+
+    /**
+     * The in-memory effects added through the API, these are never saved
+     */
+    private final Map<Integer, TransientParticleEffect> transientEffects;
+    private final AtomicInteger nextTransientEffectId;
+
+    /**
+     * The multi-tick animations in progress, such as celebration fireworks
+     */
+    private final ParticleAnimationScheduler animationScheduler;
 
     /**
      * The task that spawns the particles
@@ -49,6 +84,13 @@ public class ParticleManager extends Manager implements Listener, Runnable {
      */
     private BukkitTask worldGuardTask;
 
+    /**
+     * Which players can't see which particle owners, and the tracker and task that keep it up to date
+     */
+    private volatile VisibilitySnapshot visibility;
+    private final VisibilityTracker visibilityTracker;
+    private BukkitTask visibilityTask;
+
     /**
      * Rainbow particle effect hue and note color used for rainbow colorable effects
      */
@@ -56,10 +98,33 @@ public class ParticleManager extends Manager implements Listener, Runnable {
     private int note;
     private final Random random;
 
+    /**
+     * The number of ticks the particle task has been running for and the level of detail styles should render at
+     */
+    private volatile long tick;
+    private volatile int levelOfDetail;
+
+    /**
+     * The number of particles displayed and the time taken for recent particle ticks, used by /pp debug load
+     */
+    private final int[] particleHistory;
+    private final long[] runTimeHistory;
+    private int historyIndex;
+    private int historyCount;
+    private final AtomicInteger eventParticles;
+
     public ParticleManager(PlayerParticles playerParticles) {
         super(playerParticles);
 
-        this.particlePlayers = new ConcurrentHashMap<>();
+        this.particlePlayers = new PPlayerRegistry();
+        this.transientEffects = new ConcurrentHashMap<>();
+        this.nextTransientEffectId = new AtomicInteger(1);
+        this.animationScheduler = new ParticleAnimationScheduler(playerParticles.getLogger());
+        this.particleHistory = new int[LOAD_HISTORY_SIZE];
+        this.runTimeHistory = new long[LOAD_HISTORY_SIZE];
+        this.eventParticles = new AtomicInteger();
+        this.visibility = VisibilitySnapshot.EMPTY;
+        this.visibilityTracker = new VisibilityTracker();
         this.particleTask = null;
         this.hue = 0;
         this.note = 0;
@@ -77,10 +142,15 @@ public class ParticleManager extends Manager implements Listener, Runnable {
             this.worldGuardTask.cancel();
             this.worldGuardTask = null;
         }
+        WorldGuardHook.clearCache();
+
+        if (this.visibilityTask != null)
+            this.visibilityTask.cancel();
 
         Bukkit.getScheduler().runTaskLater(this.playerParticles, () -> {
             long ticks = Setting.TICKS_PER_PARTICLE.getLong();
             this.particleTask = Bukkit.getScheduler().runTaskTimerAsynchronously(this.playerParticles, this, 0, ticks);
+            this.visibilityTask = Bukkit.getScheduler().runTaskTimer(this.playerParticles, this::refreshVisibility, 0, VISIBILITY_REFRESH_TICKS);
 
             if (WorldGuardHook.enabled()) {
                 long worldGuardTicks = Setting.WORLDGUARD_CHECK_INTERVAL.getLong();
@@ -100,6 +170,36 @@ public class ParticleManager extends Manager implements Listener, Runnable {
     public void disable() {
         if (this.particleTask != null)
             this.particleTask.cancel();
+
+        if (this.visibilityTask != null)
+            this.visibilityTask.cancel();
+
+        this.visibilityTracker.clear();
+        this.visibility = VisibilitySnapshot.EMPTY;
+        this.transientEffects.clear();
+        this.animationScheduler.clear();
+    }
+
+    /**
+     * Loads the player's data while they are still logging in, this event is already off of the main thread
+     *
+     * @param e The event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent e) {
+        if (e.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED)
+            this.playerParticles.getManager(DataManager.class).prefetchPPlayer(e.getUniqueId());
+    }
+
+    /**
+     * Discards the player's prefetched data if the server denies their login
+     *
+     * @param e The event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent e) {
+        if (e.getResult() != PlayerLoginEvent.Result.ALLOWED)
+            this.playerParticles.getManager(DataManager.class).evictPrefetchedPPlayer(e.getPlayer().getUniqueId());
     }
 
     /**
@@ -109,7 +209,26 @@ public class ParticleManager extends Manager implements Listener, Runnable {
      */
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerJoin(PlayerJoinEvent e) {
-        this.playerParticles.getManager(DataManager.class).getPPlayer(e.getPlayer().getUniqueId(), (pplayer) -> { }); // Loads the PPlayer from the database
+        DataManager dataManager = this.playerParticles.getManager(DataManager.class);
+        UUID playerUUID = e.getPlayer().getUniqueId();
+
+        PPlayer prefetched = dataManager.claimPrefetchedPPlayer(playerUUID);
+        PPlayer loaded = this.particlePlayers.get(playerUUID);
+        if (loaded != null) {
+            // Still loaded from having fixed effects while they were offline
+            this.particlePlayers.updateWorld(loaded, e.getPlayer().getWorld());
+        } else if (prefetched != null) {
+            this.addPPlayer(prefetched);
+        } else {
+            dataManager.getPPlayer(playerUUID, (pplayer) -> { }); // Loads the PPlayer from the database
+        }
+
+        // Vanish plugins usually hide the player during this event, so wait until it's over
+        Player player = e.getPlayer();
+        Bukkit.getScheduler().runTask(this.playerParticles, () -> {
+            if (player.isOnline())
+                this.visibility = this.visibilityTracker.addPlayer(player);
+        });
     }
 
     /**
@@ -119,12 +238,52 @@ public class ParticleManager extends Manager implements Listener, Runnable {
      */
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerQuit(PlayerQuitEvent e) {
-        PPlayer pplayer = this.playerParticles.getManager(DataManager.class).getPPlayer(e.getPlayer().getUniqueId());
+        this.removeTransientEffects(e.getPlayer().getUniqueId());
+
+        PPlayer pplayer = this.particlePlayers.get(e.getPlayer().getUniqueId());
         if (pplayer != null) {
             pplayer.clearCachedPlayer();
-            if (pplayer.getFixedEffectIds().isEmpty())
-                this.particlePlayers.remove(pplayer.getUniqueId()); // Unload the PPlayer if they don't have any fixed effects
+            if (pplayer.getFixedEffectIds().isEmpty()) {
+                // Unload the PPlayer if they don't have any fixed effects, keeping them around in case they are needed while offline
+                this.particlePlayers.remove(pplayer.getUniqueId());
+                this.playerParticles.getManager(DataManager.class).cacheOfflinePPlayer(pplayer);
+            } else {
+                this.particlePlayers.updateWorld(pplayer, null);
+            }
         }
+
+        this.visibility = this.visibilityTracker.removePlayer(e.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Keeps the world index up to date when a player changes worlds
+     *
+     * @param e The event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent e) {
+        PPlayer pplayer = this.particlePlayers.get(e.getPlayer().getUniqueId());
+        if (pplayer != null)
+            this.particlePlayers.updateWorld(pplayer, e.getPlayer().getWorld());
+    }
+
+    /**
+     * Rechecks vanished players and some of the players hidden from each other, publishing a new snapshot if anything changed
+     * Bukkit has no event for {@link Player#hidePlayer}, so this runs every few ticks to pick those changes up
+     */
+    private void refreshVisibility() {
+        this.visibility = this.visibilityTracker.refresh();
+    }
+
+    /**
+     * Checks if a player can see the particles of another player, using the latest visibility snapshot
+     *
+     * @param viewer The player viewing the particles
+     * @param owner The player that owns the particles
+     * @return true if the viewer can see the owner's particles, otherwise false
+     */
+    public boolean canSeeOwner(Player viewer, Player owner) {
+        return this.visibility.canSee(viewer, owner);
     }
 
     /**
@@ -133,7 +292,58 @@ public class ParticleManager extends Manager implements Listener, Runnable {
      * @return The loaded PPlayers
      */
     public Collection<PPlayer> getPPlayers() {
-        return this.particlePlayers.values();
+        return this.particlePlayers.getAll();
+    }
+
+    /**
+     * Gets the loaded PPlayers whose player is online in a world
+     *
+     * @param world The world
+     * @return The PPlayers in the world
+     */
+    public Collection<PPlayer> getPPlayersInWorld(World world) {
+        return this.particlePlayers.getInWorld(world);
+    }
+
+    /**
+     * Gets the loaded PPlayers that have at least one active particle using a style
+     *
+     * @param style The style
+     * @return The PPlayers using the style
+     */
+    public Collection<PPlayer> getPPlayersWithStyle(ParticleStyle style) {
+        return this.particlePlayers.getWithStyle(style);
+    }
+
+    /**
+     * Gets the active particles of a loaded PPlayer that use a style, without going through all of their particles
+     * Used by event styles to skip events for players that aren't using them
+     *
+     * @param playerUUID The UUID of the PPlayer
+     * @param style The style
+     * @return The active particles using the style, or an empty list if there are none or the PPlayer is not loaded
+     */
+    public List<ParticlePair> getActiveParticlesForStyle(UUID playerUUID, ParticleStyle style) {
+        return this.particlePlayers.getParticlesForStyle(playerUUID, style);
+    }
+
+    /**
+     * Updates the style index for a PPlayer after their active particles have changed
+     *
+     * @param pplayer The PPlayer
+     */
+    public void updatePPlayerStyles(PPlayer pplayer) {
+        this.particlePlayers.updateStyles(pplayer);
+    }
+
+    /**
+     * Gets a loaded PPlayer
+     *
+     * @param playerUUID The UUID of the PPlayer
+     * @return The loaded PPlayer, or null if they are not loaded
+     */
+    public PPlayer getPPlayer(UUID playerUUID) {
+        return this.particlePlayers.get(playerUUID);
     }
 
     /**
@@ -142,7 +352,87 @@ public class ParticleManager extends Manager implements Listener, Runnable {
      * @param pplayer The PPlayer to add
      */
     public void addPPlayer(PPlayer pplayer) {
-        this.particlePlayers.put(pplayer.getUniqueId(), pplayer);
+        this.particlePlayers.add(pplayer);
+    }
+
+    /**
+     * Adds a transient effect that follows a player until it expires or they log off
+     *
+     * @param playerUUID The UUID of the player the effect follows
+     * @param particle The particle to display
+     * @param lifetimeTicks The number of ticks the effect lasts for, or a value less than 1 to last until removed
+     * @return The TransientParticleEffect that was added
+     */
+    public TransientParticleEffect addTransientEffect(UUID playerUUID, ParticlePair particle, long lifetimeTicks) {
+        TransientParticleEffect effect = new TransientParticleEffect(this.nextTransientEffectId.getAndIncrement(), playerUUID, particle, lifetimeTicks);
+        this.transientEffects.put(effect.getId(), effect);
+        return effect;
+    }
+
+    /**
+     * Adds a transient effect that is displayed at a location until it expires
+     *
+     * @param location The location to display the effect at
+     * @param particle The particle to display
+     * @param lifetimeTicks The number of ticks the effect lasts for, or a value less than 1 to last until removed
+     * @return The TransientParticleEffect that was added
+     */
+    public TransientParticleEffect addTransientEffect(Location location, ParticlePair particle, long lifetimeTicks) {
+        TransientParticleEffect effect = new TransientParticleEffect(this.nextTransientEffectId.getAndIncrement(), location, particle, lifetimeTicks);
+        if (Bukkit.isPrimaryThread()) // Otherwise it is checked with the other region statuses
+            effect.setInAllowedRegion(WorldGuardHook.isInAllowedRegion(location));
+        this.transientEffects.put(effect.getId(), effect);
+        return effect;
+    }
+
+    /**
+     * Removes a transient effect before it expires
+     *
+     * @param id The ID of the transient effect
+     * @return The TransientParticleEffect that was removed, or null if it doesn't exist
+     */
+    public TransientParticleEffect removeTransientEffect(int id) {
+        return this.transientEffects.remove(id);
+    }
+
+    /**
+     * Removes all transient effects that follow a player
+     *
+     * @param playerUUID The UUID of the player
+     * @return The number of transient effects removed
+     */
+    public int removeTransientEffects(UUID playerUUID) {
+        int removed = 0;
+        for (TransientParticleEffect effect : this.transientEffects.values())
+            if (playerUUID.equals(effect.getPlayerUniqueId()) && this.transientEffects.remove(effect.getId()) != null)
+                removed++;
+        return removed;
+    }
+
+    /**
+     * Gets the transient effects that haven't expired yet
+     *
+     * @return The transient effects
+     */
+    public Collection<TransientParticleEffect> getTransientEffects() {
+        return this.transientEffects.values();
+    }
+
+    /**
+     * Schedules an animation to be stepped by the particle task until it finishes
+     *
+     * @param animation The animation to schedule
+     * @param delay The number of ticks to wait before the first step, 0 to start on the next particle tick
+     */
+    public void scheduleAnimation(ParticleAnimation animation, int delay) {
+        this.animationScheduler.schedule(animation, delay);
+    }
+
+    /**
+     * @return The number of multi-tick animations in progress
+     */
+    public int getAnimationCount() {
+        return this.animationScheduler.size();
     }
 
     /**
@@ -150,7 +440,12 @@ public class ParticleManager extends Manager implements Listener, Runnable {
      * Does not display particles if the world is disabled or if the player is in spectator mode
      */
     public void run() {
+        long startTime = System.nanoTime();
+        long ticks = Setting.TICKS_PER_PARTICLE.getLong();
+        this.tick += ticks;
+
         this.playerParticles.getManager(ParticleStyleManager.class).updateTimers();
+        this.animationScheduler.advance(this.tick);
 
         this.hue += Setting.RAINBOW_CYCLE_SPEED.getInt();
         this.hue %= 360;
@@ -161,32 +456,94 @@ public class ParticleManager extends Manager implements Listener, Runnable {
         }
 
         PermissionManager permissionManager = this.playerParticles.getManager(PermissionManager.class);
+        ParticleRenderer renderer = new ParticleRenderer(this.tick, this.levelOfDetail);
 
         // Spawn particles for each player
-        for (PPlayer pplayer : this.particlePlayers.values()) {
+        for (PPlayer pplayer : this.particlePlayers.getAll()) {
             Player player = pplayer.getPlayer();
 
             // Don't show their particles if they are in spectator mode
             // Don't spawn particles if the world doesn't allow it
             if (player != null && (NMSUtil.getVersionNumber() < 8 || player.getGameMode() != GameMode.SPECTATOR) && permissionManager.isWorldEnabled(player.getWorld().getName()))
                 for (ParticlePair particles : pplayer.getActiveParticles())
-                    this.displayParticles(pplayer, particles, player.getLocation().clone().add(0, 1, 0));
+                    this.displayParticles(pplayer, particles, player.getLocation().clone().add(0, 1, 0), renderer);
             
             // Loop for FixedParticleEffects
-            // Don't spawn particles if the world doesn't allow it
+            // Don't spawn particles if the world or region doesn't allow it
             for (FixedParticleEffect effect : pplayer.getFixedParticles())
-                if (effect.getLocation().getWorld() != null && permissionManager.isWorldEnabled(effect.getLocation().getWorld().getName()))
-                    this.displayFixedParticleEffect(effect);
+                if (effect.isInAllowedRegion() && effect.getLocation().getWorld() != null && permissionManager.isWorldEnabled(effect.getLocation().getWorld().getName()))
+                    this.displayFixedParticleEffect(effect, renderer);
+        }
+
+        // Loop for TransientParticleEffects, removing them once they expire
+        for (TransientParticleEffect effect : this.transientEffects.values()) {
+            this.displayTransientParticleEffect(effect, permissionManager, renderer);
+            if (effect.tick(ticks))
+                this.transientEffects.remove(effect.getId());
+        }
+
+        // Ask styles for less detail if this run took up a large part of the time until the next one
+        long budget = ticks * 50_000_000L;
+        long elapsed = System.nanoTime() - startTime;
+        if (elapsed > budget) {
+            this.levelOfDetail = 2;
+        } else if (elapsed > budget / 2) {
+            this.levelOfDetail = 1;
+        } else {
+            this.levelOfDetail = 0;
+        }
+
+        synchronized (this.particleHistory) {
+            this.particleHistory[this.historyIndex] = renderer.displayed + this.eventParticles.getAndSet(0);
+            this.runTimeHistory[this.historyIndex] = elapsed;
+            this.historyIndex = (this.historyIndex + 1) % LOAD_HISTORY_SIZE;
+            this.historyCount = Math.min(this.historyCount + 1, LOAD_HISTORY_SIZE);
+        }
+    }
+
+    /**
+     * Gets the number of particles displayed during each of the most recent particle ticks, oldest first
+     * Includes particles displayed by event styles since the previous particle tick
+     *
+     * @return The particle counts
+     */
+    public int[] getParticleHistory() {
+        synchronized (this.particleHistory) {
+            int[] history = new int[this.historyCount];
+            for (int i = 0; i < this.historyCount; i++)
+                history[i] = this.particleHistory[Math.floorMod(this.historyIndex - this.historyCount + i, LOAD_HISTORY_SIZE)];
+            return history;
         }
     }
 
+    /**
+     * Gets how long each of the most recent particle ticks took to run in nanoseconds, oldest first
+     *
+     * @return The run times
+     */
+    public long[] getRunTimeHistory() {
+        synchronized (this.particleHistory) {
+            long[] history = new long[this.historyCount];
+            for (int i = 0; i < this.historyCount; i++)
+                history[i] = this.runTimeHistory[Math.floorMod(this.historyIndex - this.historyCount + i, LOAD_HISTORY_SIZE)];
+            return history;
+        }
+    }
+
+    /**
+     * @return The number of ticks the particle task has been running for, counting up by ticks-per-particle each run
+     */
+    public long getCurrentTick() {
+        return this.tick;
+    }
+
     /**
      * Updates the WorldGuard region statuses for players
      */
     private void updateWorldGuardStatuses() {
         PermissionManager permissionManager = this.playerParticles.getManager(PermissionManager.class);
 
-        for (PPlayer pplayer : this.particlePlayers.values()) {
+        for (PPlayer pplayer : this.particlePlayers.getAll()) {
             Player player = pplayer.getPlayer();
             if (player == null)
                 continue;
@@ -197,6 +554,15 @@ public class ParticleManager extends Manager implements Listener, Runnable {
 
             pplayer.setInAllowedRegion(inAllowedRegion);
         }
+
+        // Fixed effects never move, so after the first check these are answered by the cache
+        for (PPlayer pplayer : this.particlePlayers.getAll())
+            for (FixedParticleEffect fixedEffect : pplayer.getFixedParticles())
+                fixedEffect.setInAllowedRegion(WorldGuardHook.isInAllowedRegion(fixedEffect.getLocation()));
+
+        for (TransientParticleEffect transientEffect : this.transientEffects.values())
+            if (transientEffect.getLocation() != null)
+                transientEffect.setInAllowedRegion(WorldGuardHook.isInAllowedRegion(transientEffect.getLocation()));
     }
 
     /**
@@ -205,8 +571,9 @@ public class ParticleManager extends Manager implements Listener, Runnable {
      * @param pplayer The PPlayer to spawn the particles for
      * @param particle The ParticlePair to use for getting particle settings
      * @param location The location to display at
+     * @param renderer The renderer for this particle tick
      */
-    private void displayParticles(PPlayer pplayer, ParticlePair particle, Location location) {
+    private void displayParticles(PPlayer pplayer, ParticlePair particle, Location location, ParticleRenderer renderer) {
         if (!this.playerParticles.getManager(ParticleStyleManager.class).isEventHandled(particle.getStyle())) {
             if (Setting.TOGGLE_ON_COMBAT.getBoolean() && particle.getStyle().canToggleWithCombat() && pplayer.isInCombat())
                 return;
@@ -218,16 +585,13 @@ public class ParticleManager extends Manager implements Listener, Runnable {
                 switch (Setting.TOGGLE_ON_MOVE.getString().toUpperCase()) {
                     case "DISPLAY_FEET":
                     case "TRUE": // Old default value, keep here for legacy config compatibility
-                        for (PParticle pparticle : DefaultStyles.FEET.getParticles(particle, location))
-                            ParticleEffect.display(particle, pparticle, particle.getStyle().hasLongRangeVisibility(), pplayer.getPlayer());
+                        renderer.render(DefaultStyles.FEET, particle, location, particle.getStyle().hasLongRangeVisibility(), pplayer.getPlayer());
                         return;
                     case "DISPLAY_NORMAL":
-                        for (PParticle pparticle : DefaultStyles.NORMAL.getParticles(particle, location))
-                            ParticleEffect.display(particle, pparticle, particle.getStyle().hasLongRangeVisibility(), pplayer.getPlayer());
+                        renderer.render(DefaultStyles.NORMAL, particle, location, particle.getStyle().hasLongRangeVisibility(), pplayer.getPlayer());
                         return;
                     case "DISPLAY_OVERHEAD":
-                        for (PParticle pparticle : DefaultStyles.OVERHEAD.getParticles(particle, location))
-                            ParticleEffect.display(particle, pparticle, particle.getStyle().hasLongRangeVisibility(), pplayer.getPlayer());
+                        renderer.render(DefaultStyles.OVERHEAD, particle, location, particle.getStyle().hasLongRangeVisibility(), pplayer.getPlayer());
                         return;
                     case "NONE":
                     case "FALSE": // Old default value, keep here for legacy config compatibility
@@ -237,9 +601,8 @@ public class ParticleManager extends Manager implements Listener, Runnable {
                 }
             }
 
-            for (PParticle pparticle : particle.getStyle().getParticles(particle, location))
-                ParticleEffect.display(particle, pparticle, particle.getStyle().hasLongRangeVisibility(), pplayer.getPlayer());
-        }  
+            renderer.render(particle.getStyle(), particle, location, particle.getStyle().hasLongRangeVisibility(), pplayer.getPlayer());
+        }
     }
 
     /**
@@ -266,17 +629,54 @@ public class ParticleManager extends Manager implements Listener, Runnable {
 
         for (PParticle pparticle : particles)
             ParticleEffect.display(particle, pparticle, isLongRange, player);
+        this.eventParticles.addAndGet(particles.size());
     }
 
     /**
      * Displays particles at the given fixed effect location
      * 
      * @param fixedEffect The fixed effect to display
+     * @param renderer The renderer for this particle tick
      */
-    private void displayFixedParticleEffect(FixedParticleEffect fixedEffect) {
+    private void displayFixedParticleEffect(FixedParticleEffect fixedEffect, ParticleRenderer renderer) {
         ParticlePair particle = fixedEffect.getParticlePair();
-        for (PParticle pparticle : particle.getStyle().getParticles(particle, fixedEffect.getLocation().clone().add(0, particle.getStyle().getFixedEffectOffset(), 0)))
-            ParticleEffect.display(particle, pparticle, true, null);
+        renderer.render(particle.getStyle(), particle, fixedEffect.getLocation().add(0, particle.getStyle().getFixedEffectOffset(), 0), true, null);
+    }
+
+    /**
+     * Displays particles for a transient effect, either around the player it follows or at its location
+     * Does not display particles if the world is disabled or if the player is offline or in spectator mode
+     *
+     * @param transientEffect The transient effect to display
+     * @param permissionManager The PermissionManager to check enabled worlds with
+     * @param renderer The renderer for this particle tick
+     */
+    private void displayTransientParticleEffect(TransientParticleEffect transientEffect, PermissionManager permissionManager, ParticleRenderer renderer) {
+        ParticlePair particle = transientEffect.getParticlePair();
+        Player player = null;
+        Location location;
+        if (transientEffect.getPlayerUniqueId() != null) {
+            player = transientEffect.getPlayer();
+            if (player == null || (NMSUtil.getVersionNumber() >= 8 && player.getGameMode() == GameMode.SPECTATOR))
+                return;
+
+            PPlayer pplayer = this.particlePlayers.get(player.getUniqueId());
+            if (pplayer != null && !pplayer.isInAllowedRegion())
+                return;
+
+            location = player.getLocation().clone().add(0, 1, 0);
+        } else {
+            if (!transientEffect.isInAllowedRegion())
+                return;
+
+            location = transientEffect.getLocation().add(0, particle.getStyle().getFixedEffectOffset(), 0);
+        }
+
+        if (location.getWorld() == null || !permissionManager.isWorldEnabled(location.getWorld().getName()))
+            return;
+
+        boolean isLongRange = player == null || particle.getStyle().hasLongRangeVisibility();
+        renderer.render(particle.getStyle(), particle, location, isLongRange, player);
     }
 
     /**
@@ -316,4 +716,54 @@ public class ParticleManager extends Manager implements Listener, Runnable {
     public NoteColor getRandomNoteParticleColor() {
         return new NoteColor(this.random.nextInt(25));
     }
+
+    /**
+     * Renders styles straight to the particle spawner, reusing the same context and location for every particle in a particle tick
+     */
+    private static class ParticleRenderer implements ParticleSink {
+
+        private final ParticleRenderContext context;
+        private final long tick;
+        private final int levelOfDetail;
+        private final Location location;
+        private ParticlePair particle;
+        private boolean isLongRange;
+        private Player owner;
+        private int displayed;
+
+        private ParticleRenderer(long tick, int levelOfDetail) {
+            this.context = new ParticleRenderContext();
+            this.tick = tick;
+            this.levelOfDetail = levelOfDetail;
+            this.location = new Location(null, 0, 0, 0);
+        }
+
+        /**
+         * Renders a style and displays its particles
+         *
+         * @param style The style to render
+         * @param particle The ParticlePair to use for getting particle settings
+         * @param location The location of the emitter
+         * @param isLongRange If the particles can be viewed from long range
+         * @param owner The player that owns the particles
+         */
+        private void render(ParticleStyle style, ParticlePair particle, Location location, boolean isLongRange, Player owner) {
+            this.particle = particle;
+            this.isLongRange = isLongRange;
+            this.owner = owner;
+            this.location.setWorld(location.getWorld());
+            BufferedParticleStyle.render(style, this.context.reset(particle, location, this.tick, this.levelOfDetail), this);
+        }
+
+        @Override
+        public void accept(double x, double y, double z, double xOff, double yOff, double zOff, double speed, boolean directional) {
+            this.location.setX(x);
+            this.location.setY(y);
+            this.location.setZ(z);
+            ParticleEffect.display(this.particle, this.location, xOff, yOff, zOff, speed, directional, this.isLongRange, this.owner);
+            this.displayed++;
+        }
+
+    }
+
 }
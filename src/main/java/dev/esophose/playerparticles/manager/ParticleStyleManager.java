@@ -2,12 +2,17 @@ package dev.esophose.playerparticles.manager;
 
 import dev.esophose.playerparticles.PlayerParticles;
 import dev.esophose.playerparticles.event.ParticleStyleRegistrationEvent;
+import dev.esophose.playerparticles.styles.BufferedParticleStyle;
 import dev.esophose.playerparticles.styles.DefaultStyles;
 import dev.esophose.playerparticles.styles.ParticleStyle;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.bukkit.Bukkit;
 
@@ -19,11 +24,22 @@ public class ParticleStyleManager extends Manager {
     private List<ParticleStyle> styles;
     private List<ParticleStyle> eventStyles;
 
+    /**
+     * Lookups rebuilt on every reload, replaced all at once since the particle task reads them from another thread
+     * Each registered style gets an id from 0 up in the order it was registered
+     */
+    private volatile Map<ParticleStyle, Integer> styleIds;
+    private volatile BitSet eventStyleIds;
+    private volatile Map<String, ParticleStyle> stylesByInternalName;
+
     public ParticleStyleManager(PlayerParticles playerParticles) {
         super(playerParticles);
 
         this.styles = new ArrayList<>();
         this.eventStyles = new ArrayList<>();
+        this.styleIds = new IdentityHashMap<>();
+        this.eventStyleIds = new BitSet();
+        this.stylesByInternalName = new HashMap<>();
 
         DefaultStyles.initStyles();
     }
@@ -51,6 +67,10 @@ public class ParticleStyleManager extends Manager {
                 if (style.getInternalName() == null || style.getInternalName().trim().isEmpty())
                     throw new IllegalArgumentException("Tried to register a style with a null or empty name: '" + style.getInternalName() + "'");
 
+                if (style instanceof BufferedParticleStyle && ((BufferedParticleStyle) style).getRenderVersion() > BufferedParticleStyle.RENDER_VERSION)
+                    throw new IllegalArgumentException("Tried to register a style that needs a newer version of PlayerParticles: '" + style.getInternalName() + "' uses render version "
+                            + ((BufferedParticleStyle) style).getRenderVersion() + ", only up to " + BufferedParticleStyle.RENDER_VERSION + " is supported");
+
                 for (ParticleStyle testAgainst : this.styles) {
                     if (testAgainst.equals(style)) {
                         throw new IllegalArgumentException("Tried to register the same style twice: '" + style.getInternalName() + "'");
@@ -67,6 +87,21 @@ public class ParticleStyleManager extends Manager {
                 ex.printStackTrace();
             }
         }
+
+        Map<ParticleStyle, Integer> styleIds = new IdentityHashMap<>();
+        BitSet eventStyleIds = new BitSet();
+        Map<String, ParticleStyle> stylesByInternalName = new HashMap<>();
+        for (ParticleStyle style : this.styles) {
+            int id = styleIds.size();
+            styleIds.put(style, id);
+            if (this.eventStyles.contains(style))
+                eventStyleIds.set(id);
+            stylesByInternalName.put(style.getInternalName().toLowerCase(), style);
+        }
+
+        this.styleIds = styleIds;
+        this.eventStyleIds = eventStyleIds;
+        this.stylesByInternalName = stylesByInternalName;
     }
 
     @Override
@@ -81,7 +116,33 @@ public class ParticleStyleManager extends Manager {
      * @return If the style is handled in a custom manner
      */
     public boolean isEventHandled(ParticleStyle style) {
-        return this.eventStyles.contains(style);
+        Integer id = this.styleIds.get(style);
+        return id != null && this.eventStyleIds.get(id);
+    }
+
+    /**
+     * Gets the id a style was given when it was registered, ids can change when the plugin is reloaded
+     *
+     * @param style The style
+     * @return The id of the style, or -1 if it is not registered
+     */
+    public int getStyleId(ParticleStyle style) {
+        Integer id = this.styleIds.get(style);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Gets an enabled style by its internal name
+     *
+     * @param internalName The internal name of the style, case insensitive
+     * @return The style, or null if no enabled style has the name
+     */
+    public ParticleStyle getStyleByInternalName(String internalName) {
+        if (internalName == null)
+            return null;
+
+        ParticleStyle style = this.stylesByInternalName.get(internalName.toLowerCase());
+        return style != null && style.isEnabled() ? style : null;
     }
 
     /**
@@ -7,24 +7,60 @@ import dev.esophose.playerparticles.particles.PPlayer;
 import dev.esophose.playerparticles.particles.ParticleEffect;
 import dev.esophose.playerparticles.styles.ParticleStyle;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.ConsoleCommandSender;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.permissions.Permissible;
 import org.bukkit.permissions.Permission;
 import org.bukkit.permissions.PermissionAttachmentInfo;
 import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitTask;
 
-public class PermissionManager extends Manager {
+public class PermissionManager extends Manager implements Listener {
     
     private static final String PERMISSION_PREFIX = "playerparticles.";
 
+    /**
+     * The most permission snapshots to take each tick, so checking everyone's permissions is spread out
+     */
+    private static final int SNAPSHOTS_PER_TICK = 10;
+
+    /**
+     * The effect, style and limit permissions of online players, keyed by player UUID
+     * Snapshots are only taken on the main thread, but can be read from any thread
+     */
+    private final Map<UUID, PermissionSnapshot> permissionSnapshots;
+
+    /**
+     * Counts up on every reload, snapshots taken before the last reload are not used since style ids can change
+     */
+    private volatile int generation;
+
+    /**
+     * The players waiting for a new snapshot and the task that takes them, only used on the main thread
+     */
+    private final Set<UUID> refreshQueue;
+    private BukkitTask refreshTask;
+    private long refreshInterval;
+    private long ticksUntilRefresh;
+
     private enum PPermission {
         EFFECT("effect"),
         STYLE("style"),
@@ -34,8 +70,11 @@ public class PermissionManager extends Manager {
         FIXED_UNLIMITED("fixed.unlimited"),
         FIXED_CLEAR("fixed.clear"),
         FIXED_TELEPORT("fixed.teleport"),
+        FIXED_REHOME("fixed.rehome"),
 
         RELOAD("reload"),
+        TRANSFER("transfer"),
+        DEBUG("debug"),
         OVERRIDE("override"),
         RESET_OTHERS("reset.others"),
 
@@ -87,6 +126,10 @@ public class PermissionManager extends Manager {
     public PermissionManager(PlayerParticles playerParticles) {
         super(playerParticles);
 
+        this.permissionSnapshots = new ConcurrentHashMap<>();
+        this.refreshQueue = new LinkedHashSet<>();
+        Bukkit.getPluginManager().registerEvents(this, this.playerParticles);
+
         // Register plugin permissions to Bukkit
         PluginManager pluginManager = Bukkit.getPluginManager();
 
@@ -128,9 +171,12 @@ public class PermissionManager extends Manager {
         pluginManager.addPermission(new Permission("playerparticles.fixed.unlimited"));
         pluginManager.addPermission(new Permission("playerparticles.fixed.clear"));
         pluginManager.addPermission(new Permission("playerparticles.fixed.teleport"));
+        pluginManager.addPermission(new Permission("playerparticles.fixed.rehome"));
 
         // Misc
         pluginManager.addPermission(new Permission("playerparticles.reload"));
+        pluginManager.addPermission(new Permission("playerparticles.transfer"));
+        pluginManager.addPermission(new Permission("playerparticles.debug"));
         pluginManager.addPermission(new Permission("playerparticles.override"));
         pluginManager.addPermission(new Permission("playerparticles.reset.others"));
         pluginManager.addPermission(new Permission("playerparticles.gui"));
@@ -156,12 +202,108 @@ public class PermissionManager extends Manager {
 
     @Override
     public void reload() {
+        if (this.refreshTask != null) {
+            this.refreshTask.cancel();
+            this.refreshTask = null;
+        }
+
+        this.generation++;
+        this.permissionSnapshots.clear();
+        this.refreshQueue.clear();
 
+        this.refreshInterval = Setting.PERMISSION_REFRESH_INTERVAL.getLong() * 20;
+        this.ticksUntilRefresh = this.refreshInterval;
+        if (this.refreshInterval > 0)
+            this.refreshTask = Bukkit.getScheduler().runTaskTimer(this.playerParticles, this::takeQueuedSnapshots, 1, 1);
     }
 
     @Override
     public void disable() {
+        if (this.refreshTask != null)
+            this.refreshTask.cancel();
+
+        this.permissionSnapshots.clear();
+        this.refreshQueue.clear();
+    }
+
+    /**
+     * Checks the permissions of a player as soon as they join
+     *
+     * @param e The event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent e) {
+        this.refreshPermissions(e.getPlayer());
+    }
+
+    /**
+     * Forgets the permissions of a player when they leave
+     *
+     * @param e The event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent e) {
+        this.permissionSnapshots.remove(e.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Checks the permissions of a player again when they change worlds, permission plugins can give different permissions per world
+     *
+     * @param e The event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent e) {
+        this.refreshPermissions(e.getPlayer());
+    }
+
+    /**
+     * Checks the effect, style and limit permissions of all online players again over the next few ticks
+     */
+    public void refreshPermissions() {
+        if (!Bukkit.isPrimaryThread()) {
+            Bukkit.getScheduler().runTask(this.playerParticles, () -> this.refreshPermissions());
+            return;
+        }
+
+        for (Player player : Bukkit.getOnlinePlayers())
+            this.refreshQueue.add(player.getUniqueId());
+    }
 
+    /**
+     * Checks the effect, style and limit permissions of a player again over the next few ticks
+     * Permission plugins can call this from any thread when a player's permissions change to apply them right away
+     *
+     * @param player The player to check the permissions of
+     */
+    public void refreshPermissions(Player player) {
+        // The old snapshot is dropped right away, permissions are checked live until the new one is taken
+        this.permissionSnapshots.remove(player.getUniqueId());
+
+        if (Bukkit.isPrimaryThread()) {
+            this.refreshQueue.add(player.getUniqueId());
+        } else {
+            Bukkit.getScheduler().runTask(this.playerParticles, () -> this.refreshQueue.add(player.getUniqueId()));
+        }
+    }
+
+    /**
+     * Takes snapshots for some of the players waiting for one, and queues every online player once the refresh interval is up
+     * Runs on the main thread every tick
+     */
+    private void takeQueuedSnapshots() {
+        if (--this.ticksUntilRefresh <= 0) {
+            this.ticksUntilRefresh = this.refreshInterval;
+            for (Player player : Bukkit.getOnlinePlayers())
+                this.refreshQueue.add(player.getUniqueId());
+        }
+
+        Iterator<UUID> iterator = this.refreshQueue.iterator();
+        for (int i = 0; i < SNAPSHOTS_PER_TICK && iterator.hasNext(); i++) {
+            Player player = Bukkit.getPlayer(iterator.next());
+            iterator.remove();
+            if (player != null)
+                this.updateSnapshot(player);
+        }
     }
 
     /**
@@ -182,14 +324,15 @@ public class PermissionManager extends Manager {
      * @return If the player has reached the max number of particles in their active group
      */
     public boolean hasPlayerReachedMaxParticles(PPlayer pplayer) {
-        if (PPermission.PARTICLES_UNLIMITED.check(pplayer.getUnderlyingExecutor()))
+        int maxParticles = this.getMaxParticles(pplayer.getUnderlyingExecutor());
+        if (maxParticles == Integer.MAX_VALUE)
             return false;
 
         PPlayer executor = this.getUnderlyingExecutorAsPPlayer(pplayer);
         if (executor != pplayer)
             return false;
 
-        return pplayer.getActiveParticles().size() >= this.getPermissionAmount(pplayer.getUnderlyingExecutor(), PPermission.PARTICLES_MAX, Setting.MAX_PARTICLES.getInt());
+        return pplayer.getActiveParticles().size() >= maxParticles;
     }
     
     /**
@@ -199,14 +342,15 @@ public class PermissionManager extends Manager {
      * @return If the player has reached the max number of saved particle groups
      */
     public boolean hasPlayerReachedMaxGroups(PPlayer pplayer) {
-        if (PPermission.GROUPS_UNLIMITED.check(pplayer.getUnderlyingExecutor()))
+        int maxGroups = this.getMaxGroups(pplayer.getUnderlyingExecutor());
+        if (maxGroups == Integer.MAX_VALUE)
             return false;
 
         PPlayer executor = this.getUnderlyingExecutorAsPPlayer(pplayer);
         if (executor != pplayer)
             return false;
 
-        return executor.getParticleGroups().size() - 1 >= this.getPermissionAmount(pplayer.getUnderlyingExecutor(), PPermission.GROUPS_MAX, Setting.MAX_GROUPS.getInt());
+        return executor.getParticleGroups().size() - 1 >= maxGroups;
     }
     
     /**
@@ -216,10 +360,7 @@ public class PermissionManager extends Manager {
      * @return If the player has permission to save groups
      */
     public boolean canPlayerSaveGroups(PPlayer pplayer) {
-        if (PPermission.GROUPS_UNLIMITED.check(pplayer.getUnderlyingExecutor()))
-            return true;
-
-        return this.getPermissionAmount(pplayer.getUnderlyingExecutor(), PPermission.GROUPS_MAX, Setting.MAX_GROUPS.getInt()) != 0;
+        return this.getMaxGroups(pplayer.getUnderlyingExecutor()) != 0;
     }
     
     /**
@@ -229,14 +370,15 @@ public class PermissionManager extends Manager {
      * @return If the player has reached the max number of fixed effects
      */
     public boolean hasPlayerReachedMaxFixedEffects(PPlayer pplayer) {
-        if (PPermission.FIXED_UNLIMITED.check(pplayer.getUnderlyingExecutor()))
+        int maxFixedEffects = this.getMaxFixedEffects(pplayer.getUnderlyingExecutor());
+        if (maxFixedEffects == Integer.MAX_VALUE)
             return false;
 
         PPlayer executor = this.getUnderlyingExecutorAsPPlayer(pplayer);
         if (executor != pplayer)
             return false;
 
-        return pplayer.getFixedEffectIds().size() >= this.getPermissionAmount(pplayer.getUnderlyingExecutor(), PPermission.FIXED_MAX, Setting.MAX_FIXED_EFFECTS.getInt());
+        return pplayer.getFixedEffectIds().size() >= maxFixedEffects;
     }
 
     /**
@@ -255,14 +397,15 @@ public class PermissionManager extends Manager {
      * @return The maximum number of particles based on the config.yml value, or unlimited
      */
     public int getMaxParticlesAllowed(PPlayer pplayer) {
-        if (PPermission.PARTICLES_UNLIMITED.check(pplayer.getUnderlyingExecutor()))
+        int maxParticles = this.getMaxParticles(pplayer.getUnderlyingExecutor());
+        if (maxParticles == Integer.MAX_VALUE)
             return Integer.MAX_VALUE;
 
         PPlayer executor = this.getUnderlyingExecutorAsPPlayer(pplayer);
         if (executor != pplayer)
             return Integer.MAX_VALUE;
 
-        return this.getPermissionAmount(pplayer.getUnderlyingExecutor(), PPermission.PARTICLES_MAX, Setting.MAX_PARTICLES.getInt());
+        return maxParticles;
     }
 
     /**
@@ -302,6 +445,10 @@ public class PermissionManager extends Manager {
      * @return True if the player has permission to use the effect
      */
     public boolean hasEffectPermission(PPlayer player, ParticleEffect effect) {
+        PermissionSnapshot snapshot = this.getSnapshot(player.getUnderlyingExecutor());
+        if (snapshot != null)
+            return snapshot.effects.get(effect.ordinal());
+
         return PPermission.EFFECT.check(player.getUnderlyingExecutor(), effect.getInternalName());
     }
 
@@ -314,6 +461,13 @@ public class PermissionManager extends Manager {
      * @return If the player has permission to use the style
      */
     public boolean hasStylePermission(PPlayer player, ParticleStyle style) {
+        PermissionSnapshot snapshot = this.getSnapshot(player.getUnderlyingExecutor());
+        if (snapshot != null) {
+            int styleId = this.playerParticles.getManager(ParticleStyleManager.class).getStyleId(style);
+            if (styleId != -1)
+                return snapshot.styles.get(styleId);
+        }
+
         return PPermission.STYLE.check(player.getUnderlyingExecutor(), style.getInternalName());
     }
 
@@ -417,6 +571,16 @@ public class PermissionManager extends Manager {
         return PPermission.FIXED_TELEPORT.check(player.getUnderlyingExecutor());
     }
 
+    /**
+     * Checks if a player has permission to move fixed effects between servers
+     *
+     * @param player The player to check the permission for
+     * @return True if the player has permission to use /pp fixed rehome
+     */
+    public boolean canRehomeFixedEffects(PPlayer player) {
+        return PPermission.FIXED_REHOME.check(player.getUnderlyingExecutor());
+    }
+
     /**
      * Checks if a player has permission to open the GUI
      *
@@ -437,6 +601,26 @@ public class PermissionManager extends Manager {
         return PPermission.RELOAD.check(sender);
     }
 
+    /**
+     * Checks if a player has permission to use /pp transfer
+     *
+     * @param player The player to check the permission for
+     * @return True if the player has permission to transfer data between storage types
+     */
+    public boolean canTransferData(PPlayer player) {
+        return PPermission.TRANSFER.check(player.getUnderlyingExecutor());
+    }
+
+    /**
+     * Checks if a player has permission to use /pp debug
+     *
+     * @param player The player to check the permission for
+     * @return True if the player has permission to view debug information
+     */
+    public boolean canViewDebugInfo(PPlayer player) {
+        return PPermission.DEBUG.check(player.getUnderlyingExecutor());
+    }
+
     /**
      * Checks if a player can use /ppo
      *
@@ -480,6 +664,87 @@ public class PermissionManager extends Manager {
         return pplayer;
     }
 
+    private int getMaxParticles(CommandSender sender) {
+        PermissionSnapshot snapshot = this.getSnapshot(sender);
+        if (snapshot != null)
+            return snapshot.maxParticles;
+        return this.getLimit(sender, PPermission.PARTICLES_UNLIMITED, PPermission.PARTICLES_MAX, Setting.MAX_PARTICLES.getInt());
+    }
+
+    private int getMaxGroups(CommandSender sender) {
+        PermissionSnapshot snapshot = this.getSnapshot(sender);
+        if (snapshot != null)
+            return snapshot.maxGroups;
+        return this.getLimit(sender, PPermission.GROUPS_UNLIMITED, PPermission.GROUPS_MAX, Setting.MAX_GROUPS.getInt());
+    }
+
+    private int getMaxFixedEffects(CommandSender sender) {
+        PermissionSnapshot snapshot = this.getSnapshot(sender);
+        if (snapshot != null)
+            return snapshot.maxFixedEffects;
+        return this.getLimit(sender, PPermission.FIXED_UNLIMITED, PPermission.FIXED_MAX, Setting.MAX_FIXED_EFFECTS.getInt());
+    }
+
+    /**
+     * Gets the permission snapshot of a sender, taking one right away if a player doesn't have one yet and this is the main thread
+     *
+     * @param sender The sender
+     * @return The snapshot, or null if permissions should be checked live
+     */
+    private PermissionSnapshot getSnapshot(CommandSender sender) {
+        if (this.refreshTask == null || !(sender instanceof Player))
+            return null;
+
+        Player player = (Player) sender;
+        PermissionSnapshot snapshot = this.permissionSnapshots.get(player.getUniqueId());
+        if (snapshot != null && snapshot.generation == this.generation)
+            return snapshot;
+
+        // Permissions can only be read safely on the main thread
+        if (!Bukkit.isPrimaryThread())
+            return null;
+
+        return this.updateSnapshot(player);
+    }
+
+    /**
+     * Takes a new permission snapshot of a player, must be called on the main thread
+     *
+     * @param player The player
+     * @return The new snapshot
+     */
+    private PermissionSnapshot updateSnapshot(Player player) {
+        int generation = this.generation;
+
+        BitSet effects = new BitSet();
+        for (ParticleEffect effect : ParticleEffect.values())
+            if (PPermission.EFFECT.check(player, effect.getInternalName()))
+                effects.set(effect.ordinal());
+
+        ParticleStyleManager styleManager = this.playerParticles.getManager(ParticleStyleManager.class);
+        BitSet styles = new BitSet();
+        for (ParticleStyle style : styleManager.getStylesWithDisabled()) {
+            int styleId = styleManager.getStyleId(style);
+            if (styleId != -1 && PPermission.STYLE.check(player, style.getInternalName()))
+                styles.set(styleId);
+        }
+
+        PermissionSnapshot snapshot = new PermissionSnapshot(generation, effects, styles,
+                this.getLimit(player, PPermission.PARTICLES_UNLIMITED, PPermission.PARTICLES_MAX, Setting.MAX_PARTICLES.getInt()),
+                this.getLimit(player, PPermission.GROUPS_UNLIMITED, PPermission.GROUPS_MAX, Setting.MAX_GROUPS.getInt()),
+                this.getLimit(player, PPermission.FIXED_UNLIMITED, PPermission.FIXED_MAX, Setting.MAX_FIXED_EFFECTS.getInt()));
+
+        if (player.isOnline())
+            this.permissionSnapshots.put(player.getUniqueId(), snapshot);
+        return snapshot;
+    }
+
+    private int getLimit(Permissible permissible, PPermission unlimited, PPermission max, int lowerBound) {
+        if (unlimited.check(permissible))
+            return Integer.MAX_VALUE;
+        return this.getPermissionAmount(permissible, max, lowerBound);
+    }
+
     private int getPermissionAmount(Permissible permissible, PPermission permission, int lowerBound) {
         int amount = lowerBound;
         for (PermissionAttachmentInfo info : permissible.getEffectivePermissions()) {
@@ -493,4 +758,28 @@ public class PermissionManager extends Manager {
         return amount;
     }
 
+    /**
+     * The effect, style and limit permissions of a player at the time it was taken
+     * Effects are indexed by ordinal and styles by their id in the {@link ParticleStyleManager}, limits are Integer.MAX_VALUE if unlimited
+     */
+    private static final class PermissionSnapshot {
+
+        private final int generation;
+        private final BitSet effects;
+        private final BitSet styles;
+        private final int maxParticles;
+        private final int maxGroups;
+        private final int maxFixedEffects;
+
+        private PermissionSnapshot(int generation, BitSet effects, BitSet styles, int maxParticles, int maxGroups, int maxFixedEffects) {
+            this.generation = generation;
+            this.effects = effects;
+            this.styles = styles;
+            this.maxParticles = maxParticles;
+            this.maxGroups = maxGroups;
+            this.maxFixedEffects = maxFixedEffects;
+        }
+
+    }
+
 }
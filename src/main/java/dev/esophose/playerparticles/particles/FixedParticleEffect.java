@@ -25,6 +25,11 @@ public class FixedParticleEffect {
      */
     private ParticlePair particlePair;
 
+    /**
+     * If this effect is in a region that allows particles to spawn, updated on the main thread every WorldGuard check interval
+     */
+    private volatile boolean inAllowedRegion;
+
     /**
      * Constructs a new FixedParticleEffect
      * FixedParticleEffects can NOT use event styles
@@ -39,6 +44,7 @@ public class FixedParticleEffect {
         this.id = id;
         this.particlePair = particlePair;
         this.location = location.clone();
+        this.inAllowedRegion = true;
     }
 
     /**
@@ -77,6 +83,22 @@ public class FixedParticleEffect {
         return this.location.clone();
     }
     
+    /**
+     * Sets if this effect is in a region that allows particles to spawn
+     *
+     * @param inAllowedRegion true if the effect is in an allowed region, otherwise false
+     */
+    public void setInAllowedRegion(boolean inAllowedRegion) {
+        this.inAllowedRegion = inAllowedRegion;
+    }
+
+    /**
+     * @return true if this effect is in a region that allows particles to spawn, otherwise false
+     */
+    public boolean isInAllowedRegion() {
+        return this.inAllowedRegion;
+    }
+
     /**
      * Updates the coordinates of the FixedParticleEffect
      * 
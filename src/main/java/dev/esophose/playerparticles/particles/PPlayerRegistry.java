@@ -0,0 +1,226 @@
+package dev.esophose.playerparticles.particles;
+
+import dev.esophose.playerparticles.styles.ParticleStyle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+/**
+ * Holds the loaded PPlayers by UUID, along with indexes of which world each online PPlayer is in
+ * and which of each PPlayer's active particles use each style
+ *
+ * The indexes are updated when a PPlayer is added or removed, when they change worlds, and when their active particles are saved.
+ * Lookups can be done from any thread.
+ */
+public class PPlayerRegistry {
+
+    private final Map<UUID, PPlayer> players;
+    private final Map<UUID, Set<PPlayer>> playersByWorld;
+    private final Map<ParticleStyle, Map<PPlayer, List<ParticlePair>>> particlesByStyle;
+    private final Map<UUID, UUID> worlds;
+    private final Map<UUID, Set<ParticleStyle>> styles;
+
+    public PPlayerRegistry() {
+        this.players = new ConcurrentHashMap<>();
+        this.playersByWorld = new ConcurrentHashMap<>();
+        this.particlesByStyle = new ConcurrentHashMap<>();
+        this.worlds = new ConcurrentHashMap<>();
+        this.styles = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets a loaded PPlayer
+     *
+     * @param playerUUID The UUID of the PPlayer
+     * @return The PPlayer, or null if they are not loaded
+     */
+    public PPlayer get(UUID playerUUID) {
+        return this.players.get(playerUUID);
+    }
+
+    /**
+     * Checks if a PPlayer is loaded
+     *
+     * @param playerUUID The UUID of the PPlayer
+     * @return true if a PPlayer with the given UUID is loaded
+     */
+    public boolean contains(UUID playerUUID) {
+        return this.players.containsKey(playerUUID);
+    }
+
+    /**
+     * @return All loaded PPlayers
+     */
+    public Collection<PPlayer> getAll() {
+        return this.players.values();
+    }
+
+    /**
+     * Gets the PPlayers whose player is online in a world
+     *
+     * @param world The world
+     * @return The PPlayers in the world
+     */
+    public Collection<PPlayer> getInWorld(World world) {
+        Set<PPlayer> inWorld = this.playersByWorld.get(world.getUID());
+        return inWorld == null ? Collections.emptySet() : Collections.unmodifiableSet(inWorld);
+    }
+
+    /**
+     * Gets the PPlayers that have at least one active particle using a style
+     *
+     * @param style The style
+     * @return The PPlayers using the style
+     */
+    public Collection<PPlayer> getWithStyle(ParticleStyle style) {
+        Map<PPlayer, List<ParticlePair>> owners = this.particlesByStyle.get(style);
+        return owners == null ? Collections.emptySet() : Collections.unmodifiableSet(owners.keySet());
+    }
+
+    /**
+     * Gets the active particles of a PPlayer that use a style
+     * Returns right away if nobody is using the style, which is the usual case for event styles
+     *
+     * @param playerUUID The UUID of the PPlayer
+     * @param style The style
+     * @return The PPlayer's active particles using the style, or an empty list if they have none or are not loaded
+     */
+    public List<ParticlePair> getParticlesForStyle(UUID playerUUID, ParticleStyle style) {
+        Map<PPlayer, List<ParticlePair>> owners = this.particlesByStyle.get(style);
+        if (owners == null)
+            return Collections.emptyList();
+
+        PPlayer pplayer = this.players.get(playerUUID);
+        if (pplayer == null)
+            return Collections.emptyList();
+
+        List<ParticlePair> particles = owners.get(pplayer);
+        return particles == null ? Collections.emptyList() : particles;
+    }
+
+    /**
+     * Adds a PPlayer, replacing any PPlayer already loaded with the same UUID
+     *
+     * @param pplayer The PPlayer to add
+     */
+    public synchronized void add(PPlayer pplayer) {
+        PPlayer previous = this.players.put(pplayer.getUniqueId(), pplayer);
+        if (previous != null && previous != pplayer)
+            this.removeFromIndexes(previous);
+
+        Player player = pplayer.getPlayer();
+        this.updateWorld(pplayer, player == null ? null : player.getWorld());
+        this.updateStyles(pplayer);
+    }
+
+    /**
+     * Removes a PPlayer
+     *
+     * @param playerUUID The UUID of the PPlayer to remove
+     * @return The removed PPlayer, or null if they were not loaded
+     */
+    public synchronized PPlayer remove(UUID playerUUID) {
+        PPlayer pplayer = this.players.remove(playerUUID);
+        if (pplayer != null)
+            this.removeFromIndexes(pplayer);
+        return pplayer;
+    }
+
+    /**
+     * Removes all PPlayers
+     */
+    public synchronized void clear() {
+        this.players.clear();
+        this.playersByWorld.clear();
+        this.particlesByStyle.clear();
+        this.worlds.clear();
+        this.styles.clear();
+    }
+
+    /**
+     * Moves a PPlayer to the index for the world their player is in
+     *
+     * @param pplayer The PPlayer
+     * @param world The world their player is in, or null if they are offline
+     */
+    public synchronized void updateWorld(PPlayer pplayer, World world) {
+        if (this.players.get(pplayer.getUniqueId()) != pplayer)
+            return;
+
+        UUID worldUUID = world == null ? null : world.getUID();
+        UUID previous = worldUUID == null ? this.worlds.remove(pplayer.getUniqueId()) : this.worlds.put(pplayer.getUniqueId(), worldUUID);
+        if (previous != null && !previous.equals(worldUUID))
+            removeFromIndex(this.playersByWorld, previous, pplayer);
+        if (worldUUID != null)
+            this.playersByWorld.computeIfAbsent(worldUUID, x -> ConcurrentHashMap.newKeySet()).add(pplayer);
+    }
+
+    /**
+     * Updates the style index for a PPlayer from their active particles
+     *
+     * @param pplayer The PPlayer
+     */
+    public synchronized void updateStyles(PPlayer pplayer) {
+        if (this.players.get(pplayer.getUniqueId()) != pplayer)
+            return;
+
+        Map<ParticleStyle, List<ParticlePair>> current = new HashMap<>();
+        for (ParticlePair particle : pplayer.getActiveParticles())
+            current.computeIfAbsent(particle.getStyle(), x -> new ArrayList<>()).add(particle);
+
+        Set<ParticleStyle> previous = this.styles.put(pplayer.getUniqueId(), new HashSet<>(current.keySet()));
+        if (previous != null)
+            for (ParticleStyle style : previous)
+                if (!current.containsKey(style))
+                    this.removeFromStyleIndex(style, pplayer);
+
+        for (Map.Entry<ParticleStyle, List<ParticlePair>> entry : current.entrySet())
+            this.particlesByStyle.computeIfAbsent(entry.getKey(), x -> new ConcurrentHashMap<>()).put(pplayer, Collections.unmodifiableList(entry.getValue()));
+    }
+
+    /**
+     * Removes a PPlayer from the world and style indexes
+     *
+     * @param pplayer The PPlayer
+     */
+    private void removeFromIndexes(PPlayer pplayer) {
+        UUID world = this.worlds.remove(pplayer.getUniqueId());
+        if (world != null)
+            removeFromIndex(this.playersByWorld, world, pplayer);
+
+        Set<ParticleStyle> previous = this.styles.remove(pplayer.getUniqueId());
+        if (previous != null)
+            for (ParticleStyle style : previous)
+                this.removeFromStyleIndex(style, pplayer);
+    }
+
+    private void removeFromStyleIndex(ParticleStyle style, PPlayer pplayer) {
+        Map<PPlayer, List<ParticlePair>> owners = this.particlesByStyle.get(style);
+        if (owners == null)
+            return;
+
+        owners.remove(pplayer);
+        if (owners.isEmpty())
+            this.particlesByStyle.remove(style);
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<PPlayer>> index, K key, PPlayer pplayer) {
+        Set<PPlayer> values = index.get(key);
+        if (values == null)
+            return;
+
+        values.remove(pplayer);
+        if (values.isEmpty())
+            index.remove(key);
+    }
+
+}
@@ -0,0 +1,19 @@
+package dev.esophose.playerparticles.particles;
+
+/**
+ * An animation that displays particles over several ticks, such as a firework fuse followed by its burst
+ * Scheduled with {@link dev.esophose.playerparticles.manager.ParticleManager#scheduleAnimation(ParticleAnimation, int)}
+ * instead of creating a scheduler task for each one.
+ *
+ * Steps are run on the particle task's thread, one animation at a time.
+ */
+public interface ParticleAnimation {
+
+    /**
+     * Displays the next step of this animation
+     *
+     * @return The number of ticks until the next step, or a value less than 1 once the animation is finished
+     */
+    int step();
+
+}
@@ -0,0 +1,153 @@
+package dev.esophose.playerparticles.particles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the steps of every in-flight {@link ParticleAnimation} from a single timing wheel
+ * Animations are put in the slot for the tick they are next due, so advancing only looks at the animations that are due.
+ * Animations due further away than the size of the wheel wait in their slot until the wheel comes back around.
+ *
+ * {@link #schedule(ParticleAnimation, int)} can be called from any thread, {@link #advance(long)} is only called by the particle task.
+ */
+public class ParticleAnimationScheduler {
+
+    /**
+     * The number of slots in the wheel, must be a power of two
+     */
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final Logger logger;
+    private final List<Entry>[] wheel;
+    private final Queue<Entry> pending;
+    private final List<Entry> rescheduled;
+    private long tick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public ParticleAnimationScheduler(Logger logger) {
+        this.logger = logger;
+        this.wheel = new List[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++)
+            this.wheel[i] = new ArrayList<>();
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.rescheduled = new ArrayList<>();
+        this.tick = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Schedules an animation to start
+     *
+     * @param animation The animation to schedule
+     * @param delay The number of ticks to wait before the first step, 0 to run it on the next advance
+     */
+    public void schedule(ParticleAnimation animation, int delay) {
+        this.pending.add(new Entry(animation, Math.max(0, delay)));
+    }
+
+    /**
+     * Runs every animation step that is due up to and including the given tick
+     *
+     * @param currentTick The tick to advance to
+     */
+    public synchronized void advance(long currentTick) {
+        Entry entry;
+        while ((entry = this.pending.poll()) != null) {
+            // An animation scheduled with no delay runs on the first tick of this advance
+            entry.due = this.tick + Math.max(1, entry.due);
+            this.insert(entry);
+        }
+
+        while (this.tick < currentTick) {
+            this.tick++;
+            if (this.size == 0)
+                continue;
+
+            List<Entry> slot = this.wheel[(int) (this.tick & WHEEL_MASK)];
+            int slotSize = slot.size();
+            int kept = 0;
+            for (int i = 0; i < slotSize; i++) {
+                entry = slot.get(i);
+                if (entry.due > this.tick) {
+                    slot.set(kept++, entry);
+                    continue;
+                }
+
+                int next = this.step(entry.animation);
+                if (next > 0) {
+                    entry.due = this.tick + next;
+                    this.rescheduled.add(entry);
+                } else {
+                    this.size--;
+                }
+            }
+            slot.subList(kept, slotSize).clear();
+
+            // Added afterwards since an animation can be due again in the slot that was just processed
+            for (Entry rescheduledEntry : this.rescheduled)
+                this.wheel[(int) (rescheduledEntry.due & WHEEL_MASK)].add(rescheduledEntry);
+            this.rescheduled.clear();
+        }
+    }
+
+    /**
+     * Removes all animations
+     */
+    public synchronized void clear() {
+        this.pending.clear();
+        for (List<Entry> slot : this.wheel)
+            slot.clear();
+        this.size = 0;
+    }
+
+    /**
+     * @return The number of animations that are in progress, not counting ones scheduled since the last advance
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * Puts an entry into the slot for the tick it is due
+     *
+     * @param entry The entry to insert
+     */
+    private void insert(Entry entry) {
+        this.wheel[(int) (entry.due & WHEEL_MASK)].add(entry);
+        this.size++;
+    }
+
+    /**
+     * Runs a step of an animation, stopping the animation if it throws an exception
+     *
+     * @param animation The animation to step
+     * @return The number of ticks until the next step, or 0 if the animation is finished
+     */
+    private int step(ParticleAnimation animation) {
+        try {
+            return animation.step();
+        } catch (Exception ex) {
+            this.logger.log(Level.WARNING, "A particle animation threw an exception and was stopped", ex);
+            return 0;
+        }
+    }
+
+    private static class Entry {
+
+        private final ParticleAnimation animation;
+        private long due;
+
+        private Entry(ParticleAnimation animation, long due) {
+            this.animation = animation;
+            this.due = due;
+        }
+
+    }
+
+}
@@ -16,7 +16,9 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -101,12 +103,19 @@ public enum ParticleEffect {
     WITCH("SPELL_WITCH", Collections.singletonList("CAULDRON"));
 
     private final static ParticleSpawner particleSpawner;
+    private final static Map<String, ParticleEffect> effectsByInternalName;
+    private static volatile Map<String, ParticleEffect> effectsByName;
     static {
         particleSpawner = NMSUtil.getVersionNumber() >= 9 ? new SpigotParticleSpawner() : new ReflectiveParticleSpawner();
+
+        effectsByInternalName = new HashMap<>();
+        for (ParticleEffect effect : values())
+            effectsByInternalName.put(effect.getInternalName(), effect);
+        updateNameLookup();
     }
 
     private Particle internalEnum;
-    private List<ParticleProperty> properties;
+    private int propertyFlags;
     private boolean supported;
 
     private CommentedFileConfiguration config;
@@ -139,7 +148,8 @@ public enum ParticleEffect {
     ParticleEffect(String enumName, List<String> defaultIconMaterialNames, boolean enabledByDefault, ParticleProperty... properties) {
         this.defaultIconMaterialNames = defaultIconMaterialNames;
         this.enabledByDefault = enabledByDefault;
-        this.properties = Arrays.asList(properties);
+        for (ParticleProperty property : properties)
+            this.propertyFlags |= property.getFlag();
 
         // Will be null if this server's version doesn't support this particle type
         if (NMSUtil.getVersionNumber() > 8) {
@@ -224,6 +234,19 @@ public enum ParticleEffect {
     public static void reloadSettings() {
         for (ParticleEffect effect : values())
             effect.loadSettings(true);
+        updateNameLookup();
+    }
+
+    /**
+     * Rebuilds the lookup used by {@link #fromName(String)}, the names and enabled effects can change when the settings are reloaded
+     * Only enabled effects are added so a disabled effect never hides an enabled one with the same name
+     */
+    private static void updateNameLookup() {
+        Map<String, ParticleEffect> byName = new HashMap<>();
+        for (ParticleEffect effect : values())
+            if (effect.isSupported() && effect.isEnabled())
+                byName.putIfAbsent(effect.getName().toLowerCase(), effect);
+        effectsByName = byName;
     }
 
     /**
@@ -261,7 +284,7 @@ public enum ParticleEffect {
      * @return Whether it has the property or not
      */
     public boolean hasProperty(ParticleProperty property) {
-        return this.properties.contains(property);
+        return (this.propertyFlags & property.getFlag()) != 0;
     }
 
     /**
@@ -300,7 +323,11 @@ public enum ParticleEffect {
      * @return The particle effect
      */
     public static ParticleEffect fromName(String name) {
-        return Stream.of(values()).filter(x -> x.isSupported() && x.isEnabled() && x.getName().equalsIgnoreCase(name)).findFirst().orElse(null);
+        if (name == null)
+            return null;
+
+        ParticleEffect effect = effectsByName.get(name.toLowerCase());
+        return effect != null && effect.isEnabled() ? effect : null;
     }
 
     /**
@@ -310,7 +337,11 @@ public enum ParticleEffect {
      * @return The particle effect
      */
     public static ParticleEffect fromInternalName(String internalName) {
-        return Stream.of(values()).filter(x -> x.isSupported() && x.isEnabled() && x.getInternalName().equalsIgnoreCase(internalName)).findFirst().orElse(null);
+        if (internalName == null)
+            return null;
+
+        ParticleEffect effect = effectsByInternalName.get(internalName.toLowerCase());
+        return effect != null && effect.isSupported() && effect.isEnabled() ? effect : null;
     }
 
     /**
@@ -334,6 +365,36 @@ public enum ParticleEffect {
         }
     }
 
+    /**
+     * Invokes the correct spawn method for the particle information given, without needing a PParticle
+     * The location is reused as-is and may be moved by the offsets for colorable effects
+     *
+     * @param particle The ParticlePair, given the effect/style/data
+     * @param location The location to display the particle at
+     * @param xOff The offset for the x-axis
+     * @param yOff The offset for the y-axis
+     * @param zOff The offset for the z-axis
+     * @param speed The speed the particle will move at
+     * @param directional If the particle should use the x, y, and z offsets as directions instead
+     * @param isLongRange If the particle can be viewed from long range
+     * @param owner The player that owns the particles
+     */
+    public static void display(ParticlePair particle, Location location, double xOff, double yOff, double zOff, double speed, boolean directional, boolean isLongRange, Player owner) {
+        ParticleEffect effect = particle.getEffect();
+
+        if (effect.hasProperty(ParticleProperty.REQUIRES_MATERIAL_DATA)) {
+            effect.display(particle.getSpawnMaterial(), xOff, yOff, zOff, speed, 1, location, isLongRange, owner);
+        } else if (effect.hasProperty(ParticleProperty.COLORABLE)) {
+            // Offsets have to be applied manually for colorable effects, the same as PParticle#getLocation(boolean)
+            location.setX(location.getX() + xOff * 1.75D * (Math.random() > 0.5 ? Math.random() : -Math.random()));
+            location.setY(location.getY() + yOff * 1.75D * (Math.random() > 0.5 ? Math.random() : -Math.random()));
+            location.setZ(location.getZ() + zOff * 1.75D * (Math.random() > 0.5 ? Math.random() : -Math.random()));
+            effect.display(particle.getSpawnColor(), location, isLongRange, owner);
+        } else {
+            effect.display(xOff, yOff, zOff, speed, directional ? 0 : 1, location, isLongRange, owner);
+        }
+    }
+
     /**
      * Displays a particle effect
      *
@@ -401,7 +462,14 @@ public enum ParticleEffect {
         /**
          * The particle effect uses the offsets as color values
          */
-        COLORABLE
+        COLORABLE;
+
+        /**
+         * @return The bit for this property in a ParticleEffect's property flags
+         */
+        private int getFlag() {
+            return 1 << this.ordinal();
+        }
     }
 
 }
@@ -0,0 +1,150 @@
+package dev.esophose.playerparticles.particles;
+
+import java.util.UUID;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+/**
+ * A particle effect that only exists in memory, it is never saved and disappears on its own once its lifetime is up
+ * Either follows a player around or is displayed at a location
+ */
+public class TransientParticleEffect {
+
+    /**
+     * The ID of this effect, unique while the server is running
+     */
+    private final int id;
+
+    /**
+     * The UUID of the player this effect follows, or null if it is displayed at a location
+     */
+    private final UUID playerUUID;
+
+    /**
+     * The location for this effect to be displayed, or null if it follows a player
+     */
+    private final Location location;
+
+    /**
+     * The effect and style this effect uses
+     */
+    private final ParticlePair particlePair;
+
+    /**
+     * The number of ticks left before this effect expires, or -1 if it never expires
+     */
+    private volatile long remainingTicks;
+
+    /**
+     * If this effect's location is in a region that allows particles to spawn, updated on the main thread every WorldGuard check interval
+     * Effects that follow a player use the player's region status instead
+     */
+    private volatile boolean inAllowedRegion;
+
+    /**
+     * Constructs a new TransientParticleEffect that follows a player
+     *
+     * @param id The id this effect has
+     * @param playerUUID The UUID of the player the effect follows
+     * @param particlePair The ParticlePair that represents this effect's appearance
+     * @param lifetimeTicks The number of ticks the effect lasts for, or a value less than 1 to last until removed
+     */
+    public TransientParticleEffect(int id, UUID playerUUID, ParticlePair particlePair, long lifetimeTicks) {
+        this(id, playerUUID, null, particlePair, lifetimeTicks);
+    }
+
+    /**
+     * Constructs a new TransientParticleEffect that is displayed at a location
+     *
+     * @param id The id this effect has
+     * @param location The location to display the effect at
+     * @param particlePair The ParticlePair that represents this effect's appearance
+     * @param lifetimeTicks The number of ticks the effect lasts for, or a value less than 1 to last until removed
+     */
+    public TransientParticleEffect(int id, Location location, ParticlePair particlePair, long lifetimeTicks) {
+        this(id, null, location.clone(), particlePair, lifetimeTicks);
+    }
+
+    private TransientParticleEffect(int id, UUID playerUUID, Location location, ParticlePair particlePair, long lifetimeTicks) {
+        this.id = id;
+        this.playerUUID = playerUUID;
+        this.location = location;
+        this.particlePair = particlePair;
+        this.remainingTicks = lifetimeTicks > 0 ? lifetimeTicks : -1;
+        this.inAllowedRegion = true;
+    }
+
+    /**
+     * @return This effect's id
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * @return The UUID of the player this effect follows, or null if it is displayed at a location
+     */
+    public UUID getPlayerUniqueId() {
+        return this.playerUUID;
+    }
+
+    /**
+     * @return The player this effect follows, or null if they are offline or the effect is displayed at a location
+     */
+    public Player getPlayer() {
+        return this.playerUUID == null ? null : Bukkit.getPlayer(this.playerUUID);
+    }
+
+    /**
+     * @return The location this effect is displayed at, or null if it follows a player
+     */
+    public Location getLocation() {
+        return this.location == null ? null : this.location.clone();
+    }
+
+    /**
+     * @return The ParticlePair that represents this effect's appearance
+     */
+    public ParticlePair getParticlePair() {
+        return this.particlePair;
+    }
+
+    /**
+     * Sets if this effect's location is in a region that allows particles to spawn
+     *
+     * @param inAllowedRegion true if the effect is in an allowed region, otherwise false
+     */
+    public void setInAllowedRegion(boolean inAllowedRegion) {
+        this.inAllowedRegion = inAllowedRegion;
+    }
+
+    /**
+     * @return true if this effect's location is in a region that allows particles to spawn, otherwise false
+     */
+    public boolean isInAllowedRegion() {
+        return this.inAllowedRegion;
+    }
+
+    /**
+     * @return The number of ticks left before this effect expires, or -1 if it never expires
+     */
+    public long getRemainingTicks() {
+        return this.remainingTicks;
+    }
+
+    /**
+     * Counts down this effect's lifetime
+     *
+     * @param ticks The number of ticks that have passed
+     * @return true if the effect has expired
+     */
+    public boolean tick(long ticks) {
+        if (this.remainingTicks == -1)
+            return false;
+
+        this.remainingTicks = Math.max(0, this.remainingTicks - ticks);
+        return this.remainingTicks == 0;
+    }
+
+}
@@ -0,0 +1,69 @@
+package dev.esophose.playerparticles.particles;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.bukkit.entity.Player;
+
+/**
+ * Which players can't see which particle owners, worked out on the main thread by a {@link VisibilityTracker} so the particle
+ * task never has to call {@link Player#canSee(Player)} or read vanish metadata
+ *
+ * Snapshots are never changed once created, a new one replaces the old one whenever visibility changes.
+ */
+public final class VisibilitySnapshot {
+
+    /**
+     * A snapshot where everyone can see everyone
+     */
+    public static final VisibilitySnapshot EMPTY = new VisibilitySnapshot(Collections.emptySet(), Collections.emptyMap());
+
+    private final Set<UUID> vanishedOwners;
+    private final Map<UUID, Set<UUID>> hiddenOwnersByViewer;
+
+    private VisibilitySnapshot(Set<UUID> vanishedOwners, Map<UUID, Set<UUID>> hiddenOwnersByViewer) {
+        this.vanishedOwners = vanishedOwners;
+        this.hiddenOwnersByViewer = hiddenOwnersByViewer;
+    }
+
+    /**
+     * Copies the visibility from a {@link VisibilityTracker} into a snapshot
+     *
+     * @param vanishedOwners The owners nobody can see
+     * @param hiddenOwnersByViewer The owners each viewer can't see
+     * @return The snapshot
+     */
+    static VisibilitySnapshot copyOf(Set<UUID> vanishedOwners, Map<UUID, Set<UUID>> hiddenOwnersByViewer) {
+        if (vanishedOwners.isEmpty() && hiddenOwnersByViewer.isEmpty())
+            return EMPTY;
+
+        Map<UUID, Set<UUID>> hiddenOwnersCopy = new HashMap<>();
+        for (Map.Entry<UUID, Set<UUID>> entry : hiddenOwnersByViewer.entrySet())
+            hiddenOwnersCopy.put(entry.getKey(), new HashSet<>(entry.getValue()));
+
+        return new VisibilitySnapshot(new HashSet<>(vanishedOwners), hiddenOwnersCopy);
+    }
+
+    /**
+     * Checks if a viewer can see an owner's particles
+     *
+     * @param viewer The player viewing the particles
+     * @param owner The player that owns the particles
+     * @return true if the viewer can see the owner, otherwise false
+     */
+    public boolean canSee(Player viewer, Player owner) {
+        if (this == EMPTY)
+            return true;
+
+        UUID ownerUUID = owner.getUniqueId();
+        if (this.vanishedOwners.contains(ownerUUID))
+            return false;
+
+        Set<UUID> hiddenOwners = this.hiddenOwnersByViewer.get(viewer.getUniqueId());
+        return hiddenOwners == null || !hiddenOwners.contains(ownerUUID);
+    }
+
+}
@@ -0,0 +1,216 @@
+package dev.esophose.playerparticles.particles;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.metadata.MetadataValue;
+
+/**
+ * Keeps track of which players can't see which particle owners and publishes it as a {@link VisibilitySnapshot}
+ * whenever it changes. Must only be used on the main thread.
+ *
+ * Joins and quits only check the pairs that involve that player. Bukkit has no event for {@link Player#hidePlayer},
+ * so every other pair is rechecked a few viewers at a time, keeping the work done per refresh the same no matter how many players are online.
+ */
+public final class VisibilityTracker {
+
+    /**
+     * The most {@link Player#canSee(Player)} checks to run per refresh, at least one viewer is always rechecked
+     */
+    private static final int CHECKS_PER_REFRESH = 2000;
+
+    private final Set<UUID> vanishedOwners;
+    private final Map<UUID, Set<UUID>> hiddenOwnersByViewer;
+    private final Deque<UUID> viewersToCheck;
+    private VisibilitySnapshot snapshot;
+    private boolean changed;
+
+    public VisibilityTracker() {
+        this.vanishedOwners = new HashSet<>();
+        this.hiddenOwnersByViewer = new HashMap<>();
+        this.viewersToCheck = new ArrayDeque<>();
+        this.snapshot = VisibilitySnapshot.EMPTY;
+    }
+
+    /**
+     * @return A snapshot of the latest known visibility
+     */
+    public VisibilitySnapshot getSnapshot() {
+        return this.snapshot;
+    }
+
+    /**
+     * Checks who can't see a player that just joined and who they can't see
+     *
+     * @param player The player that joined
+     * @return A snapshot of the latest known visibility
+     */
+    public VisibilitySnapshot addPlayer(Player player) {
+        Collection<? extends Player> players = Bukkit.getOnlinePlayers();
+        this.checkVanished(player);
+        this.checkViewer(player, players);
+        for (Player viewer : players)
+            this.checkPair(viewer, player);
+
+        return this.publish();
+    }
+
+    /**
+     * Forgets about a player that left
+     *
+     * @param playerUUID The UUID of the player that left
+     * @return A snapshot of the latest known visibility
+     */
+    public VisibilitySnapshot removePlayer(UUID playerUUID) {
+        if (this.vanishedOwners.remove(playerUUID))
+            this.changed = true;
+
+        if (this.hiddenOwnersByViewer.remove(playerUUID) != null)
+            this.changed = true;
+
+        Iterator<Set<UUID>> iterator = this.hiddenOwnersByViewer.values().iterator();
+        while (iterator.hasNext()) {
+            Set<UUID> hiddenOwners = iterator.next();
+            if (hiddenOwners.remove(playerUUID)) {
+                this.changed = true;
+                if (hiddenOwners.isEmpty())
+                    iterator.remove();
+            }
+        }
+
+        return this.publish();
+    }
+
+    /**
+     * Checks every player's vanish metadata and rechecks the next few viewers for players hidden from them
+     *
+     * @return A snapshot of the latest known visibility
+     */
+    public VisibilitySnapshot refresh() {
+        Collection<? extends Player> players = Bukkit.getOnlinePlayers();
+        for (Player player : players)
+            this.checkVanished(player);
+
+        if (this.viewersToCheck.isEmpty())
+            for (Player player : players)
+                this.viewersToCheck.add(player.getUniqueId());
+
+        int checks = 0;
+        while (checks < CHECKS_PER_REFRESH && !this.viewersToCheck.isEmpty()) {
+            Player viewer = Bukkit.getPlayer(this.viewersToCheck.poll());
+            if (viewer == null)
+                continue;
+
+            this.checkViewer(viewer, players);
+            checks += players.size();
+        }
+
+        return this.publish();
+    }
+
+    /**
+     * Forgets about everyone
+     */
+    public void clear() {
+        this.vanishedOwners.clear();
+        this.hiddenOwnersByViewer.clear();
+        this.viewersToCheck.clear();
+        this.snapshot = VisibilitySnapshot.EMPTY;
+        this.changed = false;
+    }
+
+    /**
+     * Checks which owners a viewer can't see
+     *
+     * @param viewer The player viewing the particles
+     * @param owners The players that own the particles
+     */
+    private void checkViewer(Player viewer, Collection<? extends Player> owners) {
+        Set<UUID> hiddenOwners = null;
+        for (Player owner : owners) {
+            if (viewer != owner && !viewer.canSee(owner)) {
+                if (hiddenOwners == null)
+                    hiddenOwners = new HashSet<>();
+                hiddenOwners.add(owner.getUniqueId());
+            }
+        }
+
+        UUID viewerUUID = viewer.getUniqueId();
+        if (Objects.equals(hiddenOwners, this.hiddenOwnersByViewer.get(viewerUUID)))
+            return;
+
+        if (hiddenOwners == null) {
+            this.hiddenOwnersByViewer.remove(viewerUUID);
+        } else {
+            this.hiddenOwnersByViewer.put(viewerUUID, hiddenOwners);
+        }
+        this.changed = true;
+    }
+
+    /**
+     * Checks if a viewer can see a single owner
+     *
+     * @param viewer The player viewing the particles
+     * @param owner The player that owns the particles
+     */
+    private void checkPair(Player viewer, Player owner) {
+        if (viewer == owner)
+            return;
+
+        UUID viewerUUID = viewer.getUniqueId();
+        if (!viewer.canSee(owner)) {
+            if (this.hiddenOwnersByViewer.computeIfAbsent(viewerUUID, x -> new HashSet<>()).add(owner.getUniqueId()))
+                this.changed = true;
+            return;
+        }
+
+        Set<UUID> hiddenOwners = this.hiddenOwnersByViewer.get(viewerUUID);
+        if (hiddenOwners != null && hiddenOwners.remove(owner.getUniqueId())) {
+            this.changed = true;
+            if (hiddenOwners.isEmpty())
+                this.hiddenOwnersByViewer.remove(viewerUUID);
+        }
+    }
+
+    /**
+     * Checks the metadata vanish plugins commonly set on vanished players
+     *
+     * @param player The player to check
+     */
+    private void checkVanished(Player player) {
+        boolean vanished = false;
+        for (MetadataValue meta : player.getMetadata("vanished")) {
+            if (meta.asBoolean()) {
+                vanished = true;
+                break;
+            }
+        }
+
+        boolean changed = vanished ? this.vanishedOwners.add(player.getUniqueId()) : this.vanishedOwners.remove(player.getUniqueId());
+        if (changed)
+            this.changed = true;
+    }
+
+    /**
+     * Creates a new snapshot if anything changed since the last one
+     *
+     * @return A snapshot of the latest known visibility
+     */
+    private VisibilitySnapshot publish() {
+        if (this.changed) {
+            this.snapshot = VisibilitySnapshot.copyOf(this.vanishedOwners, this.hiddenOwnersByViewer);
+            this.changed = false;
+        }
+        return this.snapshot;
+    }
+
+}
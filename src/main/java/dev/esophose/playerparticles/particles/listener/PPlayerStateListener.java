@@ -0,0 +1,193 @@
+package dev.esophose.playerparticles.particles.listener;
+
+import dev.esophose.playerparticles.PlayerParticles;
+import dev.esophose.playerparticles.manager.ConfigurationManager.Setting;
+import dev.esophose.playerparticles.manager.ParticleManager;
+import dev.esophose.playerparticles.particles.PPlayer;
+import dev.esophose.playerparticles.util.ParticleUtils;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Projectile;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Keeps track of whether each online player is moving or in combat
+ *
+ * Each player gets a slot when they join, and their state is kept in arrays indexed by that slot.
+ * Moving and being in combat are worked out by comparing the tick they last moved or fought on against the current tick.
+ */
+public class PPlayerStateListener implements Listener {
+
+    private static final int CHECK_INTERVAL = 3;
+    private static final long NEVER = Long.MIN_VALUE / 2;
+
+    private final Map<UUID, Integer> slots;
+    private Player[] players;
+    private long[] blockPositions;
+    private long[] lastMoveTicks;
+    private long[] lastCombatTicks;
+    private int[] freeSlots;
+    private int freeSlotCount;
+    private int slotCount;
+    private long tick;
+    private final Location location;
+
+    public PPlayerStateListener() {
+        this.slots = new HashMap<>();
+        this.players = new Player[16];
+        this.blockPositions = new long[16];
+        this.lastMoveTicks = new long[16];
+        this.lastCombatTicks = new long[16];
+        this.freeSlots = new int[16];
+        this.freeSlotCount = 0;
+        this.slotCount = 0;
+        this.tick = 0;
+        this.location = new Location(null, 0, 0, 0);
+
+        for (Player player : Bukkit.getOnlinePlayers())
+            this.addPlayer(player);
+
+        Bukkit.getScheduler().runTaskTimer(PlayerParticles.getInstance(), this::update, 0, CHECK_INTERVAL);
+    }
+
+    /**
+     * Checks which players have moved and updates the moving and combat state of their PPlayers
+     */
+    private void update() {
+        this.tick += CHECK_INTERVAL;
+
+        ParticleManager particleManager = PlayerParticles.getInstance().getManager(ParticleManager.class);
+        int moveDelay = Setting.TOGGLE_ON_MOVE_DELAY.getInt();
+        boolean combatEnabled = Setting.TOGGLE_ON_COMBAT.getBoolean();
+        long combatDelay = Setting.TOGGLE_ON_COMBAT_DELAY.getLong() * 20;
+
+        for (int slot = 0; slot < this.slotCount; slot++) {
+            Player player = this.players[slot];
+            if (player == null)
+                continue;
+
+            player.getLocation(this.location);
+            long blockPosition = ParticleUtils.packBlockPosition(this.location.getBlockX(), this.location.getBlockY(), this.location.getBlockZ());
+            if (blockPosition != this.blockPositions[slot]) {
+                this.blockPositions[slot] = blockPosition;
+                this.lastMoveTicks[slot] = this.tick;
+            }
+
+            PPlayer pplayer = particleManager.getPPlayer(player.getUniqueId());
+            if (pplayer == null)
+                continue;
+
+            pplayer.setMoving(this.tick - this.lastMoveTicks[slot] < moveDelay);
+            if (combatEnabled)
+                pplayer.setInCombat(this.tick - this.lastCombatTicks[slot] < combatDelay);
+        }
+    }
+
+    /**
+     * Gives a player a slot when they join
+     *
+     * @param event The event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        this.addPlayer(event.getPlayer());
+    }
+
+    /**
+     * Frees up a player's slot when they leave
+     *
+     * @param event The event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        Integer slot = this.slots.remove(event.getPlayer().getUniqueId());
+        if (slot == null)
+            return;
+
+        this.players[slot] = null;
+        this.freeSlots[this.freeSlotCount++] = slot;
+    }
+
+    /**
+     * Used to detect if the player is in combat
+     *
+     * @param event The event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerAttack(EntityDamageByEntityEvent event) {
+        if (event.getEntity().getType() != EntityType.PLAYER)
+            return;
+
+        Player attacker;
+        if (event.getDamager() instanceof Projectile) {
+            Projectile projectile = (Projectile) event.getDamager();
+            if (!(projectile.getShooter() instanceof Player))
+                return;
+
+            attacker = (Player) projectile.getShooter();
+        } else if (event.getDamager() instanceof Player) {
+            attacker = (Player) event.getDamager();
+        } else return;
+
+        Player damaged = (Player) event.getEntity();
+
+        this.markInCombat(attacker);
+        this.markInCombat(damaged);
+    }
+
+    /**
+     * Marks the player as in combat
+     *
+     * @param player The player to mark
+     */
+    private void markInCombat(Player player) {
+        Integer slot = this.slots.get(player.getUniqueId());
+        if (slot != null)
+            this.lastCombatTicks[slot] = this.tick;
+    }
+
+    /**
+     * Gives a player a slot, reusing a free one if there is one
+     *
+     * @param player The player to add
+     */
+    private void addPlayer(Player player) {
+        if (this.slots.containsKey(player.getUniqueId()))
+            return;
+
+        int slot;
+        if (this.freeSlotCount > 0) {
+            slot = this.freeSlots[--this.freeSlotCount];
+        } else {
+            if (this.slotCount == this.players.length) {
+                int capacity = this.slotCount * 2;
+                this.players = Arrays.copyOf(this.players, capacity);
+                this.blockPositions = Arrays.copyOf(this.blockPositions, capacity);
+                this.lastMoveTicks = Arrays.copyOf(this.lastMoveTicks, capacity);
+                this.lastCombatTicks = Arrays.copyOf(this.lastCombatTicks, capacity);
+                this.freeSlots = Arrays.copyOf(this.freeSlots, capacity);
+            }
+            slot = this.slotCount++;
+        }
+
+        this.slots.put(player.getUniqueId(), slot);
+        this.players[slot] = player;
+        this.lastMoveTicks[slot] = NEVER;
+        this.lastCombatTicks[slot] = NEVER;
+
+        player.getLocation(this.location);
+        this.blockPositions[slot] = ParticleUtils.packBlockPosition(this.location.getBlockX(), this.location.getBlockY(), this.location.getBlockZ());
+    }
+
+}
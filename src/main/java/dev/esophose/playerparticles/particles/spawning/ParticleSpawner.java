@@ -11,7 +11,6 @@ import java.util.List;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.metadata.MetadataValue;
 
 public abstract class ParticleSpawner {
 
@@ -75,9 +74,10 @@ public abstract class ParticleSpawner {
         int range = !isLongRange ? Setting.PARTICLE_RENDER_RANGE_PLAYER.getInt() : Setting.PARTICLE_RENDER_RANGE_FIXED_EFFECT.getInt();
         range *= range;
 
-        for (PPlayer pplayer : PlayerParticles.getInstance().getManager(ParticleManager.class).getPPlayers()) {
+        ParticleManager particleManager = PlayerParticles.getInstance().getManager(ParticleManager.class);
+        for (PPlayer pplayer : particleManager.getPPlayersInWorld(center.getWorld())) {
             Player p = pplayer.getPlayer();
-            if (p != owner && !this.canSee(p, owner))
+            if (p != owner && p != null && owner != null && !particleManager.canSeeOwner(p, owner))
                 continue;
 
             if (p != null && pplayer.canSeeParticles() && p.getWorld().equals(center.getWorld()) && center.distanceSquared(p.getLocation()) <= range)
@@ -87,24 +87,6 @@ public abstract class ParticleSpawner {
         return players;
     }
 
-    /**
-     * Checks if a player can see another player
-     *
-     * @param player The player
-     * @param target The target
-     * @return True if player can see target, otherwise false
-     */
-    private boolean canSee(Player player, Player target) {
-        if (player == null || target == null)
-            return true;
-
-        for (MetadataValue meta : target.getMetadata("vanished"))
-            if (meta.asBoolean())
-                return false;
-
-        return player.canSee(target);
-    }
-
     /**
      * Represents a runtime exception that is thrown either if the displayed
      * particle effect requires data and has none or vice-versa or if the data
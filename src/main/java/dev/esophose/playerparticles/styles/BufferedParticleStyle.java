@@ -0,0 +1,83 @@
+package dev.esophose.playerparticles.styles;
+
+import dev.esophose.playerparticles.PlayerParticles;
+import dev.esophose.playerparticles.manager.ParticleManager;
+import dev.esophose.playerparticles.particles.PParticle;
+import dev.esophose.playerparticles.particles.ParticlePair;
+import java.util.ArrayList;
+import java.util.List;
+import org.bukkit.Location;
+
+/**
+ * A ParticleStyle that writes its particles straight into a {@link ParticleSink} instead of building a List of PParticles
+ * Register it through the ParticleStyleRegistrationEvent the same as any other style.
+ *
+ * Thread safety:
+ * {@link #render(ParticleRenderContext, ParticleSink)} is called from the particle task, which does not run on the main server thread.
+ * It is only called from one thread at a time, and {@link #updateTimers()} is called on that same thread before each particle tick.
+ * The context and sink are reused between calls and must not be kept or used once render returns.
+ * Do not use Bukkit methods that have to be called on the main thread from inside render.
+ */
+public interface BufferedParticleStyle extends ParticleStyle {
+
+    /**
+     * The version of the render API this version of PlayerParticles supports
+     */
+    int RENDER_VERSION = 1;
+
+    /**
+     * Renders the particles for one emitter
+     *
+     * @param context The emitter being rendered
+     * @param sink The sink to output particles to
+     */
+    void render(ParticleRenderContext context, ParticleSink sink);
+
+    /**
+     * Gets the version of the render API this style was written for
+     * Styles written for a newer version than {@link #RENDER_VERSION} will not be registered
+     *
+     * @return The render API version
+     */
+    default int getRenderVersion() {
+        return RENDER_VERSION;
+    }
+
+    /**
+     * Collects the rendered particles into a List for anything that still needs PParticles
+     *
+     * @param particle The ParticlePair that contains the particle's data
+     * @param location The central location of the particles
+     * @return A List of PParticles to spawn
+     */
+    @Override
+    default List<PParticle> getParticles(ParticlePair particle, Location location) {
+        List<PParticle> particles = new ArrayList<>();
+        long tick = PlayerParticles.getInstance().getManager(ParticleManager.class).getCurrentTick();
+        ParticleRenderContext context = new ParticleRenderContext().reset(particle, location, tick, 0);
+        this.render(context, (x, y, z, xOff, yOff, zOff, speed, directional) ->
+                particles.add(new PParticle(new Location(location.getWorld(), x, y, z), xOff, yOff, zOff, speed, directional)));
+        return particles;
+    }
+
+    /**
+     * Renders any style into a sink
+     * Styles that don't implement BufferedParticleStyle have their PParticles passed into the sink one at a time
+     *
+     * @param style The style to render
+     * @param context The emitter being rendered
+     * @param sink The sink to output particles to
+     */
+    static void render(ParticleStyle style, ParticleRenderContext context, ParticleSink sink) {
+        if (style instanceof BufferedParticleStyle) {
+            ((BufferedParticleStyle) style).render(context, sink);
+            return;
+        }
+
+        for (PParticle pparticle : style.getParticles(context.getParticle(), context.getLocation())) {
+            Location location = pparticle.getLocation(false);
+            sink.accept(location.getX(), location.getY(), location.getZ(), pparticle.getXOff(), pparticle.getYOff(), pparticle.getZOff(), pparticle.getSpeed(), pparticle.isDirectional());
+        }
+    }
+
+}
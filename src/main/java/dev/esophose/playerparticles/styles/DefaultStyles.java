@@ -3,7 +3,11 @@ package dev.esophose.playerparticles.styles;
 import dev.esophose.playerparticles.PlayerParticles;
 import dev.esophose.playerparticles.event.ParticleStyleRegistrationEvent;
 import dev.esophose.playerparticles.manager.ParticleStyleManager;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -108,6 +112,27 @@ public class DefaultStyles implements Listener {
         event.registerStyle(WHIRL);
         event.registerStyle(WHIRLWIND);
         event.registerStyle(WINGS);
+
+        // Register the expression styles in the styles folder, these are recreated every reload to pick up changes
+        for (String internalName : getExpressionStyleNames())
+            event.registerStyle(new ParticleStyleExpression(internalName));
+    }
+
+    /**
+     * Finds the files in the styles folder that are marked as expression styles
+     *
+     * @return The internal names of the expression styles
+     */
+    private static List<String> getExpressionStyleNames() {
+        List<String> names = new ArrayList<>();
+        File[] files = new File(PlayerParticles.getInstance().getDataFolder(), "styles").listFiles((dir, name) -> name.endsWith(".yml"));
+        if (files == null)
+            return names;
+
+        for (File file : files)
+            if (ParticleStyleExpression.TYPE.equals(YamlConfiguration.loadConfiguration(file).getString("type")))
+                names.add(file.getName().substring(0, file.getName().length() - ".yml".length()));
+        return names;
     }
 
     /**
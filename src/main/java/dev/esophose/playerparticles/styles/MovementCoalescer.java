@@ -0,0 +1,104 @@
+package dev.esophose.playerparticles.styles;
+
+import dev.esophose.playerparticles.PlayerParticles;
+import dev.esophose.playerparticles.manager.ParticleManager;
+import dev.esophose.playerparticles.particles.PPlayer;
+import dev.esophose.playerparticles.particles.ParticlePair;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bukkit.Location;
+
+/**
+ * Collects PlayerMoveEvents for movement based styles so they display their particles once per particle tick
+ * instead of once per event, which depends on how many movement packets the player's client sends
+ *
+ * Moves are recorded on the main thread and displayed from {@link ParticleStyle#updateTimers()} on the particle task.
+ */
+public class MovementCoalescer {
+
+    /**
+     * Moves further than this are treated as teleports and are not interpolated across
+     */
+    private static final double MAX_INTERPOLATION_DISTANCE_SQUARED = 8 * 8;
+
+    private final ParticleStyle style;
+    private final double yOffset;
+    private final Map<UUID, Location> moved;
+    private final Map<UUID, Location> lastDisplayed;
+
+    /**
+     * @param style The style to display the particles of
+     * @param yOffset How far above the player's feet to display the particles
+     */
+    public MovementCoalescer(ParticleStyle style, double yOffset) {
+        this.style = style;
+        this.yOffset = yOffset;
+        this.moved = new ConcurrentHashMap<>();
+        this.lastDisplayed = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Records that a player moved, only the last position before the next particle tick is kept
+     *
+     * @param playerUUID The UUID of the player
+     * @param to The location the player moved to
+     */
+    public void markMoved(UUID playerUUID, Location to) {
+        this.moved.put(playerUUID, to.clone().add(0, this.yOffset, 0));
+    }
+
+    /**
+     * Forgets a player, used when they log off
+     *
+     * @param playerUUID The UUID of the player
+     */
+    public void forget(UUID playerUUID) {
+        this.moved.remove(playerUUID);
+        this.lastDisplayed.remove(playerUUID);
+    }
+
+    /**
+     * Displays the particles for every player that moved since the last call
+     *
+     * @param interpolationPoints How many extra points to display between the previous and current position of each player
+     */
+    public void displayMoved(int interpolationPoints) {
+        if (this.moved.isEmpty())
+            return;
+
+        ParticleManager particleManager = PlayerParticles.getInstance().getManager(ParticleManager.class);
+        Iterator<Map.Entry<UUID, Location>> iterator = this.moved.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Location> entry = iterator.next();
+            iterator.remove();
+
+            UUID playerUUID = entry.getKey();
+            Location to = entry.getValue();
+            Location from = this.lastDisplayed.put(playerUUID, to);
+
+            List<ParticlePair> particles = particleManager.getActiveParticlesForStyle(playerUUID, this.style);
+            PPlayer pplayer = particleManager.getPPlayer(playerUUID);
+            if (particles.isEmpty() || pplayer == null)
+                continue;
+
+            if (interpolationPoints > 0 && from != null && from.getWorld() == to.getWorld() && from.distanceSquared(to) <= MAX_INTERPOLATION_DISTANCE_SQUARED) {
+                double dx = to.getX() - from.getX(), dy = to.getY() - from.getY(), dz = to.getZ() - from.getZ();
+                for (int i = 1; i <= interpolationPoints; i++) {
+                    double progress = (double) i / (interpolationPoints + 1);
+                    this.display(particleManager, pplayer, particles, from.clone().add(dx * progress, dy * progress, dz * progress));
+                }
+            }
+
+            this.display(particleManager, pplayer, particles, to);
+        }
+    }
+
+    private void display(ParticleManager particleManager, PPlayer pplayer, List<ParticlePair> particles, Location location) {
+        for (ParticlePair particle : particles)
+            particleManager.displayParticles(pplayer, location.getWorld(), particle, this.style.getParticles(particle, location), false);
+    }
+
+}
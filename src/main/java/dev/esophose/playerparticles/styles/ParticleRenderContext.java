@@ -0,0 +1,119 @@
+package dev.esophose.playerparticles.styles;
+
+import dev.esophose.playerparticles.particles.ParticlePair;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * Everything a {@link BufferedParticleStyle} needs to render one emitter
+ * A single instance is reused for every emitter rendered during a particle tick, so it must not be kept after rendering returns
+ */
+public final class ParticleRenderContext {
+
+    private ParticlePair particle;
+    private World world;
+    private double x, y, z;
+    private float yaw, pitch;
+    private long tick;
+    private int levelOfDetail;
+
+    /**
+     * Points this context at a new emitter
+     * Only meant to be called by PlayerParticles
+     *
+     * @param particle The ParticlePair being rendered
+     * @param location The position of the emitter
+     * @param tick The current particle tick
+     * @param levelOfDetail The level of detail to render at
+     * @return This context
+     */
+    public ParticleRenderContext reset(ParticlePair particle, Location location, long tick, int levelOfDetail) {
+        this.particle = particle;
+        this.world = location.getWorld();
+        this.x = location.getX();
+        this.y = location.getY();
+        this.z = location.getZ();
+        this.yaw = location.getYaw();
+        this.pitch = location.getPitch();
+        this.tick = tick;
+        this.levelOfDetail = levelOfDetail;
+        return this;
+    }
+
+    /**
+     * @return The ParticlePair being rendered
+     */
+    public ParticlePair getParticle() {
+        return this.particle;
+    }
+
+    /**
+     * @return The world the emitter is in
+     */
+    public World getWorld() {
+        return this.world;
+    }
+
+    /**
+     * @return The x position of the emitter
+     */
+    public double getX() {
+        return this.x;
+    }
+
+    /**
+     * @return The y position of the emitter
+     */
+    public double getY() {
+        return this.y;
+    }
+
+    /**
+     * @return The z position of the emitter
+     */
+    public double getZ() {
+        return this.z;
+    }
+
+    /**
+     * @return The yaw of the emitter, 0 for fixed effects
+     */
+    public float getYaw() {
+        return this.yaw;
+    }
+
+    /**
+     * @return The pitch of the emitter, 0 for fixed effects
+     */
+    public float getPitch() {
+        return this.pitch;
+    }
+
+    /**
+     * @return The number of ticks the particle task has been running for, counting up by ticks-per-particle each particle tick
+     */
+    public long getTick() {
+        return this.tick;
+    }
+
+    /**
+     * Gets a hint for how much detail to render with
+     * 0 is full detail, 1 means the particle task is falling behind and styles should cut back where they can,
+     * and 2 means it is well behind and styles should render as little as they can get away with
+     *
+     * @return The level of detail to render at
+     */
+    public int getLevelOfDetail() {
+        return this.levelOfDetail;
+    }
+
+    /**
+     * Creates a new Location at the emitter, for styles that would rather work with Locations
+     *
+     * @return A new Location at the position of the emitter
+     */
+    public Location getLocation() {
+        return new Location(this.world, this.x, this.y, this.z, this.yaw, this.pitch);
+    }
+
+}
@@ -0,0 +1,34 @@
+package dev.esophose.playerparticles.styles;
+
+/**
+ * Receives the particles a {@link BufferedParticleStyle} renders, one primitive call per particle
+ * Implementations display the particle right away, so nothing passed in needs to be kept around
+ */
+public interface ParticleSink {
+
+    /**
+     * Outputs a particle with offsets and speed
+     *
+     * @param x The x position of the particle
+     * @param y The y position of the particle
+     * @param z The z position of the particle
+     * @param xOff The offset for the x-axis
+     * @param yOff The offset for the y-axis
+     * @param zOff The offset for the z-axis
+     * @param speed The speed the particle will move at
+     * @param directional If the particle should use the x, y, and z offsets as directions instead
+     */
+    void accept(double x, double y, double z, double xOff, double yOff, double zOff, double speed, boolean directional);
+
+    /**
+     * Outputs a stand-still particle
+     *
+     * @param x The x position of the particle
+     * @param y The y position of the particle
+     * @param z The z position of the particle
+     */
+    default void accept(double x, double y, double z) {
+        this.accept(x, y, z, 0, 0, 0, 0, false);
+    }
+
+}
@@ -113,10 +113,7 @@ public interface ParticleStyle {
      * @return The ParticleStyle with a matching name
      */
     static ParticleStyle fromInternalName(String styleName) {
-        for (ParticleStyle style : PlayerParticles.getInstance().getManager(ParticleStyleManager.class).getStyles())
-            if (style.getInternalName().equalsIgnoreCase(styleName))
-                return style;
-        return null;
+        return PlayerParticles.getInstance().getManager(ParticleStyleManager.class).getStyleByInternalName(styleName);
     }
 
 }
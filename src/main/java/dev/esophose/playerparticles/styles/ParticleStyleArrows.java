@@ -1,6 +1,5 @@
 package dev.esophose.playerparticles.styles;
 
-import dev.esophose.playerparticles.PlayerParticles;
 import dev.esophose.playerparticles.config.CommentedFileConfiguration;
 import dev.esophose.playerparticles.particles.PParticle;
 import dev.esophose.playerparticles.particles.ParticlePair;
@@ -8,17 +7,25 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import org.bukkit.Bukkit;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Projectile;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
+import org.bukkit.event.entity.ProjectileHitEvent;
 import org.bukkit.event.entity.ProjectileLaunchEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 public class ParticleStyleArrows extends DefaultParticleStyle implements Listener {
 
-    private List<Projectile> projectiles;
+    /**
+     * The most recently fired arrows of each player, read by the particle task while the main thread adds to them
+     */
+    private final Map<UUID, ProjectileRing> projectiles;
 
     private int maxArrowsPerPlayer;
     private boolean onlySpawnIfFlying;
@@ -28,37 +35,25 @@ public class ParticleStyleArrows extends DefaultParticleStyle implements Listene
     protected ParticleStyleArrows() {
         super("arrows", false, false, 0);
 
-        this.projectiles = new ArrayList<>();
-
-        // Removes all arrows that are considered dead
-        Bukkit.getScheduler().runTaskTimer(PlayerParticles.getInstance(), () -> {
-            for (int i = this.projectiles.size() - 1; i >= 0; i--) {
-                Projectile projectile = this.projectiles.get(i);
-                if ((this.arrowTrackingTime != -1 && projectile.getTicksLived() >= this.arrowTrackingTime) || !projectile.isValid() || projectile.getShooter() == null)
-                    this.projectiles.remove(i);
-            }
-        }, 0L, 5L);
+        this.projectiles = new ConcurrentHashMap<>();
     }
 
     @Override
     public List<PParticle> getParticles(ParticlePair particle, Location location) {
-        List<PParticle> particles = new ArrayList<>();
+        ProjectileRing ring = this.projectiles.get(particle.getOwnerUniqueId());
+        if (ring == null)
+            return Collections.emptyList();
 
-        int count = 0;
-        List<Projectile> listCopy = new ArrayList<>(this.projectiles); // Copy in case of modification while looping due to async
-        for (int i = listCopy.size() - 1; i >= 0; i--) { // Loop backwards so the last-fired projectiles are the ones that have particles if they go over the max
-            Projectile projectile = listCopy.get(i);
-            if (this.onlySpawnIfFlying && projectile.isOnGround())
-                continue;
+        List<PParticle> particles = new ArrayList<>();
+        ring.forEachNewestFirst((projectile) -> {
+            // Arrows are dropped here once they are gone instead of checking every arrow on a timer
+            if ((this.arrowTrackingTime != -1 && projectile.getTicksLived() >= this.arrowTrackingTime) || !projectile.isValid() || projectile.getShooter() == null)
+                return false;
 
-            if (projectile.getShooter() != null && ((Player) projectile.getShooter()).getUniqueId().equals(particle.getOwnerUniqueId())) {
+            if (!this.onlySpawnIfFlying || !projectile.isOnGround())
                 particles.add(new PParticle(projectile.getLocation(), 0.05F, 0.05F, 0.05F, 0.0F));
-                count++;
-            }
-            
-            if (count >= this.maxArrowsPerPlayer)
-                break;
-        }
+            return true;
+        });
 
         return particles;
     }
@@ -86,12 +81,45 @@ public class ParticleStyleArrows extends DefaultParticleStyle implements Listene
      */
     @EventHandler
     public void onProjectileLaunch(ProjectileLaunchEvent event) {
-        if (!(event.getEntity().getShooter() instanceof Player))
+        if (!(event.getEntity().getShooter() instanceof Player) || this.maxArrowsPerPlayer <= 0)
             return;
 
         String entityName = event.getEntity().getType().name();
-        if (this.projectileEntityNames.contains(entityName))
-            this.projectiles.add(event.getEntity());
+        if (!this.projectileEntityNames.contains(entityName))
+            return;
+
+        UUID shooterUUID = ((Player) event.getEntity().getShooter()).getUniqueId();
+        ProjectileRing ring = this.projectiles.get(shooterUUID);
+        if (ring == null || ring.getCapacity() != this.maxArrowsPerPlayer) {
+            ring = new ProjectileRing(this.maxArrowsPerPlayer);
+            this.projectiles.put(shooterUUID, ring);
+        }
+        ring.add(event.getEntity());
+    }
+
+    /**
+     * Stops tracking arrows once they land if particles are only spawned while they are flying
+     *
+     * @param event The ProjectileHitEvent
+     */
+    @EventHandler
+    public void onProjectileHit(ProjectileHitEvent event) {
+        if (!this.onlySpawnIfFlying || !(event.getEntity().getShooter() instanceof Player))
+            return;
+
+        ProjectileRing ring = this.projectiles.get(((Player) event.getEntity().getShooter()).getUniqueId());
+        if (ring != null)
+            ring.remove(event.getEntity());
+    }
+
+    /**
+     * Stops tracking a player's arrows when they log off
+     *
+     * @param event The PlayerQuitEvent
+     */
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        this.projectiles.remove(event.getPlayer().getUniqueId());
     }
 
     @Override
@@ -110,4 +138,50 @@ public class ParticleStyleArrows extends DefaultParticleStyle implements Listene
         this.arrowTrackingTime = config.getInt("arrow-tracking-time");
     }
 
+    /**
+     * A fixed size ring of a player's most recently fired arrows, the oldest arrow is replaced once it is full
+     * Arrows that stop being tracked are cleared from their slot, which gets reused once the ring comes back around to it
+     */
+    private static class ProjectileRing {
+
+        private final Projectile[] projectiles;
+        private int head;
+
+        private ProjectileRing(int capacity) {
+            this.projectiles = new Projectile[capacity];
+            this.head = 0;
+        }
+
+        private int getCapacity() {
+            return this.projectiles.length;
+        }
+
+        private synchronized void add(Projectile projectile) {
+            this.projectiles[this.head] = projectile;
+            this.head = (this.head + 1) % this.projectiles.length;
+        }
+
+        private synchronized void remove(Projectile projectile) {
+            for (int i = 0; i < this.projectiles.length; i++)
+                if (this.projectiles[i] == projectile)
+                    this.projectiles[i] = null;
+        }
+
+        /**
+         * Goes through the arrows from newest to oldest, no longer tracking any the visitor returns false for
+         *
+         * @param visitor Called with each arrow, returns false to stop tracking it
+         */
+        private synchronized void forEachNewestFirst(Predicate<Projectile> visitor) {
+            int capacity = this.projectiles.length;
+            for (int i = 1; i <= capacity; i++) {
+                int index = (this.head - i + capacity) % capacity;
+                Projectile projectile = this.projectiles[index];
+                if (projectile != null && !visitor.test(projectile))
+                    this.projectiles[index] = null;
+            }
+        }
+
+    }
+
 }
@@ -3,6 +3,7 @@ package dev.esophose.playerparticles.styles;
 import dev.esophose.playerparticles.config.CommentedFileConfiguration;
 import dev.esophose.playerparticles.particles.PParticle;
 import dev.esophose.playerparticles.particles.ParticlePair;
+import dev.esophose.playerparticles.util.ParticleUtils;
 import dev.esophose.playerparticles.util.VectorUtils;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -24,7 +25,7 @@ public class ParticleStyleBatman extends DefaultParticleStyle {
     public List<PParticle> getParticles(ParticlePair particle, Location location) {
         List<PParticle> particles = new ArrayList<>();
         
-        if (this.step != 0)
+        if (!ParticleUtils.isPhaseStep(this.step, particle, this.spawnDelay))
             return particles;
         
         // Segment 1
@@ -118,7 +119,7 @@ public class ParticleStyleBatman extends DefaultParticleStyle {
 
     @Override
     public void updateTimers() {
-        this.step = (this.step + 1) % this.spawnDelay; // Only spawn once per second
+        this.step = (this.step + 1) % this.spawnDelay; // Each emitter spawns once per second, on its own step
     }
 
     @Override
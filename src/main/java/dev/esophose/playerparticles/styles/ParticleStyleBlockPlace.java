@@ -2,7 +2,6 @@ package dev.esophose.playerparticles.styles;
 
 import dev.esophose.playerparticles.PlayerParticles;
 import dev.esophose.playerparticles.config.CommentedFileConfiguration;
-import dev.esophose.playerparticles.manager.DataManager;
 import dev.esophose.playerparticles.manager.ParticleManager;
 import dev.esophose.playerparticles.particles.PParticle;
 import dev.esophose.playerparticles.particles.PPlayer;
@@ -68,11 +67,12 @@ public class ParticleStyleBlockPlace extends DefaultParticleStyle implements Lis
         ParticleManager particleManager = PlayerParticles.getInstance().getManager(ParticleManager.class);
 
         Player player = event.getPlayer();
-        PPlayer pplayer = PlayerParticles.getInstance().getManager(DataManager.class).getPPlayer(player.getUniqueId());
-        if (pplayer == null)
+        List<ParticlePair> particles = particleManager.getActiveParticlesForStyle(player.getUniqueId(), DefaultStyles.BLOCKPLACE);
+        if (particles.isEmpty())
             return;
 
-        for (ParticlePair particle : pplayer.getActiveParticlesForStyle(DefaultStyles.BLOCKPLACE)) {
+        PPlayer pplayer = particleManager.getPPlayer(player.getUniqueId());
+        for (ParticlePair particle : particles) {
             Location loc = event.getBlock().getLocation().clone();
             particleManager.displayParticles(pplayer, player.getWorld(), particle, DefaultStyles.BLOCKPLACE.getParticles(particle, loc), false);
         }
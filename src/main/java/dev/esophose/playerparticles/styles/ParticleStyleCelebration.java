@@ -7,10 +7,12 @@ import dev.esophose.playerparticles.manager.PermissionManager;
 import dev.esophose.playerparticles.particles.FixedParticleEffect;
 import dev.esophose.playerparticles.particles.PParticle;
 import dev.esophose.playerparticles.particles.PPlayer;
+import dev.esophose.playerparticles.particles.ParticleAnimation;
 import dev.esophose.playerparticles.particles.ParticleEffect;
 import dev.esophose.playerparticles.particles.ParticlePair;
 import dev.esophose.playerparticles.util.MathL;
 import dev.esophose.playerparticles.util.NMSUtil;
+import dev.esophose.playerparticles.util.ParticleUtils;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -19,7 +21,6 @@ import java.util.Random;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
 public class ParticleStyleCelebration extends DefaultParticleStyle {
 
@@ -54,23 +55,23 @@ public class ParticleStyleCelebration extends DefaultParticleStyle {
         PermissionManager permissionManager = PlayerParticles.getInstance().getManager(PermissionManager.class);
         ParticleManager particleManager = PlayerParticles.getInstance().getManager(ParticleManager.class);
 
-        this.step++;
-        if (this.step == this.spawnFrequency) {
-            this.step = 0;
-            
-            Random random = new Random();
-            for (PPlayer pplayer : particleManager.getPPlayers()) {
-                Player player = pplayer.getPlayer();
-                if (player != null && (NMSUtil.getVersionNumber() < 8 || player.getGameMode() != GameMode.SPECTATOR) && permissionManager.isWorldEnabled(player.getWorld().getName()))
-                    for (ParticlePair particle : pplayer.getActiveParticles())
-                        if (particle.getStyle() == this)
-                            this.spawnFirework(player.getLocation(), pplayer, pplayer.getPlayer(), particle, random);
-                
-                for (FixedParticleEffect fixedEffect : pplayer.getFixedParticles())
-                    if (fixedEffect.getParticlePair().getStyle() == this && permissionManager.isWorldEnabled(fixedEffect.getLocation().getWorld().getName()))
-                        this.spawnFirework(fixedEffect.getLocation(), pplayer, null, fixedEffect.getParticlePair(), random);
-            }
+        // Each emitter spawns on its own step so the fireworks don't all go off on the same tick
+        this.step = (this.step + 1) % this.spawnFrequency;
+
+        Random random = new Random();
+        for (PPlayer pplayer : particleManager.getPPlayersWithStyle(this)) {
+            Player player = pplayer.getPlayer();
+            if (player != null && (NMSUtil.getVersionNumber() < 8 || player.getGameMode() != GameMode.SPECTATOR) && permissionManager.isWorldEnabled(player.getWorld().getName()))
+                for (ParticlePair particle : pplayer.getActiveParticles())
+                    if (particle.getStyle() == this && ParticleUtils.isPhaseStep(this.step, particle, this.spawnFrequency))
+                        this.spawnFirework(player.getLocation(), pplayer, pplayer.getPlayer(), particle, random);
         }
+
+        for (PPlayer pplayer : particleManager.getPPlayers())
+            for (FixedParticleEffect fixedEffect : pplayer.getFixedParticles())
+                if (fixedEffect.getParticlePair().getStyle() == this && ParticleUtils.isPhaseStep(this.step, fixedEffect.getParticlePair(), this.spawnFrequency)
+                        && permissionManager.isWorldEnabled(fixedEffect.getLocation().getWorld().getName()))
+                    this.spawnFirework(fixedEffect.getLocation(), pplayer, null, fixedEffect.getParticlePair(), random);
     }
 
     @Override
@@ -114,45 +115,70 @@ public class ParticleStyleCelebration extends DefaultParticleStyle {
         double distanceFrom = this.baseDistanceFrom + random.nextDouble() * this.distanceFromRandomizer;
         double dx = MathL.sin(angle) * distanceFrom;
         double dz = MathL.cos(angle) * distanceFrom;
-        final Location loc = location.clone().add(dx, 1, dz);
-        final int fuse = this.baseFuseLength + random.nextInt(this.fuseLengthRandomizer);
-        ParticleManager particleManager = PlayerParticles.getInstance().getManager(ParticleManager.class);
+        Location loc = location.clone().add(dx, 1, dz);
+        int fuse = this.baseFuseLength + random.nextInt(this.fuseLengthRandomizer);
 
-        new BukkitRunnable() {
-            private Location location = loc;
-            private int fuseLength = fuse;
-            private int fuseTimer = 0;
-
-            public void run() {
-                if (this.fuseTimer < this.fuseLength) {
-                    ParticlePair trail = ParticlePair.getNextDefault(pplayer);
-                    trail.setEffect(ParticleStyleCelebration.this.fuseEffect);
-                    trail.setStyle(DefaultStyles.CELEBRATION);
-
-                    particleManager.displayParticles(pplayer, this.location.getWorld(), trail, Collections.singletonList(new PParticle(this.location)), true);
-                    
-                    this.location.add(0, ParticleStyleCelebration.this.fuseSpacing, 0);
-                } else {
-                    List<PParticle> particles = new ArrayList<>();
-                    for (int i = 0; i < ParticleStyleCelebration.this.burstAmount; i++) {
-                        double radius = ParticleStyleCelebration.this.baseBurstSize + random.nextDouble() * ParticleStyleCelebration.this.burstSizeRandomizer;
-                        double u = random.nextDouble();
-                        double v = random.nextDouble();
-                        double theta = 2 * Math.PI * u;
-                        double phi = Math.acos(2 * v - 1);
-                        double dx = radius * MathL.sin(phi) * MathL.cos(theta);
-                        double dy = radius * MathL.sin(phi) * MathL.sin(theta);
-                        double dz = radius * MathL.cos(phi);
-                        
-                        particles.add(new PParticle(this.location.clone().add(dx, dy, dz)));
-                    }
-                    particleManager.displayParticles(pplayer, this.location.getWorld(), particle, particles, true);
-                    
-                    this.cancel();
-                }
+        PlayerParticles.getInstance().getManager(ParticleManager.class).scheduleAnimation(new Firework(loc, fuse, pplayer, particle, random), 0);
+    }
+
+    /**
+     * A firework that climbs along its fuse one step per tick and then bursts
+     */
+    private class Firework implements ParticleAnimation {
+
+        private final Location location;
+        private final int fuseLength;
+        private final PPlayer pplayer;
+        private final ParticlePair particle;
+        private final ParticlePair trail;
+        private final List<PParticle> trailParticles;
+        private final Random random;
+        private int fuseTimer;
+
+        private Firework(Location location, int fuseLength, PPlayer pplayer, ParticlePair particle, Random random) {
+            this.location = location;
+            this.fuseLength = fuseLength;
+            this.pplayer = pplayer;
+            this.particle = particle;
+            this.random = random;
+            this.fuseTimer = 0;
+
+            this.trail = ParticlePair.getNextDefault(pplayer);
+            this.trail.setEffect(ParticleStyleCelebration.this.fuseEffect);
+            this.trail.setStyle(DefaultStyles.CELEBRATION);
+
+            // The trail particle shares the location, so it moves up the fuse along with it
+            this.trailParticles = Collections.singletonList(new PParticle(this.location));
+        }
+
+        @Override
+        public int step() {
+            ParticleManager particleManager = PlayerParticles.getInstance().getManager(ParticleManager.class);
+
+            if (this.fuseTimer < this.fuseLength) {
+                particleManager.displayParticles(this.pplayer, this.location.getWorld(), this.trail, this.trailParticles, true);
+                this.location.add(0, ParticleStyleCelebration.this.fuseSpacing, 0);
                 this.fuseTimer++;
+                return 1;
             }
-        }.runTaskTimer(PlayerParticles.getInstance(), 0, 1);
+
+            List<PParticle> particles = new ArrayList<>(ParticleStyleCelebration.this.burstAmount);
+            for (int i = 0; i < ParticleStyleCelebration.this.burstAmount; i++) {
+                double radius = ParticleStyleCelebration.this.baseBurstSize + this.random.nextDouble() * ParticleStyleCelebration.this.burstSizeRandomizer;
+                double u = this.random.nextDouble();
+                double v = this.random.nextDouble();
+                double theta = 2 * Math.PI * u;
+                double phi = Math.acos(2 * v - 1);
+                double dx = radius * MathL.sin(phi) * MathL.cos(theta);
+                double dy = radius * MathL.sin(phi) * MathL.sin(theta);
+                double dz = radius * MathL.cos(phi);
+
+                particles.add(new PParticle(this.location.clone().add(dx, dy, dz)));
+            }
+            particleManager.displayParticles(this.pplayer, this.location.getWorld(), this.particle, particles, true);
+            return 0;
+        }
+
     }
 
 }
@@ -0,0 +1,163 @@
+package dev.esophose.playerparticles.styles;
+
+import dev.esophose.playerparticles.config.CommentedFileConfiguration;
+import dev.esophose.playerparticles.util.ExpressionCompiler;
+import dev.esophose.playerparticles.util.ExpressionCompiler.Expression;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * A style defined in a file in the styles folder with math expressions for the x, y, and z offset of each point
+ * The expressions are compiled once when the style is loaded. Shapes that don't change over time are worked out once and reused.
+ */
+public class ParticleStyleExpression extends DefaultParticleStyle implements BufferedParticleStyle {
+
+    /**
+     * The value of the type setting that marks a file in the styles folder as an expression style
+     */
+    public static final String TYPE = "expression";
+
+    /**
+     * The variables the expressions can use, in the order they are stored in the variables array
+     */
+    private static final List<String> VARIABLES = Collections.unmodifiableList(Arrays.asList("t", "i", "n", "tick"));
+
+    /**
+     * The compiled style, replaced as a whole when the settings are reloaded so a render never sees half of the old settings and half of the new ones
+     */
+    private volatile Shape shape;
+
+    public ParticleStyleExpression(String internalStyleName) {
+        super(internalStyleName, true, true, 0);
+    }
+
+    @Override
+    public void render(ParticleRenderContext context, ParticleSink sink) {
+        Shape shape = this.shape;
+        if (shape == null)
+            return;
+
+        // Skip points when the particle task is falling behind
+        int stride = 1 << context.getLevelOfDetail();
+        double x = context.getX(), y = context.getY(), z = context.getZ();
+
+        if (!shape.animated) {
+            double[] offsets = shape.offsets;
+            for (int i = 0; i < offsets.length; i += 3 * stride)
+                sink.accept(x + offsets[i], y + offsets[i + 1], z + offsets[i + 2]);
+            return;
+        }
+
+        double[] variables = new double[VARIABLES.size()];
+        variables[3] = context.getTick();
+        for (int i = 0; i < shape.steps; i += stride) {
+            shape.setPoint(variables, i);
+            sink.accept(x + shape.xExpression.evaluate(variables), y + shape.yExpression.evaluate(variables), z + shape.zExpression.evaluate(variables));
+        }
+    }
+
+    @Override
+    public void updateTimers() {
+
+    }
+
+    @Override
+    protected List<String> getGuiIconMaterialNames() {
+        return Collections.singletonList("BLAZE_POWDER");
+    }
+
+    @Override
+    protected void setDefaultSettings(CommentedFileConfiguration config) {
+        this.setIfNotExists("type", TYPE, "Marks this file as a style made from expressions");
+        this.setIfNotExists("range-start", 0.0, "The value of t for the first point");
+        this.setIfNotExists("range-end", 2 * Math.PI, "The value of t for the last point");
+        this.setIfNotExists("steps", 20, "The number of points to display");
+        this.setIfNotExists("x", "cos(t)", "The x offset of each point",
+                "Expressions can use the variables t, i (the point number starting at 0), n (the number of points),",
+                "tick (counts up while the server runs), any values in the constants section, pi and e",
+                "Supported functions: sin, cos, tan, asin, acos, atan, atan2, sqrt, abs, floor, ceil, min, max, pow, clamp");
+        this.setIfNotExists("y", "0", "The y offset of each point");
+        this.setIfNotExists("z", "sin(t)", "The z offset of each point");
+    }
+
+    @Override
+    protected void loadSettings(CommentedFileConfiguration config) {
+        int steps = Math.max(1, config.getInt("steps"));
+        double rangeStart = config.getDouble("range-start");
+        double rangeEnd = config.getDouble("range-end");
+
+        Map<String, Double> constants = new HashMap<>();
+        ConfigurationSection constantsSection = config.getConfigurationSection("constants");
+        if (constantsSection != null)
+            for (String key : constantsSection.getKeys(false))
+                constants.put(key, constantsSection.getDouble(key));
+
+        try {
+            Set<String> usedVariables = new HashSet<>();
+            Expression xExpression = ExpressionCompiler.compile(config.getString("x"), VARIABLES, constants, usedVariables);
+            Expression yExpression = ExpressionCompiler.compile(config.getString("y"), VARIABLES, constants, usedVariables);
+            Expression zExpression = ExpressionCompiler.compile(config.getString("z"), VARIABLES, constants, usedVariables);
+            this.shape = new Shape(xExpression, yExpression, zExpression, steps, rangeStart, rangeEnd, usedVariables.contains("tick"));
+        } catch (IllegalArgumentException ex) {
+            this.shape = null;
+            this.playerParticles.getLogger().severe("Unable to load the style '" + this.getInternalName() + "': " + ex.getMessage());
+        }
+    }
+
+    /**
+     * The compiled expressions and settings of the style
+     */
+    private static final class Shape {
+
+        private final Expression xExpression, yExpression, zExpression;
+        private final int steps;
+        private final double rangeStart, rangeEnd;
+        private final boolean animated;
+        private final double[] offsets;
+
+        private Shape(Expression xExpression, Expression yExpression, Expression zExpression, int steps, double rangeStart, double rangeEnd, boolean animated) {
+            this.xExpression = xExpression;
+            this.yExpression = yExpression;
+            this.zExpression = zExpression;
+            this.steps = steps;
+            this.rangeStart = rangeStart;
+            this.rangeEnd = rangeEnd;
+            this.animated = animated;
+
+            // The shape never changes, so work out every point now
+            if (!animated) {
+                double[] variables = new double[VARIABLES.size()];
+                this.offsets = new double[steps * 3];
+                for (int i = 0; i < steps; i++) {
+                    this.setPoint(variables, i);
+                    this.offsets[i * 3] = xExpression.evaluate(variables);
+                    this.offsets[i * 3 + 1] = yExpression.evaluate(variables);
+                    this.offsets[i * 3 + 2] = zExpression.evaluate(variables);
+                }
+            } else {
+                this.offsets = null;
+            }
+        }
+
+        /**
+         * Sets the variables for a point
+         *
+         * @param variables The variables array to update
+         * @param i The index of the point
+         */
+        private void setPoint(double[] variables, int i) {
+            double progress = this.steps == 1 ? 0 : (double) i / (this.steps - 1);
+            variables[0] = this.rangeStart + (this.rangeEnd - this.rangeStart) * progress;
+            variables[1] = i;
+            variables[2] = this.steps;
+        }
+
+    }
+
+}
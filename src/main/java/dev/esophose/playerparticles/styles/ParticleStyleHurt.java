@@ -2,7 +2,6 @@ package dev.esophose.playerparticles.styles;
 
 import dev.esophose.playerparticles.PlayerParticles;
 import dev.esophose.playerparticles.config.CommentedFileConfiguration;
-import dev.esophose.playerparticles.manager.DataManager;
 import dev.esophose.playerparticles.manager.ParticleManager;
 import dev.esophose.playerparticles.particles.PParticle;
 import dev.esophose.playerparticles.particles.PPlayer;
@@ -51,12 +50,14 @@ public class ParticleStyleHurt extends DefaultParticleStyle implements Listener
 
         if (event.getEntity() instanceof Player) {
             Player player = (Player) event.getEntity();
-            PPlayer pplayer = PlayerParticles.getInstance().getManager(DataManager.class).getPPlayer(player.getUniqueId());
-            if (pplayer != null) {
-                for (ParticlePair particle : pplayer.getActiveParticlesForStyle(DefaultStyles.HURT)) {
-                    Location loc = player.getLocation().clone().add(0, 1, 0);
-                    particleManager.displayParticles(pplayer, player.getWorld(), particle, DefaultStyles.HURT.getParticles(particle, loc), false);
-                }
+            List<ParticlePair> particles = particleManager.getActiveParticlesForStyle(player.getUniqueId(), DefaultStyles.HURT);
+            if (particles.isEmpty())
+                return;
+
+            PPlayer pplayer = particleManager.getPPlayer(player.getUniqueId());
+            for (ParticlePair particle : particles) {
+                Location loc = player.getLocation().clone().add(0, 1, 0);
+                particleManager.displayParticles(pplayer, player.getWorld(), particle, DefaultStyles.HURT.getParticles(particle, loc), false);
             }
         }
     }
@@ -2,7 +2,6 @@ package dev.esophose.playerparticles.styles;
 
 import dev.esophose.playerparticles.PlayerParticles;
 import dev.esophose.playerparticles.config.CommentedFileConfiguration;
-import dev.esophose.playerparticles.manager.DataManager;
 import dev.esophose.playerparticles.manager.ParticleManager;
 import dev.esophose.playerparticles.particles.PParticle;
 import dev.esophose.playerparticles.particles.PPlayer;
@@ -16,13 +15,19 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 public class ParticleStyleMove extends DefaultParticleStyle implements Listener {
 
     private int multiplier;
+    private boolean coalesceMovement;
+    private int interpolationPoints;
+    private final MovementCoalescer movementCoalescer;
 
     protected ParticleStyleMove() {
         super("move", false, false, 0);
+
+        this.movementCoalescer = new MovementCoalescer(this, 0.05);
     }
 
     @Override
@@ -37,7 +42,8 @@ public class ParticleStyleMove extends DefaultParticleStyle implements Listener
 
     @Override
     public void updateTimers() {
-
+        if (this.coalesceMovement)
+            this.movementCoalescer.displayMoved(this.interpolationPoints);
     }
 
     @Override
@@ -48,11 +54,15 @@ public class ParticleStyleMove extends DefaultParticleStyle implements Listener
     @Override
     protected void setDefaultSettings(CommentedFileConfiguration config) {
         this.setIfNotExists("multiplier", 1, "The multiplier for the number of particles to spawn", "This style uses the same spawning as the 'normal' style");
+        this.setIfNotExists("coalesce-movement", true, "If true, particles are displayed at most once per particle tick while moving instead of for every movement the player's client sends", "Turning the player's head no longer counts as moving");
+        this.setIfNotExists("interpolation-points", 0, "How many extra points to display between the player's previous and current position when coalesce-movement is true", "Fills in gaps between particles when moving quickly");
     }
 
     @Override
     protected void loadSettings(CommentedFileConfiguration config) {
         this.multiplier = config.getInt("multiplier");
+        this.coalesceMovement = config.getBoolean("coalesce-movement");
+        this.interpolationPoints = Math.max(0, config.getInt("interpolation-points"));
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
@@ -60,15 +70,28 @@ public class ParticleStyleMove extends DefaultParticleStyle implements Listener
         ParticleManager particleManager = PlayerParticles.getInstance().getManager(ParticleManager.class);
 
         Player player = event.getPlayer();
-        PPlayer pplayer = PlayerParticles.getInstance().getManager(DataManager.class).getPPlayer(player.getUniqueId());
-        if (pplayer == null)
+        List<ParticlePair> particles = particleManager.getActiveParticlesForStyle(player.getUniqueId(), DefaultStyles.MOVE);
+        if (particles.isEmpty())
+            return;
+
+        if (this.coalesceMovement) {
+            Location from = event.getFrom(), to = event.getTo();
+            if (to != null && (from.getX() != to.getX() || from.getY() != to.getY() || from.getZ() != to.getZ() || from.getWorld() != to.getWorld()))
+                this.movementCoalescer.markMoved(player.getUniqueId(), to);
             return;
+        }
 
-        for (ParticlePair particle : pplayer.getActiveParticlesForStyle(DefaultStyles.MOVE)) {
+        PPlayer pplayer = particleManager.getPPlayer(player.getUniqueId());
+        for (ParticlePair particle : particles) {
             Location loc = player.getLocation().clone();
             loc.setY(loc.getY() + 0.05);
             particleManager.displayParticles(pplayer, player.getWorld(), particle, DefaultStyles.MOVE.getParticles(particle, loc), false);
         }
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        this.movementCoalescer.forget(event.getPlayer().getUniqueId());
+    }
+
 }
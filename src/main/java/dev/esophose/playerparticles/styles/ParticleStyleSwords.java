@@ -2,7 +2,6 @@ package dev.esophose.playerparticles.styles;
 
 import dev.esophose.playerparticles.PlayerParticles;
 import dev.esophose.playerparticles.config.CommentedFileConfiguration;
-import dev.esophose.playerparticles.manager.DataManager;
 import dev.esophose.playerparticles.manager.ParticleManager;
 import dev.esophose.playerparticles.particles.PParticle;
 import dev.esophose.playerparticles.particles.PPlayer;
@@ -76,8 +75,8 @@ public class ParticleStyleSwords extends DefaultParticleStyle implements Listene
         if (event.getDamager() instanceof Player && event.getEntity() instanceof LivingEntity) {
             Player player = (Player) event.getDamager();
             LivingEntity entity = (LivingEntity) event.getEntity();
-            PPlayer pplayer = PlayerParticles.getInstance().getManager(DataManager.class).getPPlayer(player.getUniqueId());
-            if (pplayer == null)
+            List<ParticlePair> particles = particleManager.getActiveParticlesForStyle(player.getUniqueId(), DefaultStyles.SWORDS);
+            if (particles.isEmpty())
                 return;
 
             if (NMSUtil.getVersionNumber() > 8) {
@@ -88,7 +87,8 @@ public class ParticleStyleSwords extends DefaultParticleStyle implements Listene
                     return;
             }
 
-            for (ParticlePair particle : pplayer.getActiveParticlesForStyle(DefaultStyles.SWORDS)) {
+            PPlayer pplayer = particleManager.getPPlayer(player.getUniqueId());
+            for (ParticlePair particle : particles) {
                 Location loc = entity.getLocation().clone().add(0, 1, 0);
                 particleManager.displayParticles(pplayer, player.getWorld(), particle, DefaultStyles.SWORDS.getParticles(particle, loc), false);
             }
@@ -2,7 +2,6 @@ package dev.esophose.playerparticles.styles;
 
 import dev.esophose.playerparticles.PlayerParticles;
 import dev.esophose.playerparticles.config.CommentedFileConfiguration;
-import dev.esophose.playerparticles.manager.DataManager;
 import dev.esophose.playerparticles.manager.ParticleManager;
 import dev.esophose.playerparticles.particles.PParticle;
 import dev.esophose.playerparticles.particles.PPlayer;
@@ -79,11 +78,12 @@ public class ParticleStyleTeleport extends DefaultParticleStyle implements Liste
         ParticleManager particleManager = PlayerParticles.getInstance().getManager(ParticleManager.class);
 
         Player player = event.getPlayer();
-        PPlayer pplayer = PlayerParticles.getInstance().getManager(DataManager.class).getPPlayer(player.getUniqueId());
-        if (pplayer == null)
+        List<ParticlePair> particles = particleManager.getActiveParticlesForStyle(player.getUniqueId(), DefaultStyles.TELEPORT);
+        if (particles.isEmpty())
             return;
 
-        for (ParticlePair particle : pplayer.getActiveParticlesForStyle(DefaultStyles.TELEPORT)) {
+        PPlayer pplayer = particleManager.getPPlayer(player.getUniqueId());
+        for (ParticlePair particle : particles) {
             if (this.before) {
                 Location loc1 = player.getLocation().clone();
                 loc1.setY(loc1.getY() + 1);
@@ -2,7 +2,6 @@ package dev.esophose.playerparticles.styles;
 
 import dev.esophose.playerparticles.PlayerParticles;
 import dev.esophose.playerparticles.config.CommentedFileConfiguration;
-import dev.esophose.playerparticles.manager.DataManager;
 import dev.esophose.playerparticles.manager.ParticleManager;
 import dev.esophose.playerparticles.particles.PParticle;
 import dev.esophose.playerparticles.particles.PPlayer;
@@ -15,15 +14,21 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 public class ParticleStyleTrail extends DefaultParticleStyle implements Listener {
 
     private double offset;
     private double spread;
     private double speed;
+    private boolean coalesceMovement;
+    private int interpolationPoints;
+    private final MovementCoalescer movementCoalescer;
 
     protected ParticleStyleTrail() {
         super("trail", false, false, 0);
+
+        this.movementCoalescer = new MovementCoalescer(this, 1);
     }
 
     @Override
@@ -33,7 +38,8 @@ public class ParticleStyleTrail extends DefaultParticleStyle implements Listener
 
     @Override
     public void updateTimers() {
-
+        if (this.coalesceMovement)
+            this.movementCoalescer.displayMoved(this.interpolationPoints);
     }
 
     @Override
@@ -46,6 +52,8 @@ public class ParticleStyleTrail extends DefaultParticleStyle implements Listener
         this.setIfNotExists("player-offset", 0.0, "How far to offset the player location vertically");
         this.setIfNotExists("spread", 0.1, "How much to spread the particles");
         this.setIfNotExists("speed", 0.01, "If the particle supports speed, how much speed to apply");
+        this.setIfNotExists("coalesce-movement", true, "If true, particles are displayed at most once per particle tick while moving instead of for every movement the player's client sends", "Turning the player's head no longer counts as moving");
+        this.setIfNotExists("interpolation-points", 0, "How many extra points to display between the player's previous and current position when coalesce-movement is true", "Fills in gaps between particles when moving quickly");
     }
 
     @Override
@@ -53,6 +61,8 @@ public class ParticleStyleTrail extends DefaultParticleStyle implements Listener
         this.offset = config.getDouble("player-offset");
         this.spread = config.getDouble("spread");
         this.speed = config.getDouble("speed");
+        this.coalesceMovement = config.getBoolean("coalesce-movement");
+        this.interpolationPoints = Math.max(0, config.getInt("interpolation-points"));
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
@@ -60,15 +70,28 @@ public class ParticleStyleTrail extends DefaultParticleStyle implements Listener
         ParticleManager particleManager = PlayerParticles.getInstance().getManager(ParticleManager.class);
 
         Player player = event.getPlayer();
-        PPlayer pplayer = PlayerParticles.getInstance().getManager(DataManager.class).getPPlayer(player.getUniqueId());
-        if (pplayer == null)
+        List<ParticlePair> particles = particleManager.getActiveParticlesForStyle(player.getUniqueId(), DefaultStyles.TRAIL);
+        if (particles.isEmpty())
+            return;
+
+        if (this.coalesceMovement) {
+            Location from = event.getFrom(), to = event.getTo();
+            if (to != null && (from.getX() != to.getX() || from.getY() != to.getY() || from.getZ() != to.getZ() || from.getWorld() != to.getWorld()))
+                this.movementCoalescer.markMoved(player.getUniqueId(), to);
             return;
+        }
 
-        for (ParticlePair particle : pplayer.getActiveParticlesForStyle(DefaultStyles.TRAIL)) {
+        PPlayer pplayer = particleManager.getPPlayer(player.getUniqueId());
+        for (ParticlePair particle : particles) {
             Location loc = player.getLocation().clone();
             loc.setY(loc.getY() + 1);
             particleManager.displayParticles(pplayer, player.getWorld(), particle, DefaultStyles.TRAIL.getParticles(particle, loc), false);
         }
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        this.movementCoalescer.forget(event.getPlayer().getUniqueId());
+    }
+
 }
@@ -4,6 +4,7 @@ import dev.esophose.playerparticles.config.CommentedFileConfiguration;
 import dev.esophose.playerparticles.particles.PParticle;
 import dev.esophose.playerparticles.particles.ParticlePair;
 import dev.esophose.playerparticles.util.MathL;
+import dev.esophose.playerparticles.util.ParticleUtils;
 import dev.esophose.playerparticles.util.VectorUtils;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -13,7 +14,7 @@ import org.bukkit.util.Vector;
 
 public class ParticleStyleWings extends DefaultParticleStyle {
 
-    private int spawnTimer = 0; // Spawn particles every 3 ticks
+    private int step = 0;
 
     private int spawnDelay;
 
@@ -24,7 +25,7 @@ public class ParticleStyleWings extends DefaultParticleStyle {
     @Override
     public List<PParticle> getParticles(ParticlePair particle, Location location) {
         List<PParticle> particles = new ArrayList<>();
-        if (this.spawnTimer == 0) {
+        if (ParticleUtils.isPhaseStep(this.step, particle, this.spawnDelay)) {
             for (double t = 0; t < Math.PI * 2; t += Math.PI / 48) {
                 double offset = (Math.pow(Math.E, MathL.cos(t)) - 2 * MathL.cos(t * 4) - Math.pow(MathL.sin(t / 12), 5)) / 2;
                 double x = MathL.sin(t) * offset;
@@ -38,8 +39,7 @@ public class ParticleStyleWings extends DefaultParticleStyle {
 
     @Override
     public void updateTimers() {
-        this.spawnTimer++;
-        this.spawnTimer %= this.spawnDelay;
+        this.step = (this.step + 1) % this.spawnDelay;
     }
 
     @Override
@@ -0,0 +1,324 @@
+package dev.esophose.playerparticles.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiles math expressions such as "r * cos(t) + 0.5" into a tree of closures so they can be evaluated without parsing again
+ *
+ * Supports + - * / % ^, parentheses, the constants pi and e, and the functions
+ * sin, cos, tan, asin, acos, atan, atan2, sqrt, abs, floor, ceil, min, max, pow and clamp.
+ * sin and cos use the lookup tables in {@link MathL}. Parts of an expression that only use constants are worked out while compiling.
+ */
+public final class ExpressionCompiler {
+
+    private final String source;
+    private final List<String> variables;
+    private final Map<String, Double> constants;
+    private final Set<String> usedVariables;
+    private int position;
+
+    private ExpressionCompiler(String source, List<String> variables, Map<String, Double> constants, Set<String> usedVariables) {
+        this.source = source;
+        this.variables = variables;
+        this.constants = constants;
+        this.usedVariables = usedVariables;
+        this.position = 0;
+    }
+
+    /**
+     * Compiles an expression
+     *
+     * @param source The expression to compile
+     * @param variables The names of the variables, a variable's value is read from the same index of the array passed to {@link Expression#evaluate(double[])}
+     * @param constants Named values that never change
+     * @param usedVariables A set to add the names of the variables the expression uses to
+     * @return The compiled expression
+     * @throws IllegalArgumentException If the expression is not valid
+     */
+    public static Expression compile(String source, List<String> variables, Map<String, Double> constants, Set<String> usedVariables) {
+        if (source == null || source.trim().isEmpty())
+            throw new IllegalArgumentException("Expression is empty");
+
+        ExpressionCompiler compiler = new ExpressionCompiler(source, variables, constants, usedVariables);
+        Expression expression = compiler.parseSum();
+        compiler.skipWhitespace();
+        if (compiler.position < source.length())
+            throw compiler.error("Unexpected '" + source.charAt(compiler.position) + "'");
+        return expression;
+    }
+
+    private Expression parseSum() {
+        Expression left = this.parseProduct();
+        while (true) {
+            if (this.accept('+')) {
+                left = fold(left, this.parseProduct(), (a, b, v) -> a.evaluate(v) + b.evaluate(v), Double::sum);
+            } else if (this.accept('-')) {
+                left = fold(left, this.parseProduct(), (a, b, v) -> a.evaluate(v) - b.evaluate(v), (a, b) -> a - b);
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Expression parseProduct() {
+        Expression left = this.parseUnary();
+        while (true) {
+            if (this.accept('*')) {
+                left = fold(left, this.parseUnary(), (a, b, v) -> a.evaluate(v) * b.evaluate(v), (a, b) -> a * b);
+            } else if (this.accept('/')) {
+                left = fold(left, this.parseUnary(), (a, b, v) -> a.evaluate(v) / b.evaluate(v), (a, b) -> a / b);
+            } else if (this.accept('%')) {
+                left = fold(left, this.parseUnary(), (a, b, v) -> a.evaluate(v) % b.evaluate(v), (a, b) -> a % b);
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Expression parseUnary() {
+        if (this.accept('-')) {
+            Expression operand = this.parseUnary();
+            if (operand instanceof Constant)
+                return new Constant(-((Constant) operand).value);
+            return (v) -> -operand.evaluate(v);
+        }
+
+        if (this.accept('+'))
+            return this.parseUnary();
+
+        return this.parsePower();
+    }
+
+    private Expression parsePower() {
+        Expression base = this.parsePrimary();
+        if (this.accept('^'))
+            return fold(base, this.parseUnary(), (a, b, v) -> Math.pow(a.evaluate(v), b.evaluate(v)), Math::pow);
+        return base;
+    }
+
+    private Expression parsePrimary() {
+        this.skipWhitespace();
+        if (this.position >= this.source.length())
+            throw this.error("Unexpected end of expression");
+
+        char c = this.source.charAt(this.position);
+        if (c == '(') {
+            this.position++;
+            Expression expression = this.parseSum();
+            this.expect(')');
+            return expression;
+        }
+
+        if (Character.isDigit(c) || c == '.')
+            return this.parseNumber();
+
+        if (Character.isLetter(c) || c == '_')
+            return this.parseIdentifier();
+
+        throw this.error("Unexpected '" + c + "'");
+    }
+
+    private Expression parseNumber() {
+        int start = this.position;
+        while (this.position < this.source.length() && (Character.isDigit(this.source.charAt(this.position)) || this.source.charAt(this.position) == '.'))
+            this.position++;
+
+        try {
+            return new Constant(Double.parseDouble(this.source.substring(start, this.position)));
+        } catch (NumberFormatException ex) {
+            throw this.error("Invalid number '" + this.source.substring(start, this.position) + "'");
+        }
+    }
+
+    private Expression parseIdentifier() {
+        int start = this.position;
+        while (this.position < this.source.length() && (Character.isLetterOrDigit(this.source.charAt(this.position)) || this.source.charAt(this.position) == '_'))
+            this.position++;
+        String name = this.source.substring(start, this.position);
+
+        if (this.accept('('))
+            return this.parseFunction(name);
+
+        int index = this.variables.indexOf(name);
+        if (index != -1) {
+            this.usedVariables.add(name);
+            return (v) -> v[index];
+        }
+
+        Double constant = this.constants.get(name);
+        if (constant != null)
+            return new Constant(constant);
+
+        switch (name.toLowerCase()) {
+            case "pi":
+                return new Constant(Math.PI);
+            case "e":
+                return new Constant(Math.E);
+            default:
+                throw this.error("Unknown variable '" + name + "'");
+        }
+    }
+
+    private Expression parseFunction(String name) {
+        Expression first = this.parseSum();
+        Expression second = null;
+        Expression third = null;
+        if (this.accept(',')) {
+            second = this.parseSum();
+            if (this.accept(','))
+                third = this.parseSum();
+        }
+        this.expect(')');
+
+        int arguments = third != null ? 3 : second != null ? 2 : 1;
+        switch (name.toLowerCase()) {
+            case "sin":
+                this.checkArguments(name, arguments, 1);
+                return fold(first, MathL::sin);
+            case "cos":
+                this.checkArguments(name, arguments, 1);
+                return fold(first, MathL::cos);
+            case "tan":
+                this.checkArguments(name, arguments, 1);
+                return fold(first, Math::tan);
+            case "asin":
+                this.checkArguments(name, arguments, 1);
+                return fold(first, Math::asin);
+            case "acos":
+                this.checkArguments(name, arguments, 1);
+                return fold(first, Math::acos);
+            case "atan":
+                this.checkArguments(name, arguments, 1);
+                return fold(first, Math::atan);
+            case "sqrt":
+                this.checkArguments(name, arguments, 1);
+                return fold(first, Math::sqrt);
+            case "abs":
+                this.checkArguments(name, arguments, 1);
+                return fold(first, Math::abs);
+            case "floor":
+                this.checkArguments(name, arguments, 1);
+                return fold(first, Math::floor);
+            case "ceil":
+                this.checkArguments(name, arguments, 1);
+                return fold(first, Math::ceil);
+            case "atan2":
+                this.checkArguments(name, arguments, 2);
+                return fold(first, second, (a, b, v) -> Math.atan2(a.evaluate(v), b.evaluate(v)), Math::atan2);
+            case "min":
+                this.checkArguments(name, arguments, 2);
+                return fold(first, second, (a, b, v) -> Math.min(a.evaluate(v), b.evaluate(v)), Math::min);
+            case "max":
+                this.checkArguments(name, arguments, 2);
+                return fold(first, second, (a, b, v) -> Math.max(a.evaluate(v), b.evaluate(v)), Math::max);
+            case "pow":
+                this.checkArguments(name, arguments, 2);
+                return fold(first, second, (a, b, v) -> Math.pow(a.evaluate(v), b.evaluate(v)), Math::pow);
+            case "clamp":
+                this.checkArguments(name, arguments, 3);
+                Expression value = first, low = second, high = third;
+                if (value instanceof Constant && low instanceof Constant && high instanceof Constant)
+                    return new Constant(Math.max(((Constant) low).value, Math.min(((Constant) high).value, ((Constant) value).value)));
+                return (v) -> Math.max(low.evaluate(v), Math.min(high.evaluate(v), value.evaluate(v)));
+            default:
+                throw this.error("Unknown function '" + name + "'");
+        }
+    }
+
+    private void checkArguments(String function, int given, int expected) {
+        if (given != expected)
+            throw this.error("The function '" + function + "' takes " + expected + " argument(s) but was given " + given);
+    }
+
+    private boolean accept(char c) {
+        this.skipWhitespace();
+        if (this.position < this.source.length() && this.source.charAt(this.position) == c) {
+            this.position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!this.accept(c))
+            throw this.error("Expected '" + c + "'");
+    }
+
+    private void skipWhitespace() {
+        while (this.position < this.source.length() && Character.isWhitespace(this.source.charAt(this.position)))
+            this.position++;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + (this.position + 1) + " in '" + this.source + "'");
+    }
+
+    private static Expression fold(Expression operand, Function function) {
+        if (operand instanceof Constant)
+            return new Constant(function.apply(((Constant) operand).value));
+        return (v) -> function.apply(operand.evaluate(v));
+    }
+
+    private static Expression fold(Expression left, Expression right, BinaryNode node, BinaryFunction constant) {
+        if (left instanceof Constant && right instanceof Constant)
+            return new Constant(constant.apply(((Constant) left).value, ((Constant) right).value));
+        return (v) -> node.evaluate(left, right, v);
+    }
+
+    /**
+     * A compiled expression
+     */
+    public interface Expression {
+
+        /**
+         * Evaluates the expression
+         *
+         * @param variables The values of the variables, in the order their names were given when compiling
+         * @return The result
+         */
+        double evaluate(double[] variables);
+
+        /**
+         * @return true if the expression always gives the same result
+         */
+        default boolean isConstant() {
+            return false;
+        }
+
+    }
+
+    private static final class Constant implements Expression {
+
+        private final double value;
+
+        private Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public double evaluate(double[] variables) {
+            return this.value;
+        }
+
+        @Override
+        public boolean isConstant() {
+            return true;
+        }
+
+    }
+
+    private interface Function {
+        double apply(double value);
+    }
+
+    private interface BinaryFunction {
+        double apply(double a, double b);
+    }
+
+    private interface BinaryNode {
+        double evaluate(Expression a, Expression b, double[] variables);
+    }
+
+}
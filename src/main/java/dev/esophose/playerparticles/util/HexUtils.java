@@ -20,6 +20,7 @@ public final class HexUtils {
     );
 
     private static final Pattern STOP = Pattern.compile("<(gradient|g)(:#([A-Fa-f0-9]){6})*>|<(rainbow|r)(:\\d*\\.?\\d+){0,2}>|(&[a-f0-9r])|<#([A-Fa-f0-9]){6}>|&#([A-Fa-f0-9]){6}|#([A-Fa-f0-9]){6}|" + org.bukkit.ChatColor.COLOR_CHAR);
+    private static final Pattern UNFINISHED_COLOR = Pattern.compile("(?:[&" + org.bukkit.ChatColor.COLOR_CHAR + "]|&?#[A-Fa-f0-9]{0,5}|<#[A-Fa-f0-9]{0,6}|<[A-Za-z]*(?::[A-Za-z0-9.#]*)*)$");
 
     private HexUtils() {
 
@@ -50,6 +51,27 @@ public final class HexUtils {
         return parsed;
     }
 
+    /**
+     * Checks if a rainbow, gradient or unfinished color code at the end of a message would carry on into text added after it
+     * Finished codes such as &b are not counted, they color whatever comes after them the same either way
+     *
+     * @param message The message
+     * @return true if coloring the message on its own could give a different result than coloring it with more text after it
+     */
+    static boolean endsInsideColor(String message) {
+        if (UNFINISHED_COLOR.matcher(message).find())
+            return true;
+
+        for (Pattern pattern : Arrays.asList(RAINBOW_PATTERN, GRADIENT_PATTERN)) {
+            Matcher matcher = pattern.matcher(message);
+            while (matcher.find())
+                if (findStop(message, matcher.end()) == message.length())
+                    return true;
+        }
+
+        return false;
+    }
+
     private static String parseRainbow(String message) {
         String parsed = message;
 
@@ -0,0 +1,113 @@
+package dev.esophose.playerparticles.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A message split into text and %placeholder% slots when the locale is loaded, so displaying it only has to join the parts together
+ *
+ * The text between placeholders is colored once up front. If a rainbow, gradient or color code runs into a placeholder, or a
+ * placeholder value contains color codes, the whole message is colored after the values are filled in instead, like before.
+ */
+public final class MessageTemplate {
+
+    private static final Pattern PLACEHOLDER_NAME = Pattern.compile("[A-Za-z0-9_.\\-]+");
+    private static final String COLOR_CHARACTERS = "&#<>" + org.bukkit.ChatColor.COLOR_CHAR;
+
+    private final String[] literals;
+    private final String[] coloredLiterals;
+    private final String[] placeholders;
+    private final int length;
+
+    private MessageTemplate(String[] literals, String[] coloredLiterals, String[] placeholders) {
+        this.literals = literals;
+        this.coloredLiterals = coloredLiterals;
+        this.placeholders = placeholders;
+
+        int length = 0;
+        for (String literal : literals)
+            length += literal.length();
+        this.length = length;
+    }
+
+    /**
+     * Splits a message into text and placeholder slots and colors the text where it can be done ahead of time
+     *
+     * @param message The message from the locale file
+     * @return The compiled message
+     */
+    public static MessageTemplate compile(String message) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+
+        StringBuilder literal = new StringBuilder();
+        int position = 0;
+        while (position < message.length()) {
+            char c = message.charAt(position);
+            int close = c == '%' ? message.indexOf('%', position + 1) : -1;
+            if (close != -1 && PLACEHOLDER_NAME.matcher(message).region(position + 1, close).matches()) {
+                literals.add(literal.toString());
+                placeholders.add(message.substring(position + 1, close));
+                literal.setLength(0);
+                position = close + 1;
+            } else {
+                literal.append(c);
+                position++;
+            }
+        }
+        literals.add(literal.toString());
+
+        String[] literalArray = literals.toArray(new String[0]);
+        String[] coloredLiterals = null;
+        if (placeholders.isEmpty()) {
+            coloredLiterals = new String[] { HexUtils.colorify(literalArray[0]) };
+        } else if (literals.stream().noneMatch(HexUtils::endsInsideColor)) {
+            coloredLiterals = new String[literalArray.length];
+            for (int i = 0; i < literalArray.length; i++)
+                coloredLiterals[i] = HexUtils.colorify(literalArray[i]);
+        }
+
+        return new MessageTemplate(literalArray, coloredLiterals, placeholders.toArray(new String[0]));
+    }
+
+    /**
+     * Fills in the placeholders and colors the message
+     *
+     * @param stringPlaceholders The placeholder values, placeholders without a value are left as they are
+     * @return The finished message
+     */
+    public String render(StringPlaceholders stringPlaceholders) {
+        if (this.placeholders.length == 0)
+            return this.coloredLiterals[0];
+
+        String[] values = new String[this.placeholders.length];
+        boolean colored = this.coloredLiterals != null;
+        int length = this.length;
+        for (int i = 0; i < values.length; i++) {
+            String value = stringPlaceholders.getPlaceholders().get(this.placeholders[i]);
+            if (value == null)
+                value = '%' + this.placeholders[i] + '%';
+            if (colored && containsColorCharacters(value))
+                colored = false;
+            values[i] = value;
+            length += value.length();
+        }
+
+        String[] literals = colored ? this.coloredLiterals : this.literals;
+        StringBuilder builder = new StringBuilder(length + 16);
+        for (int i = 0; i < values.length; i++)
+            builder.append(literals[i]).append(values[i]);
+        builder.append(literals[values.length]);
+
+        return colored ? builder.toString() : HexUtils.colorify(builder.toString());
+    }
+
+    private static boolean containsColorCharacters(String value) {
+        for (int i = 0; i < value.length(); i++)
+            if (COLOR_CHARACTERS.indexOf(value.charAt(i)) != -1)
+                return true;
+        return false;
+    }
+
+}
@@ -1,5 +1,6 @@
 package dev.esophose.playerparticles.util;
 
+import dev.esophose.playerparticles.particles.ParticlePair;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -98,6 +99,38 @@ public final class ParticleUtils {
         return WordUtils.capitalizeFully(string.replaceAll("_", " "));
     }
 
+    /**
+     * Checks if a periodic style should spawn for a particle on the current step
+     * Each emitter gets its own offset into the period based on its owner and id, so emitters don't all spawn on the same tick
+     *
+     * @param step The style's current step, counting from 0 up to period - 1
+     * @param particle The ParticlePair being displayed
+     * @param period The number of steps between spawns
+     * @return true if the particle should spawn on this step
+     */
+    public static boolean isPhaseStep(int step, ParticlePair particle, int period) {
+        if (period <= 1)
+            return true;
+
+        int hash = (particle.getOwnerUniqueId() == null ? 0 : particle.getOwnerUniqueId().hashCode()) * 31 + particle.getId();
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        return (step + Math.floorMod(hash, period)) % period == 0;
+    }
+
+    /**
+     * Packs a block position into a single long, 26 bits for x and z and 12 bits for y
+     *
+     * @param x The block x
+     * @param y The block y
+     * @param z The block z
+     * @return The packed position
+     */
+    public static long packBlockPosition(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
     /**
      * Gets the smallest positive integer from an array
      * 